@@ -0,0 +1,30 @@
+package com.hypixel.hytale.logger;
+
+/**
+ * Stub da API do Hytale usado somente pelos benchmarks (sem o HytaleServer.jar).
+ */
+public class HytaleLogger {
+    
+    public static HytaleLogger forEnclosingClass() {
+        return new HytaleLogger();
+    }
+    
+    public Api atInfo() {
+        return new Api();
+    }
+    
+    public Api atWarning() {
+        return new Api();
+    }
+    
+    public Api atSevere() {
+        return new Api();
+    }
+    
+    public static class Api {
+        
+        public void log(String message) {
+            System.err.println(message);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.hypixel.hytale.protocol;
+
+import java.util.List;
+
+/**
+ * Stub da API do Hytale usado somente pelos benchmarks (sem o HytaleServer.jar).
+ * Guarda os mesmos dados que o servidor, para que o custo de montar mensagens seja realista.
+ */
+public class FormattedMessage {
+    public String rawText;
+    public String color;
+    public MaybeBool bold = MaybeBool.Null;
+    public MaybeBool italic = MaybeBool.Null;
+    public MaybeBool monospace = MaybeBool.Null;
+    public MaybeBool underlined = MaybeBool.Null;
+    public String link;
+    public List<FormattedMessage> children;
+}
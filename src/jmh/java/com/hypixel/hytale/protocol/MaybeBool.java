@@ -0,0 +1,10 @@
+package com.hypixel.hytale.protocol;
+
+/**
+ * Stub da API do Hytale usado somente pelos benchmarks (sem o HytaleServer.jar).
+ */
+public enum MaybeBool {
+    Null,
+    False,
+    True
+}
@@ -0,0 +1,62 @@
+package com.hypixel.hytale.server.core;
+
+import com.hypixel.hytale.protocol.FormattedMessage;
+import com.hypixel.hytale.protocol.MaybeBool;
+
+import java.awt.Color;
+import java.util.ArrayList;
+
+/**
+ * Stub da API do Hytale usado somente pelos benchmarks (sem o HytaleServer.jar).
+ */
+public class Message {
+    
+    private final FormattedMessage message = new FormattedMessage();
+    
+    public static Message raw(String text) {
+        Message msg = new Message();
+        msg.message.rawText = text;
+        return msg;
+    }
+    
+    public static Message empty() {
+        return new Message();
+    }
+    
+    public Message insert(Message child) {
+        if (message.children == null) {
+            message.children = new ArrayList<>();
+        }
+        message.children.add(child.message);
+        return this;
+    }
+    
+    public Message color(Color color) {
+        message.color = String.format("#%06X", color.getRGB() & 0xFFFFFF);
+        return this;
+    }
+    
+    public Message bold(boolean bold) {
+        message.bold = bold ? MaybeBool.True : MaybeBool.False;
+        return this;
+    }
+    
+    public Message italic(boolean italic) {
+        message.italic = italic ? MaybeBool.True : MaybeBool.False;
+        return this;
+    }
+    
+    public Message monospace(boolean monospace) {
+        message.monospace = monospace ? MaybeBool.True : MaybeBool.False;
+        return this;
+    }
+    
+    public Message link(String link) {
+        message.link = link;
+        return this;
+    }
+    
+    public FormattedMessage getFormattedMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,66 @@
+package com.hytale.server.plugin.chatquiz;
+
+import com.hypixel.hytale.server.core.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de montar mensagens formatadas: parse a cada envio vs template compilado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TinyMsgBenchmark {
+    
+    @Param({"simples", "codigos", "tags", "gradiente"})
+    public String caso;
+    
+    private static final Map<String, String> VALORES = Map.of("{player}", "Steve");
+    
+    private String texto;
+    private String template;
+    
+    @Setup
+    public void setup() {
+        switch (caso) {
+            case "simples":
+                template = "Parabens {player}, voce acertou a pergunta!";
+                break;
+            case "codigos":
+                template = "&6&lQUIZ &fParabens &a{player}&f! &7Voce acertou.";
+                break;
+            case "tags":
+                template = "<gold><b>QUIZ</b> <white>Parabens <color:#55ff55><u>{player}</u></color>!</white></gold>";
+                break;
+            default:
+                template = "<gradient:gold:red:#5555ff>Parabens {player}, voce acertou a pergunta!</gradient>";
+                break;
+        }
+        texto = template.replace("{player}", "Steve");
+    }
+    
+    @Benchmark
+    public Message parse() {
+        return TinyMsg.parse(texto);
+    }
+    
+    @Benchmark
+    public Message template() {
+        return TinyMsg.compile(template).render(VALORES);
+    }
+}
@@ -0,0 +1,86 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carregamento do ChatQuizConfig.json para bancos de perguntas de tamanhos diferentes:
+ * Gson completo vs banco indexado (BancoPerguntasArquivo).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatQuizConfigBenchmark {
+    
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    
+    @Param({"10", "10000", "100000"})
+    public int perguntas;
+    
+    private String json;
+    private Path arquivo;
+    
+    @Setup
+    public void setup() {
+        ChatQuizConfig config = new ChatQuizConfig();
+        List<ChatQuizConfig.PerguntaConfig> lista = new ArrayList<>(perguntas);
+        QuizType[] tipos = QuizType.values();
+        for (int i = 0; i < perguntas; i++) {
+            ChatQuizConfig.PerguntaConfig pergunta = new ChatQuizConfig.PerguntaConfig();
+            pergunta.setTipo(tipos[i % tipos.length]);
+            pergunta.setPergunta("Pergunta numero " + i + ": qual é a resposta?");
+            pergunta.setRespostas(Arrays.asList("resposta " + i, "resposta número " + i));
+            pergunta.setComandosAoAcertar(Arrays.asList("give {player} Ingredient_Bar_Gold --quantity=1"));
+            lista.add(pergunta);
+        }
+        config.setPerguntas(lista);
+        json = GSON.toJson(config);
+        
+        try {
+            arquivo = Files.createTempFile("ChatQuizConfig", ".json");
+            Files.writeString(arquivo, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(arquivo);
+    }
+    
+    @Benchmark
+    public ChatQuizConfig carregar() {
+        return GSON.fromJson(json, ChatQuizConfig.class);
+    }
+    
+    @Benchmark
+    public BancoPerguntas carregarIndexado() throws IOException {
+        BancoPerguntasArquivo.lerConfiguracaoSemPerguntas(arquivo, GSON);
+        return BancoPerguntasArquivo.abrir(arquivo, GSON);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de validar uma mensagem do chat contra a pergunta ativa, pelo validador
+ * que o motor do tipo compila na preparacao da rodada.
+ * 
+ * - acerto / erro: validacao completa (corresponde)
+ * - conversa: mensagem comum do chat passando pelo pre-filtro (podeSerResposta)
+ * - legado: implementacao original, normalizando todas as respostas a cada mensagem
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoRespostaBenchmark {
+    
+    @Param({"QUIZ", "TYPE", "SCRAMBLE", "MATH"})
+    public QuizType tipo;
+    
+    @Param({"1", "5", "50"})
+    public int respostas;
+    
+    @Param({"0", "6"})
+    public int tolerancia;
+    
+    private ValidadorResposta validador;
+    private List<String> respostasConfig;
+    private String acerto;
+    private String erro;
+    private String digitacao;
+    private String conversa;
+    
+    @Setup
+    public void setup() {
+        respostasConfig = new ArrayList<>();
+        for (int i = 0; i < respostas; i++) {
+            respostasConfig.add("Brasília variação " + i);
+        }
+        
+        ChatQuizConfig.PerguntaConfig pergunta = new ChatQuizConfig.PerguntaConfig();
+        pergunta.setTipo(tipo);
+        pergunta.setPergunta(tipo == QuizType.MATH ? "1000 + " + respostas : "Qual é a capital do Brasil?");
+        pergunta.setRespostas(respostasConfig);
+        pergunta.setTolerancia(tolerancia);
+        
+        MotorQuiz motor = RegistroMotores.get().motorDa(pergunta);
+        String problema = motor.validar(pergunta);
+        if (problema != null) {
+            throw new IllegalStateException(problema);
+        }
+        validador = motor.preparar(pergunta, new ChatQuizConfig(), new SplittableRandom(1)).validador();
+        acerto = "  brasilia VARIACAO " + (respostas - 1) + " ";
+        if (tipo == QuizType.TYPE) {
+            acerto = "  BRASÍLIA variação " + (respostas - 1) + " ";
+        }
+        if (tipo == QuizType.MATH) {
+            // Contas: resultado ja calculado, resposta com separador de milhar
+            acerto = " 1." + String.format("%03d", respostas) + " ";
+        }
+        erro = "brasilia variacao errada";
+        digitacao = "brasilai variacoa " + (respostas - 1);
+        conversa = "alguem quer trocar ferro por ouro?";
+    }
+    
+    @Benchmark
+    public boolean acerto() {
+        return validador.corresponde(acerto);
+    }
+    
+    @Benchmark
+    public boolean erro() {
+        return validador.corresponde(erro);
+    }
+    
+    @Benchmark
+    public boolean digitacao() {
+        return validador.corresponde(digitacao);
+    }
+    
+    @Benchmark
+    public boolean conversa() {
+        return validador.podeSerResposta(conversa) && validador.corresponde(conversa);
+    }
+    
+    @Benchmark
+    public boolean legado() {
+        String digitada = normalizarLegado(erro);
+        for (String resposta : respostasConfig) {
+            if (digitada.equals(normalizarLegado(resposta))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String normalizarLegado(String texto) {
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        normalizado = normalizado.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+        return normalizado.toLowerCase().trim();
+    }
+}
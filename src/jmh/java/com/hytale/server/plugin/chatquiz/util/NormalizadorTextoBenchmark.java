@@ -0,0 +1,67 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.Normalizer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * NormalizadorTexto comparado com o pipeline original (NFD + regex + toLowerCase + trim).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NormalizadorTextoBenchmark {
+    
+    @Param({"ascii", "acentuado", "unicode"})
+    public String caso;
+    
+    private String texto;
+    private String resposta;
+    
+    @Setup
+    public void setup() {
+        switch (caso) {
+            case "ascii":
+                texto = "brasilia";
+                break;
+            case "acentuado":
+                texto = "  Brasília é a Capital  ";
+                break;
+            default:
+                texto = "Brasília 한국어 ok";
+                break;
+        }
+        resposta = NormalizadorTexto.normalizar(texto);
+    }
+    
+    @Benchmark
+    public String normalizar() {
+        return NormalizadorTexto.normalizar(texto);
+    }
+    
+    @Benchmark
+    public boolean corresponde() {
+        return NormalizadorTexto.corresponde(texto, resposta);
+    }
+    
+    @Benchmark
+    public String legado() {
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        normalizado = normalizado.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
+        return normalizado.toLowerCase().trim();
+    }
+}
@@ -7,14 +7,27 @@ import com.hypixel.hytale.server.core.event.events.player.PlayerChatEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hytale.server.plugin.chatquiz.commands.ChatQuizCommand;
+import com.hytale.server.plugin.chatquiz.config.BancoPerguntas;
+import com.hytale.server.plugin.chatquiz.config.BancoPerguntasArquivo;
+import com.hytale.server.plugin.chatquiz.config.BancoPerguntasBinario;
 import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.CompiladorBancoBinario;
+import com.hytale.server.plugin.chatquiz.config.ConfiguracaoSnapshot;
 import com.hytale.server.plugin.chatquiz.listener.ChatQuizListener;
-import com.hytale.server.plugin.chatquiz.manager.QuizManager;
+import com.hytale.server.plugin.chatquiz.manager.EstatisticasManager;
+import com.hytale.server.plugin.chatquiz.manager.GerenciadorMundos;
+import com.hytale.server.plugin.chatquiz.manager.MetricasQuiz;
+import com.hytale.server.plugin.chatquiz.motor.RegistroMotores;
+import com.hytale.server.plugin.chatquiz.util.ObservadorArquivo;
 
 import javax.annotation.Nonnull;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Plugin ChatQuiz para Hytale.
@@ -25,9 +38,16 @@ public class ChatQuizPlugin extends JavaPlugin {
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
     private static final String CONFIG_FILE = "ChatQuizConfig.json";
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final long ATRASO_RECARGA_MS = 500;
     
-    private ChatQuizConfig configuracao;
-    private QuizManager quizManager;
+    private final Object lockRecarga = new Object();
+    private final AtomicLong versaoConfiguracao = new AtomicLong();
+    private final AtomicBoolean compilandoBanco = new AtomicBoolean();
+    private volatile ConfiguracaoSnapshot snapshot;
+    private GerenciadorMundos mundos;
+    private EstatisticasManager estatisticas;
+    private final MetricasQuiz metricas = new MetricasQuiz(this);
+    private ObservadorArquivo observador;
     
     public ChatQuizPlugin(@Nonnull JavaPluginInit init) {
         super(init);
@@ -36,6 +56,7 @@ public class ChatQuizPlugin extends JavaPlugin {
     @Override
     protected void setup() {
         LOGGER.atInfo().log("Inicializando ChatQuiz...");
+        LOGGER.atInfo().log("Motores de quiz: " + String.join(", ", RegistroMotores.get().getNomes()));
         
         // Carrega configuração
         try {
@@ -43,18 +64,21 @@ public class ChatQuizPlugin extends JavaPlugin {
         } catch (Exception e) {
             LOGGER.atWarning().log("Erro ao carregar configuracao inicial: " + e.getMessage());
             // Cria configuração padrão
-            configuracao = new ChatQuizConfig();
-            salvarConfiguracaoPadrao();
+            publicar(criarConfiguracaoPadrao());
         }
         
-        // Inicializa manager
-        quizManager = new QuizManager(this);
+        // Carrega estatisticas dos jogadores (mesma pasta da configuração)
+        estatisticas = new EstatisticasManager(this, getConfigPath().getParent());
+        estatisticas.carregar();
+        
+        // Inicializa os managers (um por mundo configurado, ou um para o universo)
+        mundos = new GerenciadorMundos(this);
         
         // Registra comandos
         getCommandRegistry().registerCommand(new ChatQuizCommand(this));
         
         // Registra eventos
-        getEventRegistry().registerGlobal(PlayerChatEvent.class, new ChatQuizListener(this, quizManager));
+        getEventRegistry().registerGlobal(PlayerChatEvent.class, new ChatQuizListener(this, mundos));
         
         LOGGER.atInfo().log("ChatQuiz inicializado com sucesso!");
     }
@@ -64,7 +88,10 @@ public class ChatQuizPlugin extends JavaPlugin {
         LOGGER.atInfo().log("Iniciando ciclo de quiz...");
         
         // Inicia o ciclo automático
-        quizManager.iniciarCiclo();
+        mundos.iniciarCiclo();
+        estatisticas.iniciar(getConfiguracao().getIntervaloGravacaoEstatisticasSegundos());
+        metricas.iniciar(getConfigPath().getParent(), getConfiguracao().getIntervaloMetricasSegundos());
+        atualizarObservador();
         
         LOGGER.atInfo().log("ChatQuiz ativo!");
     }
@@ -73,18 +100,104 @@ public class ChatQuizPlugin extends JavaPlugin {
     protected void shutdown() {
         LOGGER.atInfo().log("Desligando ChatQuiz...");
         
-        // Cancela quiz em andamento
-        if (quizManager != null) {
-            quizManager.cancelarQuizAtual();
+        // Para de observar o arquivo, cancela quiz em andamento e libera as threads
+        synchronized (lockRecarga) {
+            if (observador != null) {
+                observador.close();
+                observador = null;
+            }
+        }
+        if (mundos != null) {
+            mundos.desligar();
         }
+        if (estatisticas != null) {
+            estatisticas.desligar();
+        }
+        metricas.desligar();
         
         LOGGER.atInfo().log("ChatQuiz desligado.");
     }
     
     /**
-     * Carrega a configuração do arquivo
+     * Carrega a configuração do arquivo (inicialização do plugin)
      */
     public void carregarConfiguracao() throws IOException {
+        publicar(lerConfiguracao());
+    }
+    
+    /**
+     * Recarrega a configuração sem bloquear o chamador.
+     * O arquivo é lido, validado e compilado em uma thread virtual; somente no final
+     * o snapshot novo substitui o atual. Se algo falhar, o snapshot atual continua valendo.
+     * 
+     * @return Future com o snapshot publicado (ou com o erro de carregamento)
+     */
+    @Nonnull
+    public CompletableFuture<ConfiguracaoSnapshot> recarregarConfiguracao() {
+        return CompletableFuture.supplyAsync(() -> {
+            // Um reload por vez: o último a terminar é o último publicado
+            synchronized (lockRecarga) {
+                try {
+                    ConfiguracaoSnapshot novo = lerConfiguracao();
+                    publicar(novo);
+                    if (mundos != null) {
+                        mundos.aoRecarregarConfiguracao();
+                    }
+                    atualizarObservador();
+                    return novo;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }, tarefa -> Thread.ofVirtual().name("ChatQuiz-Recarga").start(tarefa));
+    }
+    
+    /**
+     * Liga ou desliga a recarga automática conforme a configuração atual
+     */
+    private void atualizarObservador() {
+        synchronized (lockRecarga) {
+            boolean ativo = snapshot.getConfig().isRecarregarAutomaticamente();
+            if (ativo && observador == null) {
+                try {
+                    observador = ObservadorArquivo.iniciar(getConfigPath(), ATRASO_RECARGA_MS, () ->
+                        recarregarConfiguracao().exceptionally(erro -> {
+                            LOGGER.atWarning().log("Erro ao recarregar configuracao: " + erro.getMessage());
+                            return null;
+                        }));
+                } catch (IOException e) {
+                    LOGGER.atWarning().log("Erro ao observar arquivo de configuracao: " + e.getMessage());
+                }
+            } else if (!ativo && observador != null) {
+                observador.close();
+                observador = null;
+            }
+        }
+    }
+    
+    private void publicar(@Nonnull ConfiguracaoSnapshot novo) {
+        snapshot = novo;
+        // Templates do snapshot ja tem o limiar; o global vale para mensagens montadas na hora
+        TinyMsg.setGradientThreshold(novo.getConfig().getLimiarCorGradiente());
+        
+        for (String aviso : novo.getAvisos()) {
+            LOGGER.atWarning().log(aviso);
+        }
+        ChatQuizConfig config = novo.getConfig();
+        LOGGER.atInfo().log("Configuracao carregada com sucesso! (versao " + novo.getVersao() + ")");
+        LOGGER.atInfo().log("Intervalo: " + config.getIntervaloInicioQuizSegundos() + "s");
+        LOGGER.atInfo().log("Duracao: " + config.getDuracaoQuizSegundos() + "s");
+        if (!novo.getMundos().isEmpty()) {
+            LOGGER.atInfo().log("Mundos: " + String.join(", ", novo.getMundos()));
+        }
+        LOGGER.atInfo().log("Perguntas: " + novo.getBanco().getTamanho() + " (" + novo.getPerguntasVerificadas() + " verificadas)");
+    }
+    
+    /**
+     * Lê o arquivo e monta um snapshot completo, sem alterar o estado do plugin
+     */
+    @Nonnull
+    private ConfiguracaoSnapshot lerConfiguracao() throws IOException {
         Path configPath = getConfigPath();
         
         // Cria pasta do plugin se não existir
@@ -96,25 +209,82 @@ public class ChatQuizPlugin extends JavaPlugin {
         // Cria configuração padrão se não existir
         if (!Files.exists(configPath)) {
             LOGGER.atInfo().log("Arquivo de configuracao nao encontrado. Criando configuracao padrao...");
-            configuracao = new ChatQuizConfig();
-            salvarConfiguracaoPadrao();
-            return;
+            return criarConfiguracaoPadrao();
         }
         
-        // Lê arquivo e converte
-        String json = Files.readString(configPath);
-        configuracao = GSON.fromJson(json, ChatQuizConfig.class);
+        // Lê as configurações em streaming e indexa as perguntas sem parsear cada uma
+        ChatQuizConfig novaConfiguracao;
+        BancoPerguntas banco;
+        try {
+            novaConfiguracao = BancoPerguntasArquivo.lerConfiguracaoSemPerguntas(configPath, GSON);
+            banco = novaConfiguracao.isBancoBinario() ? abrirBancoBinario(configPath) : null;
+            if (banco == null) {
+                banco = BancoPerguntasArquivo.abrir(configPath, GSON);
+            }
+            if (banco == null) {
+                banco = BancoPerguntas.emMemoria(novaConfiguracao.getPerguntas());
+            }
+        } catch (IOException e) {
+            // JSON fora do formato estrito (ex: comentarios): carrega tudo com o Gson
+            LOGGER.atWarning().log("Indexacao das perguntas falhou (" + e.getMessage() + "), carregando arquivo completo.");
+            String json = Files.readString(configPath);
+            novaConfiguracao = GSON.fromJson(json, ChatQuizConfig.class);
+            banco = BancoPerguntas.emMemoria(novaConfiguracao.getPerguntas());
+        }
         
-        LOGGER.atInfo().log("Configuracao carregada com sucesso!");
-        LOGGER.atInfo().log("Intervalo: " + configuracao.getIntervaloInicioQuizSegundos() + "s");
-        LOGGER.atInfo().log("Duracao: " + configuracao.getDuracaoQuizSegundos() + "s");
-        LOGGER.atInfo().log("Perguntas: " + configuracao.getPerguntas().size());
+        try {
+            // Perguntas sem alteracao desde o snapshot atual nao sao relidas
+            return ConfiguracaoSnapshot.compilar(versaoConfiguracao.incrementAndGet(), novaConfiguracao, banco, snapshot);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Configuracao invalida: " + e.getMessage(), e);
+        }
+    }
+    
+    @Nonnull
+    private ConfiguracaoSnapshot criarConfiguracaoPadrao() {
+        ChatQuizConfig padrao = new ChatQuizConfig();
+        salvarConfiguracaoPadrao(padrao);
+        return ConfiguracaoSnapshot.compilar(versaoConfiguracao.incrementAndGet(), padrao, BancoPerguntas.emMemoria(padrao.getPerguntas()), null);
+    }
+    
+    /**
+     * Abre o cache binario das perguntas se ele corresponder ao JSON atual.
+     * Se estiver ausente ou desatualizado, recompila em segundo plano e retorna null
+     * (o carregamento segue pelo JSON; o binario vale a partir do proximo carregamento).
+     */
+    private BancoPerguntas abrirBancoBinario(Path configPath) {
+        Path binPath = CompiladorBancoBinario.caminhoBinario(configPath);
+        try {
+            BancoPerguntasBinario banco = BancoPerguntasBinario.abrirSeValido(binPath, BancoPerguntasBinario.calcularHash(configPath));
+            if (banco != null) {
+                LOGGER.atInfo().log("Perguntas carregadas do cache binario: " + binPath.getFileName());
+                return banco;
+            }
+        } catch (IOException e) {
+            LOGGER.atWarning().log("Erro ao abrir cache binario: " + e.getMessage());
+        }
+        
+        // Uma compilacao por vez: recargas durante a compilacao usam o JSON e a proxima verifica o hash de novo
+        if (!compilandoBanco.compareAndSet(false, true)) {
+            return null;
+        }
+        Thread.ofVirtual().name("ChatQuiz-CompiladorBanco").start(() -> {
+            try {
+                int total = CompiladorBancoBinario.compilar(configPath, binPath, GSON);
+                LOGGER.atInfo().log("Cache binario atualizado: " + total + " perguntas");
+            } catch (Exception e) {
+                LOGGER.atWarning().log("Erro ao compilar cache binario: " + e.getMessage());
+            } finally {
+                compilandoBanco.set(false);
+            }
+        });
+        return null;
     }
     
     /**
      * Salva a configuração padrão no arquivo
      */
-    private void salvarConfiguracaoPadrao() {
+    private void salvarConfiguracaoPadrao(@Nonnull ChatQuizConfig configuracao) {
         try {
             Path configPath = getConfigPath();
             Path dataFolder = configPath.getParent();
@@ -151,19 +321,51 @@ public class ChatQuizPlugin extends JavaPlugin {
         return LOGGER;
     }
     
+    /**
+     * Obtém o snapshot de configuração atual (trocado por inteiro a cada reload)
+     */
+    @Nonnull
+    public ConfiguracaoSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
     /**
      * Obtém a configuração atual
      */
     @Nonnull
     public ChatQuizConfig getConfiguracao() {
-        return configuracao;
+        return snapshot.getConfig();
+    }
+    
+    /**
+     * Obtém o banco de perguntas atual
+     */
+    @Nonnull
+    public BancoPerguntas getBancoPerguntas() {
+        return snapshot.getBanco();
+    }
+    
+    /**
+     * Obtém os gerenciadores de quiz por mundo
+     */
+    @Nonnull
+    public GerenciadorMundos getMundos() {
+        return mundos;
+    }
+    
+    /**
+     * Obtém as estatísticas dos jogadores
+     */
+    @Nonnull
+    public EstatisticasManager getEstatisticas() {
+        return estatisticas;
     }
     
     /**
-     * Obtém o gerenciador de quiz
+     * Obtém as métricas do quiz
      */
     @Nonnull
-    public QuizManager getQuizManager() {
-        return quizManager;
+    public MetricasQuiz getMetricas() {
+        return metricas;
     }
 }
@@ -18,6 +18,10 @@ import java.util.regex.Pattern;
  *   Message msg = TinyMsg.parse("<color:red>Texto</color>");  // Tags TinyMsg
  *   Message msg = TinyMsg.parse("<gradient:red:blue>Gradiente</gradient>");  // Gradientes
  * 
+ * Templates estaticos (linhas de config) podem ser compilados uma unica vez:
+ *   TinyMsg.Template t = TinyMsg.compile("&fParabens &a{player}&f!");
+ *   Message msg = t.render(Map.of("{player}", nome));
+ * 
  * Cores Minecraft suportadas:
  *   &0-9, &a-f (cores), &l (negrito), &o (itálico), &n (sublinhado), &m (tachado), &r (reset)
  */
@@ -31,6 +35,29 @@ public class TinyMsg {
     
     // Mapeamento de códigos Minecraft para tags TinyMsg
     private static final Map<String, String> MINECRAFT_TO_TAGS = new HashMap<>();
+    
+    // Cache LRU de templates compilados
+    private static final int TEMPLATE_CACHE_SIZE = 256;
+    private static final Map<String, Template> TEMPLATE_CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+                return size() > TEMPLATE_CACHE_SIZE;
+            }
+        }
+    );
+    
+    // Cache LRU de gradientes renderizados e limiar de agrupamento de cores
+    private static final int GRADIENT_CACHE_SIZE = 256;
+    private static final Map<String, Message> GRADIENT_CACHE = Collections.synchronizedMap(
+        new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Message> eldest) {
+                return size() > GRADIENT_CACHE_SIZE;
+            }
+        }
+    );
+    private static volatile int gradientThreshold = 8;
 
     static {
         // Cores básicas do Minecraft
@@ -75,9 +102,9 @@ public class TinyMsg {
         MINECRAFT_TO_TAGS.put("&r", "<reset>");
     }
 
-    private record StyleState(
+    record StyleState(
             Color color,
-            List<Color> gradient,
+            int[] gradient, // Cores RGB compactadas (0xRRGGBB)
             boolean bold,
             boolean italic,
             boolean underlined,
@@ -96,7 +123,7 @@ public class TinyMsg {
             return new StyleState(color, null, bold, italic, underlined, monospace, link);
         }
 
-        StyleState withGradient(List<Color> gradient) {
+        StyleState withGradient(int[] gradient) {
             return new StyleState(null, gradient, bold, italic, underlined, monospace, link);
         }
 
@@ -148,9 +175,413 @@ public class TinyMsg {
             return Message.raw("");
         }
         
+        List<Segment> segments = segmentar(texto);
+        if (segments == null) {
+            return Message.raw(texto);
+        }
+        
+        int threshold = gradientThreshold;
+        Message root = Message.empty();
+        for (Segment segment : segments) {
+            root.insert(createStyledMessage(segment.content(), segment.state(), threshold));
+        }
+        return root;
+    }
+    
+    /**
+     * Compila um template para reutilizacao (resultado em cache LRU).
+     * Placeholders no formato {nome} viram slots preenchidos em render(),
+     * o restante do texto ja fica estilizado.
+     * 
+     * @param template Texto com formatação e placeholders (ex: "&fParabens &a{player}")
+     * @return Template compilado com o limiar de gradiente atual
+     */
+    public static Template compile(String template) {
+        return compile(template, gradientThreshold);
+    }
+    
+    /**
+     * Compila um template com um limiar de gradiente proprio, sem depender do limiar global
+     * (ex: templates de uma configuracao que ainda nao foi aplicada).
+     * 
+     * @param threshold Diferença máxima por canal (0-255) para agrupar cores do gradiente
+     */
+    public static Template compile(String template, int threshold) {
+        String chave = template == null ? "" : template;
+        int clamped = clampThreshold(threshold);
+        Template compilado = TEMPLATE_CACHE.get(chave);
+        if (compilado == null || compilado.gradientThreshold != clamped) {
+            compilado = new Template(chave, clamped);
+            TEMPLATE_CACHE.put(chave, compilado);
+        }
+        return compilado;
+    }
+    
+    /**
+     * Template pre-compilado: segmentos estaticos ja estilizados e slots de placeholder.
+     * Template sem placeholders retorna sempre a mesma Message.
+     */
+    public static final class Template {
+        
+        private final boolean raw;
+        private final int gradientThreshold;
+        private final List<Object> parts = new ArrayList<>(); // Message estatica ou DynamicPart
+        private final Message staticMessage;
+        
+        private record DynamicPart(String[] pieces, StyleState state) {}
+        
+        private Template(String texto, int gradientThreshold) {
+            List<Segment> segments = segmentar(texto);
+            this.raw = segments == null;
+            this.gradientThreshold = gradientThreshold;
+            
+            boolean dinamico = false;
+            if (raw) {
+                // Texto sem formatação: um único raw com slots
+                String[] pieces = splitPlaceholders(texto);
+                dinamico = pieces.length > 1;
+                parts.add(dinamico ? new DynamicPart(pieces, null) : Message.raw(texto));
+            } else {
+                for (Segment segment : segments) {
+                    String[] pieces = splitPlaceholders(segment.content());
+                    if (pieces.length > 1) {
+                        dinamico = true;
+                        parts.add(new DynamicPart(pieces, segment.state()));
+                    } else {
+                        parts.add(createStyledMessage(segment.content(), segment.state(), gradientThreshold));
+                    }
+                }
+            }
+            this.staticMessage = dinamico ? null : montar(Collections.emptyMap());
+        }
+        
+        /**
+         * Renderiza o template preenchendo os placeholders.
+         * Placeholders sem valor permanecem como texto.
+         * 
+         * @param valores Mapa placeholder -> valor (ex: "{player}" -> "Steve")
+         */
+        public Message render(Map<String, String> valores) {
+            return staticMessage != null ? staticMessage : montar(valores);
+        }
+        
+        public Message render() {
+            return render(Collections.emptyMap());
+        }
+        
+        private Message montar(Map<String, String> valores) {
+            if (raw) {
+                Object part = parts.get(0);
+                return part instanceof DynamicPart dynamic ? Message.raw(fill(dynamic.pieces(), valores)) : (Message) part;
+            }
+            Message root = Message.empty();
+            for (Object part : parts) {
+                if (part instanceof DynamicPart dynamic) {
+                    root.insert(createStyledMessage(fill(dynamic.pieces(), valores), dynamic.state(), gradientThreshold));
+                } else {
+                    root.insert((Message) part);
+                }
+            }
+            return root;
+        }
+        
+        /**
+         * Divide o texto em [literal, placeholder, literal, placeholder, ..., literal]
+         */
+        private static String[] splitPlaceholders(String texto) {
+            List<String> pieces = new ArrayList<>();
+            int last = 0;
+            int open = texto.indexOf('{');
+            while (open >= 0) {
+                int close = texto.indexOf('}', open + 1);
+                if (close < 0) {
+                    break;
+                }
+                if (isPlaceholderName(texto, open + 1, close)) {
+                    pieces.add(texto.substring(last, open));
+                    pieces.add(texto.substring(open, close + 1));
+                    last = close + 1;
+                    open = texto.indexOf('{', last);
+                } else {
+                    open = texto.indexOf('{', open + 1);
+                }
+            }
+            pieces.add(texto.substring(last));
+            return pieces.toArray(new String[0]);
+        }
+        
+        private static boolean isPlaceholderName(String texto, int start, int end) {
+            if (start >= end) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                char c = texto.charAt(i);
+                if (!Character.isLetterOrDigit(c) && c != '_') {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static String fill(String[] pieces, Map<String, String> valores) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < pieces.length; i++) {
+                if ((i & 1) == 0) {
+                    sb.append(pieces[i]);
+                } else {
+                    String valor = valores.get(pieces[i]);
+                    sb.append(valor != null ? valor : pieces[i]);
+                }
+            }
+            return sb.toString();
+        }
+    }
+    
+    record Segment(String content, StyleState state) {}
+    
+    // Ações das tags conhecidas (tabela consultada pelo lexer)
+    private static final int TAG_UNKNOWN = 0;
+    private static final int TAG_NAMED_COLOR = 1;
+    private static final int TAG_COLOR = 2;
+    private static final int TAG_GRADIENT = 3;
+    private static final int TAG_BOLD = 4;
+    private static final int TAG_ITALIC = 5;
+    private static final int TAG_UNDERLINE = 6;
+    private static final int TAG_MONOSPACE = 7;
+    private static final int TAG_LINK = 8;
+    private static final int TAG_RESET = 9;
+    
+    private record TagDef(String name, int action, Color color) {}
+    
+    private static final TagDef UNKNOWN_TAG = new TagDef("", TAG_UNKNOWN, null);
+    
+    // Tags agrupadas pelo tamanho do nome; comparação case insensitive sem criar Strings
+    private static final TagDef[][] TAGS_BY_LENGTH = new TagDef[16][];
+    
+    // Estado resultante de cada código & (índice pelo char); null = não é código
+    private static final TagDef[] CODE_TAGS = new TagDef[128];
+    
+    static {
+        List<TagDef> defs = new ArrayList<>();
+        NAMED_COLORS.forEach((name, color) -> defs.add(new TagDef(name, TAG_NAMED_COLOR, color)));
+        for (String name : new String[] {"color", "c", "colour"}) defs.add(new TagDef(name, TAG_COLOR, null));
+        for (String name : new String[] {"grnt", "gradient"}) defs.add(new TagDef(name, TAG_GRADIENT, null));
+        for (String name : new String[] {"bold", "b"}) defs.add(new TagDef(name, TAG_BOLD, null));
+        for (String name : new String[] {"italic", "i", "em"}) defs.add(new TagDef(name, TAG_ITALIC, null));
+        for (String name : new String[] {"underline", "u"}) defs.add(new TagDef(name, TAG_UNDERLINE, null));
+        for (String name : new String[] {"monospace", "mono"}) defs.add(new TagDef(name, TAG_MONOSPACE, null));
+        for (String name : new String[] {"link", "url"}) defs.add(new TagDef(name, TAG_LINK, null));
+        for (String name : new String[] {"reset", "r"}) defs.add(new TagDef(name, TAG_RESET, null));
+        
+        for (TagDef def : defs) {
+            int length = def.name().length();
+            TagDef[] bucket = TAGS_BY_LENGTH[length] == null ? new TagDef[0] : TAGS_BY_LENGTH[length];
+            bucket = Arrays.copyOf(bucket, bucket.length + 1);
+            bucket[bucket.length - 1] = def;
+            TAGS_BY_LENGTH[length] = bucket;
+        }
+        
+        // Cada código & equivale à tag para a qual minecraftToTags o converteria
+        for (Map.Entry<String, String> entry : MINECRAFT_TO_TAGS.entrySet()) {
+            String tag = entry.getValue();
+            TagDef def = findTag(tag, 1, tag.length() - 1);
+            CODE_TAGS[entry.getKey().charAt(1)] = def != null ? def : new TagDef(tag, TAG_UNKNOWN, null);
+        }
+    }
+    
+    private static TagDef findTag(String texto, int start, int end) {
+        int length = end - start;
+        if (length >= TAGS_BY_LENGTH.length || TAGS_BY_LENGTH[length] == null) {
+            return null;
+        }
+        for (TagDef def : TAGS_BY_LENGTH[length]) {
+            if (texto.regionMatches(true, start, def.name(), 0, length)) {
+                return def;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isCode(String texto, int index) {
+        if (index + 1 >= texto.length() || texto.charAt(index) != '&') {
+            return false;
+        }
+        char code = texto.charAt(index + 1);
+        return code < CODE_TAGS.length && CODE_TAGS[code] != null;
+    }
+    
+    private static boolean isTagNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+    
+    /**
+     * Divide o texto em segmentos com estilo.
+     * Retorna null quando o texto não tem formatação e deve virar Message.raw.
+     * 
+     * Lexer de passada única: entende códigos & e tags <tag:arg> no mesmo scan,
+     * sem a conversão intermediária de minecraftToTags nem regex. O resultado é
+     * idêntico ao de segmentarLegado.
+     */
+    static List<Segment> segmentar(String texto) {
+        int length = texto.length();
+        List<Segment> segments = null;
+        Deque<StyleState> stateStack = null;
+        boolean hasTagOpen = false;
+        int textStart = 0;
+        int i = 0;
+        
+        while (i < length) {
+            char c = texto.charAt(i);
+            int tagEnd = -1;
+            TagDef def = null;
+            boolean closing = false;
+            int argStart = -1;
+            int argEnd = -1;
+            
+            if (c == '&' && isCode(texto, i)) {
+                def = CODE_TAGS[texto.charAt(i + 1)];
+                tagEnd = i + 2;
+            } else if (c == '<') {
+                hasTagOpen = true;
+                
+                // Mesmo formato do regex: <(/?)([a-zA-Z0-9_]+)(?::([^>]+))?>
+                int j = i + 1;
+                if (j < length && texto.charAt(j) == '/') {
+                    closing = true;
+                    j++;
+                }
+                int nameStart = j;
+                while (j < length && isTagNameChar(texto.charAt(j))) {
+                    j++;
+                }
+                int nameEnd = j;
+                
+                if (nameEnd > nameStart && j < length) {
+                    if (texto.charAt(j) == '>') {
+                        tagEnd = j + 1;
+                    } else if (texto.charAt(j) == ':') {
+                        int k = j + 1;
+                        while (k < length && texto.charAt(k) != '>') {
+                            // Código & dentro do argumento: minecraftToTags mudaria o argumento
+                            if (isCode(texto, k)) {
+                                return segmentarLegado(texto);
+                            }
+                            k++;
+                        }
+                        if (k < length && k > j + 1) {
+                            argStart = j + 1;
+                            argEnd = k;
+                            tagEnd = k + 1;
+                        }
+                    }
+                }
+                if (tagEnd >= 0 && !closing) {
+                    def = findTag(texto, nameStart, nameEnd);
+                    if (def == null) {
+                        def = UNKNOWN_TAG;
+                    }
+                }
+            }
+            
+            if (tagEnd < 0) {
+                i++;
+                continue;
+            }
+            
+            if (segments == null) {
+                segments = new ArrayList<>();
+                stateStack = new ArrayDeque<>();
+                stateStack.push(new StyleState());
+            }
+            
+            // Texto antes da tag
+            if (i > textStart) {
+                segments.add(new Segment(texto.substring(textStart, i), stateStack.peek()));
+            }
+            
+            if (closing) {
+                if (stateStack.size() > 1) {
+                    stateStack.pop();
+                }
+            } else {
+                String arg = argStart >= 0 ? texto.substring(argStart, argEnd) : null;
+                applyTag(stateStack, def, arg);
+            }
+            
+            i = tagEnd;
+            textStart = tagEnd;
+        }
+        
+        if (segments == null) {
+            if (!hasTagOpen) {
+                return null;
+            }
+            segments = new ArrayList<>(1);
+            segments.add(new Segment(texto, new StyleState()));
+            return segments;
+        }
+        
+        // Texto restante
+        if (textStart < length) {
+            segments.add(new Segment(texto.substring(textStart), stateStack.peek()));
+        }
+        return segments;
+    }
+    
+    private static void applyTag(Deque<StyleState> stateStack, TagDef def, String arg) {
+        StyleState current = stateStack.peek();
+        StyleState newState = current;
+        
+        switch (def.action()) {
+            case TAG_NAMED_COLOR:
+                newState = current.withColor(def.color());
+                break;
+            case TAG_COLOR:
+                Color c = parseColorArg(arg);
+                if (c != null) newState = current.withColor(c);
+                break;
+            case TAG_GRADIENT:
+                if (arg != null) {
+                    int[] colors = parseGradientColors(arg);
+                    if (colors.length > 0) {
+                        newState = current.withGradient(colors);
+                    }
+                }
+                break;
+            case TAG_BOLD:
+                newState = current.withBold(true);
+                break;
+            case TAG_ITALIC:
+                newState = current.withItalic(true);
+                break;
+            case TAG_UNDERLINE:
+                newState = current.withUnderlined(true);
+                break;
+            case TAG_MONOSPACE:
+                newState = current.withMonospace(true);
+                break;
+            case TAG_LINK:
+                if (arg != null) newState = current.withLink(arg);
+                break;
+            case TAG_RESET:
+                stateStack.clear();
+                newState = new StyleState();
+                break;
+            default:
+                // Tag desconhecida: empilha o mesmo estado (StyleState é imutável)
+                break;
+        }
+        stateStack.push(newState);
+    }
+    
+    /**
+     * Implementação original (minecraftToTags + regex).
+     * Usada como referência (TinyMsgTest compara as duas) e para o caso raro de código & dentro do argumento de uma tag.
+     */
+    static List<Segment> segmentarLegado(String texto) {
         // Se não tem formatação, retorna texto cru
         if (!texto.contains("&") && !texto.contains("<")) {
-            return Message.raw(texto);
+            return null;
         }
         
         // Converte códigos Minecraft para tags primeiro
@@ -158,10 +589,10 @@ public class TinyMsg {
         
         // Se não tem tags após conversão, retorna texto cru
         if (!texto.contains("<")) {
-            return Message.raw(texto);
+            return null;
         }
 
-        Message root = Message.empty();
+        List<Segment> segments = new ArrayList<>();
         Deque<StyleState> stateStack = new ArrayDeque<>();
         stateStack.push(new StyleState());
 
@@ -174,9 +605,7 @@ public class TinyMsg {
 
             // Processa texto ANTES da tag
             if (start > lastIndex) {
-                String content = texto.substring(lastIndex, start);
-                Message segmentMsg = createStyledMessage(content, stateStack.peek());
-                root.insert(segmentMsg);
+                segments.add(new Segment(texto.substring(lastIndex, start), stateStack.peek()));
             }
 
             // Processa a tag
@@ -206,8 +635,8 @@ public class TinyMsg {
                         case "grnt":
                         case "gradient":
                             if (tagArg != null) {
-                                List<Color> colors = parseGradientColors(tagArg);
-                                if (!colors.isEmpty()) {
+                                int[] colors = parseGradientColors(tagArg);
+                                if (colors.length > 0) {
                                     newState = newState.withGradient(colors);
                                 }
                             }
@@ -254,17 +683,15 @@ public class TinyMsg {
 
         // Processa texto restante
         if (lastIndex < texto.length()) {
-            String content = texto.substring(lastIndex);
-            Message segmentMsg = createStyledMessage(content, stateStack.peek());
-            root.insert(segmentMsg);
+            segments.add(new Segment(texto.substring(lastIndex), stateStack.peek()));
         }
 
-        return root;
+        return segments;
     }
 
-    private static Message createStyledMessage(String content, StyleState state) {
-        if (state.gradient != null && !state.gradient.isEmpty()) {
-            return applyGradient(content, state);
+    private static Message createStyledMessage(String content, StyleState state, int threshold) {
+        if (state.gradient != null && state.gradient.length > 0) {
+            return applyGradient(content, state, threshold);
         }
 
         Message msg = Message.raw(content);
@@ -279,41 +706,125 @@ public class TinyMsg {
         return msg;
     }
 
-    private static Message applyGradient(String text, StyleState state) {
+    /**
+     * Gradiente renderizado em trechos: caracteres vizinhos com a mesma cor
+     * (ou diferença por canal até o limiar configurado) viram um único segmento.
+     * O resultado fica em cache por (texto, cores, estilo, limiar).
+     */
+    private static Message applyGradient(String text, StyleState state, int threshold) {
+        String key = gradientKey(text, state, threshold);
+        Message cached = GRADIENT_CACHE.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        
         Message container = Message.empty();
-        List<Color> colors = state.gradient;
+        int[] colors = state.gradient;
         int length = text.length();
-
+        
+        int runStart = 0;
+        int runColor = 0;
         for (int index = 0; index < length; index++) {
-            char ch = text.charAt(index);
             float progress = index / (float) Math.max(length - 1, 1);
-            Color color = interpolateColor(colors, progress);
-
-            Message charMsg = Message.raw(String.valueOf(ch)).color(color);
-
-            if (state.bold) charMsg.bold(true);
-            if (state.italic) charMsg.italic(true);
-            if (state.monospace) charMsg.monospace(true);
-            if (state.underlined) charMsg.getFormattedMessage().underlined = MaybeBool.True;
-            if (state.link != null) charMsg.link(state.link);
-
-            container.insert(charMsg);
+            int color = quantize(interpolateColor(colors, progress), threshold);
+            
+            if (index == 0) {
+                runColor = color;
+                continue;
+            }
+            // Não separa pares surrogate
+            boolean splitsSurrogate = Character.isHighSurrogate(text.charAt(index - 1));
+            if (!splitsSurrogate && colorDistance(runColor, color) > threshold) {
+                container.insert(createGradientRun(text.substring(runStart, index), runColor, state));
+                runStart = index;
+                runColor = color;
+            }
         }
+        if (length > 0) {
+            container.insert(createGradientRun(text.substring(runStart), runColor, state));
+        }
+        
+        GRADIENT_CACHE.put(key, container);
         return container;
     }
+    
+    private static Message createGradientRun(String text, int rgb, StyleState state) {
+        Message runMsg = Message.raw(text).color(new Color(rgb));
+        
+        if (state.bold) runMsg.bold(true);
+        if (state.italic) runMsg.italic(true);
+        if (state.monospace) runMsg.monospace(true);
+        if (state.underlined) runMsg.getFormattedMessage().underlined = MaybeBool.True;
+        if (state.link != null) runMsg.link(state.link);
+        
+        return runMsg;
+    }
+    
+    private static String gradientKey(String text, StyleState state, int threshold) {
+        StringBuilder key = new StringBuilder(text.length() + 32);
+        key.append(threshold).append(':');
+        for (int color : state.gradient) {
+            key.append(Integer.toHexString(color)).append(':');
+        }
+        key.append(state.bold ? 'b' : '-')
+           .append(state.italic ? 'i' : '-')
+           .append(state.monospace ? 'm' : '-')
+           .append(state.underlined ? 'u' : '-')
+           .append(state.link != null ? state.link : "")
+           .append('\0')
+           .append(text);
+        return key.toString();
+    }
+    
+    /**
+     * Arredonda os canais para múltiplos do limiar, aumentando trechos de cor igual
+     */
+    private static int quantize(int rgb, int threshold) {
+        if (threshold <= 0) {
+            return rgb;
+        }
+        int step = threshold + 1;
+        int r = Math.min(255, Math.round(((rgb >> 16) & 0xFF) / (float) step) * step);
+        int g = Math.min(255, Math.round(((rgb >> 8) & 0xFF) / (float) step) * step);
+        int b = Math.min(255, Math.round((rgb & 0xFF) / (float) step) * step);
+        return (r << 16) | (g << 8) | b;
+    }
+    
+    private static int colorDistance(int a, int b) {
+        int dr = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+        int dg = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+        int db = Math.abs((a & 0xFF) - (b & 0xFF));
+        return Math.max(dr, Math.max(dg, db));
+    }
+    
+    /**
+     * Define a diferença máxima por canal (0-255) para cores de gradiente serem agrupadas,
+     * usada por parse() e compile(String). 0 agrupa somente cores idênticas.
+     * Os caches guardam o limiar de cada entrada, entao nao precisam ser limpos:
+     * templates ja compilados continuam com o limiar deles.
+     */
+    public static void setGradientThreshold(int threshold) {
+        gradientThreshold = clampThreshold(threshold);
+    }
+    
+    private static int clampThreshold(int threshold) {
+        return Math.max(0, Math.min(255, threshold));
+    }
 
     private static Color parseColorArg(String arg) {
         if (arg == null) return null;
         return NAMED_COLORS.containsKey(arg) ? NAMED_COLORS.get(arg) : parseHexColor(arg);
     }
 
-    private static List<Color> parseGradientColors(String arg) {
-        List<Color> colors = new ArrayList<>();
-        for (String part : arg.split(":")) {
+    private static int[] parseGradientColors(String arg) {
+        String[] parts = arg.split(":");
+        int[] colors = new int[parts.length];
+        int count = 0;
+        for (String part : parts) {
             Color c = parseColorArg(part);
-            if (c != null) colors.add(c);
+            if (c != null) colors[count++] = c.getRGB() & 0xFFFFFF;
         }
-        return colors;
+        return count == colors.length ? colors : Arrays.copyOf(colors, count);
     }
 
     private static Color parseHexColor(String hex) {
@@ -331,19 +842,26 @@ public class TinyMsg {
         }
     }
 
-    private static Color interpolateColor(List<Color> colors, float progress) {
+    private static int interpolateColor(int[] colors, float progress) {
+        if (colors.length == 1) {
+            return colors[0];
+        }
         float clampedProgress = Math.max(0f, Math.min(1f, progress));
-        float scaledProgress = clampedProgress * (colors.size() - 1);
-        int index = Math.min((int) scaledProgress, colors.size() - 2);
+        float scaledProgress = clampedProgress * (colors.length - 1);
+        int index = Math.min((int) scaledProgress, colors.length - 2);
         float localProgress = scaledProgress - index;
 
-        Color c1 = colors.get(index);
-        Color c2 = colors.get(index + 1);
+        int c1 = colors[index];
+        int c2 = colors[index + 1];
 
-        int r = (int) (c1.getRed() + (c2.getRed() - c1.getRed()) * localProgress);
-        int g = (int) (c1.getGreen() + (c2.getGreen() - c1.getGreen()) * localProgress);
-        int b = (int) (c1.getBlue() + (c2.getBlue() - c1.getBlue()) * localProgress);
+        int r = interpolateChannel((c1 >> 16) & 0xFF, (c2 >> 16) & 0xFF, localProgress);
+        int g = interpolateChannel((c1 >> 8) & 0xFF, (c2 >> 8) & 0xFF, localProgress);
+        int b = interpolateChannel(c1 & 0xFF, c2 & 0xFF, localProgress);
 
-        return new Color(r, g, b);
+        return (r << 16) | (g << 8) | b;
+    }
+    
+    private static int interpolateChannel(int from, int to, float progress) {
+        return (int) (from + (to - from) * progress);
     }
 }
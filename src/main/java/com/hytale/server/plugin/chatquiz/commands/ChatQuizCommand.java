@@ -19,17 +19,22 @@ public class ChatQuizCommand extends AbstractAsyncCommand {
     public ChatQuizCommand(@Nonnull ChatQuizPlugin plugin) {
         super("chatquiz", "server.commands.chatquiz.desc");
         this.plugin = plugin;
+        addSubCommand(new ChatQuizReloadCommand(plugin));
+        addSubCommand(new ChatQuizTopCommand(plugin));
+        addSubCommand(new ChatQuizStatsCommand(plugin));
     }
     
     @Override
     protected CompletableFuture<Void> executeAsync(@Nonnull CommandContext context) {
         return CompletableFuture.runAsync(() -> {
-            // Comando simplificado - sempre inicia quiz
-            // Cancela quiz atual se houver
-            plugin.getQuizManager().cancelarQuizAtual();
-            
-            // Inicia quiz imediatamente
-            plugin.getQuizManager().iniciarQuiz();
+            // Comando simplificado - sempre inicia quiz (em cada mundo com rodada propria)
+            for (QuizManager quizManager : plugin.getMundos().getManagers()) {
+                // Cancela quiz atual se houver
+                quizManager.cancelarQuizAtual();
+                
+                // Inicia quiz imediatamente
+                quizManager.iniciarQuiz();
+            }
             
             LOGGER.atInfo().log("Quiz iniciado manualmente.");
             plugin.getLogger().atInfo().log("Quiz iniciado por comando.");
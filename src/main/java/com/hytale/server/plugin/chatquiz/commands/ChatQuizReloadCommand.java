@@ -0,0 +1,39 @@
+package com.hytale.server.plugin.chatquiz.commands;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Comando /chatquiz reload
+ * Recarrega a configuracao em segundo plano; a rodada atual continua com a configuracao antiga.
+ */
+public class ChatQuizReloadCommand extends AbstractAsyncCommand {
+    
+    private final ChatQuizPlugin plugin;
+    
+    public ChatQuizReloadCommand(@Nonnull ChatQuizPlugin plugin) {
+        super("reload", "server.commands.chatquiz.reload.desc");
+        this.plugin = plugin;
+    }
+    
+    @Override
+    protected CompletableFuture<Void> executeAsync(@Nonnull CommandContext context) {
+        return plugin.recarregarConfiguracao().handle((snapshot, erro) -> {
+            if (erro != null) {
+                Throwable causa = erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+                context.sendMessage(Message.raw("Erro ao recarregar configuracao: " + causa.getMessage()));
+                plugin.getLogger().atWarning().log("Erro ao recarregar configuracao: " + causa.getMessage());
+            } else {
+                context.sendMessage(Message.raw("Configuracao recarregada! Perguntas: " + snapshot.getBanco().getTamanho()
+                    + (snapshot.getAvisos().isEmpty() ? "" : " (" + snapshot.getAvisos().size() + " avisos no log)")));
+            }
+            return null;
+        });
+    }
+}
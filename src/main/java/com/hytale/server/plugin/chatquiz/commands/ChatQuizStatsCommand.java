@@ -0,0 +1,32 @@
+package com.hytale.server.plugin.chatquiz.commands;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Comando /chatquiz stats
+ * Mostra as latencias e os resultados das rodadas desde que o servidor iniciou.
+ */
+public class ChatQuizStatsCommand extends AbstractAsyncCommand {
+    
+    private final ChatQuizPlugin plugin;
+    
+    public ChatQuizStatsCommand(@Nonnull ChatQuizPlugin plugin) {
+        super("stats", "server.commands.chatquiz.stats.desc");
+        this.plugin = plugin;
+    }
+    
+    @Override
+    protected CompletableFuture<Void> executeAsync(@Nonnull CommandContext context) {
+        context.sendMessage(Message.raw("Metricas do Quiz"));
+        for (String linha : plugin.getMetricas().resumo()) {
+            context.sendMessage(Message.raw(linha));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
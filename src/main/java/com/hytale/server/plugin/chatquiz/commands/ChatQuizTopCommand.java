@@ -0,0 +1,51 @@
+package com.hytale.server.plugin.chatquiz.commands;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.manager.JanelaRanking;
+import com.hytale.server.plugin.chatquiz.manager.PosicaoRanking;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Comando /chatquiz top [diario|semanal]
+ * Mostra os maiores vencedores direto do ranking mantido a cada vitoria (sem ordenar jogadores).
+ */
+public class ChatQuizTopCommand extends AbstractAsyncCommand {
+    
+    private static final int TAMANHO_TOPO = 10;
+    
+    private final ChatQuizPlugin plugin;
+    private final JanelaRanking janela;
+    
+    public ChatQuizTopCommand(@Nonnull ChatQuizPlugin plugin) {
+        this(plugin, "top", JanelaRanking.GERAL);
+        addSubCommand(new ChatQuizTopCommand(plugin, "diario", JanelaRanking.DIARIO));
+        addSubCommand(new ChatQuizTopCommand(plugin, "semanal", JanelaRanking.SEMANAL));
+    }
+    
+    private ChatQuizTopCommand(@Nonnull ChatQuizPlugin plugin, @Nonnull String nome, @Nonnull JanelaRanking janela) {
+        super(nome, "server.commands.chatquiz.top." + nome + ".desc");
+        this.plugin = plugin;
+        this.janela = janela;
+    }
+    
+    @Override
+    protected CompletableFuture<Void> executeAsync(@Nonnull CommandContext context) {
+        List<PosicaoRanking> topo = plugin.getEstatisticas().getTopo(janela, TAMANHO_TOPO);
+        
+        context.sendMessage(Message.raw("Top " + TAMANHO_TOPO + " do Quiz (" + janela.name().toLowerCase() + ")"));
+        if (topo.isEmpty()) {
+            context.sendMessage(Message.raw("Nenhuma vitoria ainda."));
+        }
+        for (PosicaoRanking posicao : topo) {
+            context.sendMessage(Message.raw(posicao.posicao() + ". " + posicao.nome() + " - " + posicao.vitorias()
+                + (posicao.vitorias() == 1 ? " vitoria" : " vitorias")));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Banco de perguntas consultado pelo QuizManager.
+ * Permite que as perguntas fiquem fora do heap e sejam carregadas sob demanda.
+ */
+public interface BancoPerguntas {
+    
+    /**
+     * Quantidade de perguntas no banco
+     */
+    int getTamanho();
+    
+    /**
+     * Obtem a pergunta pelo indice (0 a getTamanho() - 1)
+     * @return Pergunta, ou null se a entrada nao puder ser lida
+     */
+    @Nullable
+    ChatQuizConfig.PerguntaConfig getPergunta(int indice);
+    
+    default boolean isVazio() {
+        return getTamanho() == 0;
+    }
+    
+    /**
+     * Hash do conteudo da pergunta, usado para detectar o que mudou entre recargas.
+     * A implementacao padrao le a pergunta; bancos em arquivo podem calcular direto dos bytes.
+     */
+    default long getHashConteudo(int indice) {
+        ChatQuizConfig.PerguntaConfig pergunta = getPergunta(indice);
+        if (pergunta == null) {
+            return 0;
+        }
+        long hash = Objects.hashCode(pergunta.getTipo());
+        hash = hash * 0x100000001B3L + Objects.hashCode(pergunta.getPergunta());
+        hash = hash * 0x100000001B3L + Objects.hashCode(pergunta.getRespostas());
+        hash = hash * 0x100000001B3L + Objects.hashCode(pergunta.getComandosAoAcertar());
+        hash = hash * 0x100000001B3L + Double.hashCode(pergunta.getPeso());
+        hash = hash * 0x100000001B3L + Objects.hashCode(pergunta.getMundos());
+        hash = hash * 0x100000001B3L + pergunta.getTolerancia();
+        hash = hash * 0x100000001B3L + pergunta.getDificuldade().ordinal();
+        hash = hash * 0x100000001B3L + Objects.hashCode(pergunta.getMotor());
+        return hash;
+    }
+    
+    /**
+     * Banco simples com todas as perguntas em memoria
+     */
+    @Nonnull
+    static BancoPerguntas emMemoria(@Nonnull List<ChatQuizConfig.PerguntaConfig> perguntas) {
+        List<ChatQuizConfig.PerguntaConfig> copia = List.copyOf(perguntas);
+        return new BancoPerguntas() {
+            @Override
+            public int getTamanho() {
+                return copia.size();
+            }
+            
+            @Override
+            public ChatQuizConfig.PerguntaConfig getPergunta(int indice) {
+                return copia.get(indice);
+            }
+        };
+    }
+}
@@ -0,0 +1,424 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Banco de perguntas indexado sobre o ChatQuizConfig.json.
+ * 
+ * O arquivo e percorrido uma unica vez, em streaming, para montar um indice compacto
+ * (posicao, tamanho e hash de cada pergunta do array "perguntas"); so o indice fica no heap.
+ * Nenhuma pergunta e parseada na abertura; cada uma e lida do arquivo com leitura
+ * posicional (FileChannel.read) quando sorteada.
+ * 
+ * O arquivo nao fica mapeado nem aberto: ele e editado a mao enquanto o servidor roda, e um
+ * mapeamento leria bytes de um salvamento pela metade, quebraria (SIGBUS) se o arquivo
+ * encolhesse e, no Windows, travaria o arquivo para o editor. O tamanho e a data de
+ * modificacao da indexacao sao conferidos a cada leitura: se o arquivo mudou, o indice
+ * nao vale mais e a pergunta nao e lida (o observador de arquivo recarrega a configuracao).
+ * 
+ * As demais configuracoes sao lidas com JsonReader, pulando o array de perguntas.
+ */
+public final class BancoPerguntasArquivo implements BancoPerguntas {
+    
+    private static final byte[] CHAVE_PERGUNTAS = "perguntas".getBytes(StandardCharsets.US_ASCII);
+    
+    private final Gson gson;
+    private final Path arquivo;
+    private final long tamanhoArquivo;
+    private final FileTime modificacao;
+    private final int[] inicios;
+    private final int[] tamanhos;
+    private final long[] hashes;
+    
+    private BancoPerguntasArquivo(Gson gson, Path arquivo, long tamanhoArquivo, FileTime modificacao,
+                                  int[] inicios, int[] tamanhos, long[] hashes) {
+        this.gson = gson;
+        this.arquivo = arquivo;
+        this.tamanhoArquivo = tamanhoArquivo;
+        this.modificacao = modificacao;
+        this.inicios = inicios;
+        this.tamanhos = tamanhos;
+        this.hashes = hashes;
+    }
+    
+    /**
+     * Indexa as perguntas do arquivo sem copia-lo para o heap.
+     * @return Banco indexado, ou null se o arquivo nao tiver o array "perguntas"
+     * @throws IOException Se o arquivo nao puder ser lido, nao for um JSON valido ou mudar durante a indexacao
+     */
+    @Nullable
+    public static BancoPerguntasArquivo abrir(@Nonnull Path arquivo, @Nonnull Gson gson) throws IOException {
+        BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+        if (atributos.size() > Integer.MAX_VALUE - 8) {
+            throw new IOException("Arquivo de configuracao grande demais: " + atributos.size() + " bytes");
+        }
+        
+        Indexador indexador;
+        try (InputStream in = Files.newInputStream(arquivo)) {
+            indexador = new Indexador(in);
+            if (!indexador.indexar()) {
+                return null;
+            }
+        }
+        
+        // Salvamento no meio da indexacao: as posicoes podem misturar as duas versoes
+        BasicFileAttributes depois = Files.readAttributes(arquivo, BasicFileAttributes.class);
+        if (depois.size() != atributos.size() || !depois.lastModifiedTime().equals(atributos.lastModifiedTime())) {
+            throw new IOException("Arquivo de configuracao alterado durante a leitura");
+        }
+        return new BancoPerguntasArquivo(
+            gson,
+            arquivo,
+            atributos.size(),
+            atributos.lastModifiedTime(),
+            Arrays.copyOf(indexador.inicios, indexador.total),
+            Arrays.copyOf(indexador.tamanhos, indexador.total),
+            Arrays.copyOf(indexador.hashes, indexador.total)
+        );
+    }
+    
+    /**
+     * Le as configuracoes do arquivo sem carregar o array de perguntas.
+     * Se o arquivo tiver o array, a lista de perguntas do resultado fica vazia;
+     * caso contrario mantem as perguntas padrao (mesmo comportamento do Gson).
+     */
+    @Nonnull
+    public static ChatQuizConfig lerConfiguracaoSemPerguntas(@Nonnull Path arquivo, @Nonnull Gson gson) throws IOException {
+        JsonObject campos = new JsonObject();
+        boolean temPerguntas = false;
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(reader)) {
+            json.setLenient(true);
+            json.beginObject();
+            while (json.hasNext()) {
+                String nome = json.nextName();
+                if (nome.equals("perguntas") || json.peek() == JsonToken.NULL) {
+                    temPerguntas |= nome.equals("perguntas");
+                    json.skipValue();
+                } else {
+                    JsonElement valor = JsonParser.parseReader(json);
+                    campos.add(nome, valor);
+                }
+            }
+            json.endObject();
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("JSON invalido: " + e.getMessage(), e);
+        }
+        
+        ChatQuizConfig config = gson.fromJson(campos, ChatQuizConfig.class);
+        if (temPerguntas) {
+            config.setPerguntas(new ArrayList<>());
+        }
+        return config;
+    }
+    
+    @Override
+    public int getTamanho() {
+        return inicios.length;
+    }
+    
+    @Nullable
+    @Override
+    public ChatQuizConfig.PerguntaConfig getPergunta(int indice) {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanhos[indice]);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (!inalterado(canal)) {
+                return null;
+            }
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer, inicios[indice] + buffer.position()) < 0) {
+                    return null;
+                }
+            }
+            // Conferido de novo: o arquivo pode ter sido salvo durante a leitura
+            if (!inalterado(canal)) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        
+        try {
+            return gson.fromJson(new String(buffer.array(), 0, buffer.limit(), StandardCharsets.UTF_8),
+                ChatQuizConfig.PerguntaConfig.class);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Hash FNV-1a de 64 bits dos bytes da pergunta no arquivo, calculado na indexacao
+     */
+    @Override
+    public long getHashConteudo(int indice) {
+        return hashes[indice];
+    }
+    
+    /**
+     * O arquivo ainda e o que foi indexado (mesmo tamanho e data de modificacao)
+     */
+    private boolean inalterado(@Nonnull FileChannel canal) throws IOException {
+        return canal.size() == tamanhoArquivo && Files.getLastModifiedTime(arquivo).equals(modificacao);
+    }
+    
+    /**
+     * Varredura em bytes do JSON, em streaming: encontra o array "perguntas" do objeto raiz
+     * e registra o intervalo e o hash de cada objeto dentro dele.
+     * Caracteres UTF-8 multibyte nunca coincidem com os delimitadores ASCII do JSON.
+     */
+    private static final class Indexador {
+        
+        private static final int FIM = -1;
+        
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int posBuffer = 0;
+        private int limiteBuffer = 0;
+        private int pos = 0;
+        
+        // Hash FNV-1a dos bytes consumidos enquanto um objeto do array e percorrido
+        private boolean calculandoHash = false;
+        private long hash;
+        
+        int[] inicios = new int[1024];
+        int[] tamanhos = new int[1024];
+        long[] hashes = new long[1024];
+        int total = 0;
+        
+        Indexador(InputStream in) {
+            this.in = in;
+        }
+        
+        boolean indexar() throws IOException {
+            pularEspacos();
+            // BOM UTF-8
+            if (espiar() == 0xEF) {
+                avancar();
+                if (espiar() != 0xBB) {
+                    throw erro("BOM invalido");
+                }
+                avancar();
+                if (espiar() != 0xBF) {
+                    throw erro("BOM invalido");
+                }
+                avancar();
+                pularEspacos();
+            }
+            esperar('{');
+            
+            boolean encontrou = false;
+            pularEspacos();
+            if (atual() == '}') {
+                return false;
+            }
+            while (true) {
+                pularEspacos();
+                boolean chavePerguntas = pularString();
+                pularEspacos();
+                esperar(':');
+                pularEspacos();
+                
+                if (chavePerguntas && atual() == '[') {
+                    encontrou = true;
+                    indexarArray();
+                } else {
+                    pularValor();
+                }
+                
+                pularEspacos();
+                int separador = atual();
+                avancar();
+                if (separador == '}') {
+                    return encontrou;
+                }
+                if (separador != ',') {
+                    throw erro("',' ou '}' esperado");
+                }
+            }
+        }
+        
+        private void indexarArray() throws IOException {
+            esperar('[');
+            pularEspacos();
+            if (atual() == ']') {
+                avancar();
+                return;
+            }
+            while (true) {
+                pularEspacos();
+                int inicio = pos;
+                boolean objeto = atual() == '{';
+                calculandoHash = objeto;
+                hash = 0xCBF29CE484222325L;
+                pularValor();
+                calculandoHash = false;
+                if (objeto) {
+                    adicionar(inicio, pos - inicio, hash);
+                }
+                pularEspacos();
+                int separador = atual();
+                avancar();
+                if (separador == ']') {
+                    return;
+                }
+                if (separador != ',') {
+                    throw erro("',' ou ']' esperado");
+                }
+            }
+        }
+        
+        private void adicionar(int inicio, int tamanho, long hashObjeto) {
+            if (total == inicios.length) {
+                inicios = Arrays.copyOf(inicios, total * 2);
+                tamanhos = Arrays.copyOf(tamanhos, total * 2);
+                hashes = Arrays.copyOf(hashes, total * 2);
+            }
+            inicios[total] = inicio;
+            tamanhos[total] = tamanho;
+            hashes[total] = hashObjeto;
+            total++;
+        }
+        
+        /**
+         * Pula um valor JSON completo (objeto, array, string ou literal)
+         */
+        private void pularValor() throws IOException {
+            int c = atual();
+            if (c == '"') {
+                pularString();
+                return;
+            }
+            if (c != '{' && c != '[') {
+                // Numero, true, false, null
+                int b;
+                while ((b = espiar()) != FIM) {
+                    if (b == ',' || b == '}' || b == ']' || b <= ' ') {
+                        return;
+                    }
+                    avancar();
+                }
+                return;
+            }
+            
+            int profundidade = 0;
+            int b;
+            while ((b = espiar()) != FIM) {
+                if (b == '"') {
+                    pularString();
+                    continue;
+                }
+                avancar();
+                if (b == '{' || b == '[') {
+                    profundidade++;
+                } else if (b == '}' || b == ']') {
+                    if (--profundidade == 0) {
+                        return;
+                    }
+                }
+            }
+            throw erro("fim inesperado do arquivo");
+        }
+        
+        /**
+         * Pula uma string JSON
+         * @return Se o conteudo da string e exatamente "perguntas"
+         */
+        private boolean pularString() throws IOException {
+            esperar('"');
+            int comparados = 0;
+            boolean igual = true;
+            int b;
+            while ((b = espiar()) != FIM) {
+                avancar();
+                if (b == '"') {
+                    return igual && comparados == CHAVE_PERGUNTAS.length;
+                }
+                igual &= comparados < CHAVE_PERGUNTAS.length && b == CHAVE_PERGUNTAS[comparados];
+                comparados++;
+                if (b == '\\') {
+                    if (espiar() == FIM) {
+                        break;
+                    }
+                    avancar();
+                    igual = false;
+                }
+            }
+            throw erro("string nao terminada");
+        }
+        
+        private void pularEspacos() throws IOException {
+            int b;
+            while ((b = espiar()) == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                avancar();
+            }
+        }
+        
+        /**
+         * Proximo byte sem consumir, ou FIM
+         */
+        private int espiar() throws IOException {
+            if (posBuffer == limiteBuffer) {
+                int lidos = in.read(buffer);
+                if (lidos <= 0) {
+                    return FIM;
+                }
+                posBuffer = 0;
+                limiteBuffer = lidos;
+            }
+            return buffer[posBuffer] & 0xFF;
+        }
+        
+        /**
+         * Consome o byte retornado pelo ultimo espiar()
+         */
+        private void avancar() {
+            if (calculandoHash) {
+                hash ^= buffer[posBuffer] & 0xFF;
+                hash *= 0x100000001B3L;
+            }
+            posBuffer++;
+            pos++;
+        }
+        
+        private int atual() throws IOException {
+            int b = espiar();
+            if (b == FIM) {
+                throw erro("fim inesperado do arquivo");
+            }
+            return b;
+        }
+        
+        private void esperar(char c) throws IOException {
+            if (atual() != c) {
+                throw erro("'" + c + "' esperado");
+            }
+            avancar();
+        }
+        
+        private IOException erro(String mensagem) {
+            return new IOException("JSON invalido na posicao " + pos + ": " + mensagem);
+        }
+    }
+}
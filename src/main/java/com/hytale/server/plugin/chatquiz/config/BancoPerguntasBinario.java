@@ -0,0 +1,266 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Banco de perguntas no formato binario compacto (ChatQuizConfig.bin).
+ * O JSON continua sendo o formato de edicao; o binario e um cache gerado pelo
+ * CompiladorBancoBinario e invalidado pelo hash SHA-256 do JSON de origem.
+ * 
+ * Formato (big-endian):
+ *   int    MAGIC ("CQZB")
+ *   int    VERSAO
+ *   byte[32] hash SHA-256 do JSON de origem
+ *   int    quantidade de strings da tabela compartilhada
+ *   int    quantidade de perguntas
+ *   int    posicao da tabela de posicoes das perguntas
+ *   tabela de strings: [string]...            (comandos e mundos, compartilhados entre perguntas)
+ *   tabela de posicoes: [int]...              (posicao absoluta de cada pergunta)
+ *   perguntas: byte tipo, float peso, short tolerancia, byte dificuldade, string motor, string pergunta,
+ *              short n, [string resposta, string resposta normalizada] x n,
+ *              short m, [int indice na tabela de strings] x m   (comandos)
+ *              short k, [int indice na tabela de strings] x k   (mundos)
+ * 
+ * Strings: int tamanho + bytes UTF-8 (tamanho -1 = null).
+ * O arquivo e mapeado em memoria; so a tabela de strings fica no heap.
+ */
+public final class BancoPerguntasBinario implements BancoPerguntas {
+    
+    static final int MAGIC = 0x43515A42; // "CQZB"
+    static final int VERSAO = 6;
+    static final int TAMANHO_HASH = 32;
+    static final byte TIPO_NULO = -1;
+    
+    private static final QuizType[] TIPOS = QuizType.values();
+    private static final Dificuldade[] DIFICULDADES = Dificuldade.values();
+    
+    private final MappedByteBuffer mapeamento;
+    private final String[] tabelaStrings;
+    private final int quantidadePerguntas;
+    private final int inicioPosicoes;
+    
+    private BancoPerguntasBinario(MappedByteBuffer mapeamento, String[] tabelaStrings, int quantidadePerguntas, int inicioPosicoes) {
+        this.mapeamento = mapeamento;
+        this.tabelaStrings = tabelaStrings;
+        this.quantidadePerguntas = quantidadePerguntas;
+        this.inicioPosicoes = inicioPosicoes;
+    }
+    
+    /**
+     * Abre o arquivo binario se ele existir e corresponder ao hash do JSON.
+     * @return Banco binario, ou null se o arquivo nao existir, estiver desatualizado ou invalido
+     */
+    @Nullable
+    public static BancoPerguntasBinario abrirSeValido(@Nonnull Path arquivo, @Nonnull byte[] hashOrigem) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return null;
+        }
+        
+        MappedByteBuffer mapeamento;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() < 52 || canal.size() > Integer.MAX_VALUE) {
+                return null;
+            }
+            mapeamento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        
+        if (mapeamento.getInt(0) != MAGIC || mapeamento.getInt(4) != VERSAO) {
+            return null;
+        }
+        byte[] hash = new byte[TAMANHO_HASH];
+        mapeamento.get(8, hash);
+        if (!Arrays.equals(hash, hashOrigem)) {
+            return null;
+        }
+        
+        int quantidadeStrings = mapeamento.getInt(40);
+        int quantidadePerguntas = mapeamento.getInt(44);
+        int inicioPosicoes = mapeamento.getInt(48);
+        
+        // Cabecalho nao e confiavel (arquivo truncado ou corrompido): valida contra o tamanho mapeado
+        if (inicioPosicoes < 52 || inicioPosicoes > mapeamento.limit()
+                || quantidadeStrings < 0 || quantidadeStrings > (inicioPosicoes - 52) / 4
+                || quantidadePerguntas < 0 || quantidadePerguntas > (mapeamento.limit() - inicioPosicoes) / 4) {
+            return null;
+        }
+        
+        Leitor leitor = new Leitor(mapeamento, 52, inicioPosicoes);
+        String[] tabela = new String[quantidadeStrings];
+        try {
+            for (int i = 0; i < quantidadeStrings; i++) {
+                tabela[i] = leitor.lerString();
+            }
+        } catch (RegistroInvalido e) {
+            return null;
+        }
+        return new BancoPerguntasBinario(mapeamento, tabela, quantidadePerguntas, inicioPosicoes);
+    }
+    
+    /**
+     * Calcula o hash SHA-256 de um arquivo em streaming
+     */
+    @Nonnull
+    public static byte[] calcularHash(@Nonnull Path arquivo) throws IOException {
+        try (InputStream in = Files.newInputStream(arquivo)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int lidos;
+            while ((lidos = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, lidos);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 indisponivel", e);
+        }
+    }
+    
+    @Override
+    public int getTamanho() {
+        return quantidadePerguntas;
+    }
+    
+    @Nullable
+    @Override
+    public ChatQuizConfig.PerguntaConfig getPergunta(int indice) {
+        if (indice < 0 || indice >= quantidadePerguntas) {
+            return null;
+        }
+        int posicao = mapeamento.getInt(inicioPosicoes + indice * 4);
+        if (posicao < inicioPosicoes + quantidadePerguntas * 4 || posicao >= mapeamento.limit()) {
+            return null;
+        }
+        try {
+            return lerPergunta(new Leitor(mapeamento, posicao, mapeamento.limit()));
+        } catch (RegistroInvalido e) {
+            return null;
+        }
+    }
+    
+    private ChatQuizConfig.PerguntaConfig lerPergunta(Leitor leitor) {
+        ChatQuizConfig.PerguntaConfig pergunta = new ChatQuizConfig.PerguntaConfig();
+        byte tipo = leitor.lerByte();
+        pergunta.setTipo(tipo == TIPO_NULO ? null : TIPOS[leitor.indice(tipo, TIPOS.length)]);
+        pergunta.setPeso(leitor.lerFloat());
+        pergunta.setTolerancia(leitor.lerShort());
+        pergunta.setDificuldade(DIFICULDADES[leitor.indice(leitor.lerByte(), DIFICULDADES.length)]);
+        pergunta.setMotor(leitor.lerString());
+        pergunta.setPergunta(leitor.lerString());
+        
+        int quantidadeRespostas = leitor.lerShort();
+        List<String> respostas = new ArrayList<>(quantidadeRespostas);
+        List<String> normalizadas = new ArrayList<>(quantidadeRespostas);
+        for (int i = 0; i < quantidadeRespostas; i++) {
+            respostas.add(leitor.lerString());
+            normalizadas.add(leitor.lerString());
+        }
+        pergunta.setRespostas(respostas);
+        pergunta.setRespostasNormalizadas(normalizadas);
+        
+        int quantidadeComandos = leitor.lerShort();
+        List<String> comandos = new ArrayList<>(quantidadeComandos);
+        for (int i = 0; i < quantidadeComandos; i++) {
+            comandos.add(tabelaStrings[leitor.indice(leitor.lerInt(), tabelaStrings.length)]);
+        }
+        pergunta.setComandosAoAcertar(comandos);
+        
+        int quantidadeMundos = leitor.lerShort();
+        List<String> mundos = new ArrayList<>(quantidadeMundos);
+        for (int i = 0; i < quantidadeMundos; i++) {
+            mundos.add(tabelaStrings[leitor.indice(leitor.lerInt(), tabelaStrings.length)]);
+        }
+        pergunta.setMundos(mundos);
+        return pergunta;
+    }
+    
+    /**
+     * Registro que nao cabe no arquivo ou aponta para fora das tabelas (binario corrompido)
+     */
+    private static final class RegistroInvalido extends RuntimeException {
+        
+        RegistroInvalido() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * Leitura sequencial com posicao propria (o mapeamento e compartilhado entre threads).
+     * Cada leitura e conferida contra o limite antes de tocar o mapeamento.
+     */
+    private static final class Leitor {
+        
+        private final MappedByteBuffer dados;
+        private final int limite;
+        private int pos;
+        
+        Leitor(MappedByteBuffer dados, int pos, int limite) {
+            this.dados = dados;
+            this.pos = pos;
+            this.limite = limite;
+        }
+        
+        private void exigir(int bytes) {
+            if (bytes < 0 || bytes > limite - pos) {
+                throw new RegistroInvalido();
+            }
+        }
+        
+        int indice(int valor, int tamanho) {
+            if (valor < 0 || valor >= tamanho) {
+                throw new RegistroInvalido();
+            }
+            return valor;
+        }
+        
+        byte lerByte() {
+            exigir(1);
+            return dados.get(pos++);
+        }
+        
+        int lerShort() {
+            exigir(2);
+            int valor = dados.getShort(pos) & 0xFFFF;
+            pos += 2;
+            return valor;
+        }
+        
+        float lerFloat() {
+            exigir(4);
+            float valor = dados.getFloat(pos);
+            pos += 4;
+            return valor;
+        }
+        
+        int lerInt() {
+            exigir(4);
+            int valor = dados.getInt(pos);
+            pos += 4;
+            return valor;
+        }
+        
+        String lerString() {
+            int tamanho = lerInt();
+            if (tamanho == -1) {
+                return null;
+            }
+            exigir(tamanho);
+            byte[] bytes = new byte[tamanho];
+            dados.get(pos, bytes);
+            pos += tamanho;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.hytale.server.plugin.chatquiz.config;
 
 import com.google.gson.annotations.SerializedName;
+import com.hytale.server.plugin.chatquiz.util.AutomatoLevenshtein;
+import com.hytale.server.plugin.chatquiz.util.Embaralhador;
+import com.hytale.server.plugin.chatquiz.util.NormalizadorTexto;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 /**
  * Configuracao do plugin ChatQuiz.
@@ -14,6 +19,20 @@ import java.util.List;
  * {
  *   "intervaloInicioQuizSegundos": 300,
  *   "duracaoQuizSegundos": 60,
+ *   "intervaloFeedbackErroMs": 1500,
+ *   "limiarCorGradiente": 8,
+ *   "bancoBinario": false,
+ *   "recarregarAutomaticamente": true,
+ *   "modoSelecao": "SACOLA",
+ *   "proporcaoTipos": { "QUIZ": 2, "TYPE": 1, "SCRAMBLE": 1 },
+ *   "intervaloRepeticaoPerguntas": 5,
+ *   "embaralharPorPalavra": false,
+ *   "intervaloGravacaoEstatisticasSegundos": 5,
+ *   "intervaloMetricasSegundos": 15,
+ *   "mundos": {
+ *     "hub": { "intervaloInicioQuizSegundos": 120 },
+ *     "survival": { "duracaoQuizSegundos": 90, "proporcaoTipos": { "QUIZ": 1 } }
+ *   },
  *   "mensagemAntesQuizGlobal": [
  *     "&6&lQUIZ",
  *     "&fPergunta: &e{pergunta}",
@@ -40,6 +59,9 @@ import java.util.List;
  *       "Tipo": "QUIZ",
  *       "Pergunta": "Qual é a capital do Brasil?",
  *       "Respostas": ["brasilia", "brasília"],
+ *       "Peso": 2,
+ *       "Tolerancia": 6,
+ *       "Mundos": ["survival"],
  *       "ComandosAoAcertar": ["give {player} Ingredient_Bar_Gold --quantity=1"]
  *     },
  *     {
@@ -53,6 +75,12 @@ import java.util.List;
  *       "Pergunta": "hytaleserver",
  *       "Respostas": ["hytaleserver"],
  *       "ComandosAoAcertar": ["give {player} Ingredient_Bar_Gold --quantity=1"]
+ *     },
+ *     {
+ *       "Tipo": "MATH",
+ *       "Pergunta": "{a} + {b} x {c}",
+ *       "Dificuldade": "MEDIO",
+ *       "ComandosAoAcertar": ["give {player} Ingredient_Bar_Gold --quantity=1"]
  *     }
  *   ]
  * }
@@ -74,11 +102,49 @@ import java.util.List;
  * - QUIZ: Pergunta tradicional com múltiplas respostas possíveis
  * - TYPE: Primeiro a digitar a frase exata (rápido!)
  * - SCRAMBLE: Desembaralhe a palavra mostrada
+ * - MATH: Resolva a conta gerada a partir do modelo em "Pergunta" (sem "Respostas")
+ * 
+ * Sorteio (modoSelecao):
+ * - SACOLA: todas as perguntas saem antes de alguma repetir (padrao)
+ * - PESO: proporcional ao "Peso" de cada pergunta (padrao 1)
+ * - ALEATORIO: uniforme a cada rodada
+ * proporcaoTipos define quantas rodadas de cada tipo (vazio = proporcional ao banco);
+ * intervaloRepeticaoPerguntas e o numero de rodadas antes de uma pergunta poder voltar.
+ * 
+ * Tolerancia (QUIZ): "Tolerancia": 6 aceita 1 erro de digitacao (letra trocada, a mais ou
+ * a menos) a cada 6 letras da resposta, ate 3 erros; 0 ou ausente = so a resposta exata.
+ * 
+ * Contas (MATH): "Pergunta" e o modelo da conta, com numeros, variaveis entre chaves,
+ * parenteses e + - x / ("{a} + {b} x {c}"). Cada variavel recebe um numero da faixa de
+ * "Dificuldade" (FACIL 1-10, MEDIO 2-50, DIFICIL 10-200) ou da propria ("{a:1-1000}").
+ * Divisoes sempre dao resultado exato. A resposta aceita "1000", "1.000" ou "1,000".
+ * 
+ * Motores: cada Tipo tem um motor nativo. Plugins podem registrar outros motores
+ * (RegistroMotores) e a pergunta escolhe um pelo nome em "Motor"; o "Tipo" continua
+ * valendo para as estatisticas e para proporcaoTipos.
+ * 
+ * Mundos:
+ * - Sem "mundos", uma unica rodada vale para o universo inteiro (todos os jogadores)
+ * - Com "mundos", cada mundo listado tem a sua rodada, independente das outras, e so os
+ *   jogadores daquele mundo recebem as mensagens e podem responder. Intervalo, duracao e
+ *   proporcaoTipos podem ser sobrescritos por mundo
+ * - "Mundos" de uma pergunta limita em quais mundos ela pode ser sorteada (vazio = todos)
  */
 public class ChatQuizConfig {
     
     private int intervaloInicioQuizSegundos = 300;
     private int duracaoQuizSegundos = 60;
+    private int intervaloFeedbackErroMs = 1500; // Minimo entre mensagens de erro para o mesmo jogador
+    private int limiarCorGradiente = 8; // Diferenca maxima por canal para agrupar letras de um gradiente (0 = so cores iguais)
+    private boolean bancoBinario = false; // Usa o cache ChatQuizConfig.bin (gerado a partir do JSON) para carregar as perguntas
+    private boolean recarregarAutomaticamente = true; // Recarrega a configuracao quando o arquivo e salvo
+    private ModoSelecao modoSelecao = ModoSelecao.SACOLA;
+    private Map<QuizType, Double> proporcaoTipos = new LinkedHashMap<>(); // Vazio = sem proporcao por tipo
+    private int intervaloRepeticaoPerguntas = 5; // Rodadas ate a mesma pergunta poder ser sorteada de novo
+    private boolean embaralharPorPalavra = false; // SCRAMBLE: embaralha cada palavra separadamente
+    private int intervaloGravacaoEstatisticasSegundos = 5; // Frequencia de gravacao das estatisticas dos jogadores
+    private int intervaloMetricasSegundos = 15; // Frequencia de exportacao de metricas.prom (0 = desativado)
+    private Map<String, MundoConfig> mundos = new LinkedHashMap<>(); // Vazio = uma rodada para o universo inteiro
     private List<String> mensagemAntesQuizGlobal = Arrays.asList(
         "&6&lQUIZ",
         "&fPergunta: &e{pergunta}",
@@ -118,28 +184,38 @@ public class ChatQuizConfig {
         p3.setRespostas(Arrays.asList("hytaleserver"));
         p3.setComandosAoAcertar(Arrays.asList("give {player} Ingredient_Bar_Gold --quantity=1"));
         perguntas.add(p3);
+        
+        // Tipo MATH - Conta gerada a cada rodada
+        PerguntaConfig p4 = new PerguntaConfig();
+        p4.setTipo(QuizType.MATH);
+        p4.setPergunta("{a} + {b} x {c}");
+        p4.setDificuldade(Dificuldade.MEDIO);
+        p4.setComandosAoAcertar(Arrays.asList("give {player} Ingredient_Bar_Gold --quantity=1"));
+        perguntas.add(p4);
     }
     
     /**
      * Embaralha uma palavra para o modo SCRAMBLE.
      * @param palavra Palavra original
-     * @return Palavra com letras embaralhadas
+     * @return Palavra com letras embaralhadas (diferente da original sempre que possivel)
      */
     public static String embaralharPalavra(String palavra) {
-        List<Character> letras = new ArrayList<>();
-        for (char c : palavra.toCharArray()) {
-            letras.add(c);
-        }
-        Collections.shuffle(letras);
-        StringBuilder embaralhada = new StringBuilder();
-        for (char c : letras) {
-            embaralhada.append(c);
-        }
-        return embaralhada.toString();
+        return Embaralhador.embaralhar(palavra, List.of(NormalizadorTexto.normalizar(palavra)), false, new SplittableRandom());
     }
     
     public int getIntervaloInicioQuizSegundos() { return intervaloInicioQuizSegundos; }
     public int getDuracaoQuizSegundos() { return duracaoQuizSegundos; }
+    public int getIntervaloFeedbackErroMs() { return intervaloFeedbackErroMs; }
+    public int getLimiarCorGradiente() { return limiarCorGradiente; }
+    public boolean isBancoBinario() { return bancoBinario; }
+    public boolean isRecarregarAutomaticamente() { return recarregarAutomaticamente; }
+    public ModoSelecao getModoSelecao() { return modoSelecao; }
+    public Map<QuizType, Double> getProporcaoTipos() { return proporcaoTipos; }
+    public int getIntervaloRepeticaoPerguntas() { return intervaloRepeticaoPerguntas; }
+    public boolean isEmbaralharPorPalavra() { return embaralharPorPalavra; }
+    public int getIntervaloGravacaoEstatisticasSegundos() { return intervaloGravacaoEstatisticasSegundos; }
+    public int getIntervaloMetricasSegundos() { return intervaloMetricasSegundos; }
+    public Map<String, MundoConfig> getMundos() { return mundos; }
     public List<String> getMensagemAntesQuizGlobal() { return mensagemAntesQuizGlobal; }
     public List<String> getMensagemGlobalAoAcertar() { return mensagemGlobalAoAcertar; }
     public BannerConfig getBannerIniciarQuiz() { return bannerIniciarQuiz; }
@@ -149,6 +225,17 @@ public class ChatQuizConfig {
     
     public void setIntervaloInicioQuizSegundos(int intervalo) { this.intervaloInicioQuizSegundos = intervalo; }
     public void setDuracaoQuizSegundos(int duracao) { this.duracaoQuizSegundos = duracao; }
+    public void setIntervaloFeedbackErroMs(int intervalo) { this.intervaloFeedbackErroMs = intervalo; }
+    public void setLimiarCorGradiente(int limiar) { this.limiarCorGradiente = limiar; }
+    public void setBancoBinario(boolean bancoBinario) { this.bancoBinario = bancoBinario; }
+    public void setRecarregarAutomaticamente(boolean recarregar) { this.recarregarAutomaticamente = recarregar; }
+    public void setModoSelecao(ModoSelecao modo) { this.modoSelecao = modo; }
+    public void setProporcaoTipos(Map<QuizType, Double> proporcao) { this.proporcaoTipos = proporcao; }
+    public void setIntervaloRepeticaoPerguntas(int intervalo) { this.intervaloRepeticaoPerguntas = intervalo; }
+    public void setEmbaralharPorPalavra(boolean porPalavra) { this.embaralharPorPalavra = porPalavra; }
+    public void setIntervaloGravacaoEstatisticasSegundos(int intervalo) { this.intervaloGravacaoEstatisticasSegundos = intervalo; }
+    public void setIntervaloMetricasSegundos(int intervalo) { this.intervaloMetricasSegundos = intervalo; }
+    public void setMundos(Map<String, MundoConfig> mundos) { this.mundos = mundos; }
     public void setMensagemAntesQuizGlobal(List<String> mensagem) { this.mensagemAntesQuizGlobal = mensagem; }
     public void setMensagemGlobalAoAcertar(List<String> mensagem) { this.mensagemGlobalAoAcertar = mensagem; }
     public void setBannerIniciarQuiz(BannerConfig banner) { this.bannerIniciarQuiz = banner; }
@@ -180,6 +267,25 @@ public class ChatQuizConfig {
         public void setSubtitulo(String subtitulo) { this.subtitulo = subtitulo; }
     }
     
+    /**
+     * Ajustes de um mundo; campos nulos usam o valor global
+     */
+    public static class MundoConfig {
+        private Integer intervaloInicioQuizSegundos;
+        private Integer duracaoQuizSegundos;
+        private Map<QuizType, Double> proporcaoTipos;
+        
+        public MundoConfig() {}
+        
+        public Integer getIntervaloInicioQuizSegundos() { return intervaloInicioQuizSegundos; }
+        public Integer getDuracaoQuizSegundos() { return duracaoQuizSegundos; }
+        public Map<QuizType, Double> getProporcaoTipos() { return proporcaoTipos; }
+        
+        public void setIntervaloInicioQuizSegundos(Integer intervalo) { this.intervaloInicioQuizSegundos = intervalo; }
+        public void setDuracaoQuizSegundos(Integer duracao) { this.duracaoQuizSegundos = duracao; }
+        public void setProporcaoTipos(Map<QuizType, Double> proporcao) { this.proporcaoTipos = proporcao; }
+    }
+    
     public static class PerguntaConfig {
         @SerializedName("Tipo")
         private QuizType tipo = QuizType.QUIZ;
@@ -193,16 +299,68 @@ public class ChatQuizConfig {
         @SerializedName("ComandosAoAcertar")
         private List<String> comandosAoAcertar = new ArrayList<>();
         
+        @SerializedName("Peso")
+        private double peso = 1.0;
+        
+        @SerializedName("Tolerancia")
+        private int tolerancia = 0; // QUIZ: letras por erro de digitacao aceito (0 = so a resposta exata)
+        
+        @SerializedName("Dificuldade")
+        private Dificuldade dificuldade = Dificuldade.MEDIO; // MATH: faixa dos numeros sorteados
+        
+        @SerializedName("Mundos")
+        private List<String> mundos = new ArrayList<>(); // Vazio = todos os mundos
+        
+        @SerializedName("Motor")
+        private String motor = null; // Motor registrado por nome; null = o motor nativo do Tipo
+        
+        // Respostas ja normalizadas (preenchido pelo banco binario; nao vai para o JSON)
+        private transient List<String> respostasNormalizadas = null;
+        
         public PerguntaConfig() {}
         
         public QuizType getTipo() { return tipo; }
         public String getPergunta() { return pergunta; }
         public List<String> getRespostas() { return respostas; }
         public List<String> getComandosAoAcertar() { return comandosAoAcertar; }
+        public double getPeso() { return peso; }
+        public int getTolerancia() { return tolerancia; }
+        public Dificuldade getDificuldade() { return dificuldade != null ? dificuldade : Dificuldade.MEDIO; }
+        public List<String> getMundos() { return mundos; }
+        public String getMotor() { return motor; }
+        public List<String> getRespostasNormalizadas() { return respostasNormalizadas; }
         
         public void setTipo(QuizType tipo) { this.tipo = tipo; }
         public void setPergunta(String pergunta) { this.pergunta = pergunta; }
         public void setRespostas(List<String> respostas) { this.respostas = respostas; }
         public void setComandosAoAcertar(List<String> comandos) { this.comandosAoAcertar = comandos; }
+        public void setPeso(double peso) { this.peso = peso; }
+        public void setTolerancia(int tolerancia) { this.tolerancia = tolerancia; }
+        public void setDificuldade(Dificuldade dificuldade) { this.dificuldade = dificuldade; }
+        public void setMundos(List<String> mundos) { this.mundos = mundos; }
+        public void setMotor(String motor) { this.motor = motor; }
+        public void setRespostasNormalizadas(List<String> respostas) { this.respostasNormalizadas = respostas; }
+        
+        /**
+         * Resposta normalizada pelo indice, usando a versao pre-calculada quando existir
+         */
+        public String getRespostaNormalizada(int indice) {
+            if (respostasNormalizadas != null && respostasNormalizadas.size() == respostas.size()) {
+                return respostasNormalizadas.get(indice);
+            }
+            String resposta = respostas.get(indice);
+            return resposta != null ? NormalizadorTexto.normalizar(resposta) : null;
+        }
+        
+        /**
+         * Erros de digitacao aceitos na resposta pelo indice (so no tipo QUIZ)
+         */
+        public int getErrosPermitidos(int indice) {
+            if (tolerancia <= 0 || (tipo != null && tipo != QuizType.QUIZ)) {
+                return 0;
+            }
+            String normalizada = getRespostaNormalizada(indice);
+            return normalizada != null ? Math.min(AutomatoLevenshtein.MAXIMO_EDICOES, normalizada.length() / tolerancia) : 0;
+        }
     }
 }
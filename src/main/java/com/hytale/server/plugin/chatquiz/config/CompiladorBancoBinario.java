@@ -0,0 +1,196 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compila o ChatQuizConfig.json no formato binario do BancoPerguntasBinario.
+ * As perguntas sao lidas uma a uma do banco indexado, sem carregar o JSON inteiro.
+ * 
+ * Uso pelo Gradle:
+ *   ./gradlew compileQuestionBank -PquizConfig=run/mods/ChatQuiz/ChatQuizConfig.json
+ */
+public final class CompiladorBancoBinario {
+    
+    private CompiladorBancoBinario() {}
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: CompiladorBancoBinario <ChatQuizConfig.json> [ChatQuizConfig.bin]");
+            System.exit(1);
+        }
+        Path origem = Path.of(args[0]);
+        Path destino = args.length > 1 ? Path.of(args[1]) : caminhoBinario(origem);
+        
+        int total = compilar(origem, destino, new GsonBuilder().create());
+        System.out.println(total + " perguntas compiladas em " + destino);
+    }
+    
+    /**
+     * Caminho padrao do binario: mesmo diretorio e nome do JSON, com extensao .bin
+     */
+    @Nonnull
+    public static Path caminhoBinario(@Nonnull Path json) {
+        String nome = json.getFileName().toString();
+        int ponto = nome.lastIndexOf('.');
+        return json.resolveSibling((ponto > 0 ? nome.substring(0, ponto) : nome) + ".bin");
+    }
+    
+    /**
+     * Compila o JSON no binario (escrita atomica: arquivo temporario + move)
+     * @return Quantidade de perguntas compiladas
+     */
+    public static int compilar(@Nonnull Path origem, @Nonnull Path destino, @Nonnull Gson gson) throws IOException {
+        byte[] hash = BancoPerguntasBinario.calcularHash(origem);
+        BancoPerguntas banco = BancoPerguntasArquivo.abrir(origem, gson);
+        if (banco == null) {
+            banco = BancoPerguntas.emMemoria(BancoPerguntasArquivo.lerConfiguracaoSemPerguntas(origem, gson).getPerguntas());
+        }
+        
+        // Nomes unicos no diretorio do destino: compilacoes simultaneas nao compartilham arquivos e o move continua atomico
+        Path diretorio = destino.toAbsolutePath().getParent();
+        Path registros = Files.createTempFile(diretorio, "ChatQuiz", ".registros");
+        Path temporario = Files.createTempFile(diretorio, destino.getFileName().toString(), ".tmp");
+        try {
+            // Passo 1: registros das perguntas em arquivo temporario + tabela de strings
+            Map<String, Integer> indiceStrings = new HashMap<>();
+            List<String> tabela = new ArrayList<>();
+            int[] posicoes = new int[banco.getTamanho()];
+            int quantidade = 0;
+            
+            try (ContadorSaida contador = new ContadorSaida(Files.newOutputStream(registros));
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(contador))) {
+                for (int i = 0; i < banco.getTamanho(); i++) {
+                    ChatQuizConfig.PerguntaConfig pergunta = banco.getPergunta(i);
+                    if (pergunta == null) {
+                        continue;
+                    }
+                    out.flush();
+                    posicoes[quantidade++] = (int) contador.escritos;
+                    escreverPergunta(out, pergunta, indiceStrings, tabela);
+                }
+            }
+            
+            // Passo 2: cabecalho + tabela de strings + posicoes + registros
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                byte[][] strings = new byte[tabela.size()][];
+                int tamanhoTabela = 0;
+                for (int i = 0; i < strings.length; i++) {
+                    strings[i] = tabela.get(i).getBytes(StandardCharsets.UTF_8);
+                    tamanhoTabela += 4 + strings[i].length;
+                }
+                int inicioPosicoes = 52 + tamanhoTabela;
+                int inicioRegistros = inicioPosicoes + quantidade * 4;
+                
+                out.writeInt(BancoPerguntasBinario.MAGIC);
+                out.writeInt(BancoPerguntasBinario.VERSAO);
+                out.write(hash);
+                out.writeInt(strings.length);
+                out.writeInt(quantidade);
+                out.writeInt(inicioPosicoes);
+                for (byte[] string : strings) {
+                    out.writeInt(string.length);
+                    out.write(string);
+                }
+                for (int posicao : Arrays.copyOf(posicoes, quantidade)) {
+                    out.writeInt(inicioRegistros + posicao);
+                }
+                Files.copy(registros, out);
+            }
+            
+            Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return quantidade;
+        } finally {
+            Files.deleteIfExists(registros);
+            Files.deleteIfExists(temporario);
+        }
+    }
+    
+    private static void escreverPergunta(DataOutputStream out, ChatQuizConfig.PerguntaConfig pergunta,
+                                         Map<String, Integer> indiceStrings, List<String> tabela) throws IOException {
+        out.writeByte(pergunta.getTipo() == null ? BancoPerguntasBinario.TIPO_NULO : pergunta.getTipo().ordinal());
+        out.writeFloat((float) pergunta.getPeso());
+        out.writeShort(Math.max(0, Math.min(Short.MAX_VALUE, pergunta.getTolerancia())));
+        out.writeByte(pergunta.getDificuldade().ordinal());
+        escreverString(out, pergunta.getMotor());
+        escreverString(out, pergunta.getPergunta());
+        
+        List<String> respostas = pergunta.getRespostas() != null ? pergunta.getRespostas() : List.of();
+        out.writeShort(respostas.size());
+        for (int i = 0; i < respostas.size(); i++) {
+            escreverString(out, respostas.get(i));
+            escreverString(out, pergunta.getRespostaNormalizada(i));
+        }
+        
+        escreverIndices(out, pergunta.getComandosAoAcertar(), indiceStrings, tabela);
+        escreverIndices(out, pergunta.getMundos(), indiceStrings, tabela);
+    }
+    
+    /**
+     * Lista de strings como indices na tabela compartilhada (repetidas entre perguntas sao gravadas uma vez)
+     */
+    private static void escreverIndices(DataOutputStream out, List<String> valores,
+                                        Map<String, Integer> indiceStrings, List<String> tabela) throws IOException {
+        List<String> lista = valores != null ? valores : List.of();
+        out.writeShort(lista.size());
+        for (String valor : lista) {
+            Integer indice = indiceStrings.get(valor);
+            if (indice == null) {
+                indice = tabela.size();
+                tabela.add(valor);
+                indiceStrings.put(valor, indice);
+            }
+            out.writeInt(indice);
+        }
+    }
+    
+    private static void escreverString(DataOutputStream out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    /**
+     * OutputStream que conta os bytes escritos (posicao de cada registro)
+     */
+    private static final class ContadorSaida extends FilterOutputStream {
+        
+        long escritos = 0;
+        
+        ContadorSaida(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            escritos++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            escritos += len;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+import com.hytale.server.plugin.chatquiz.TinyMsg;
+import com.hytale.server.plugin.chatquiz.motor.MotorQuiz;
+import com.hytale.server.plugin.chatquiz.motor.RegistroMotores;
+import com.hytale.server.plugin.chatquiz.util.MapaLongInt;
+import com.hytale.server.plugin.chatquiz.util.TemplateTexto;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuracao carregada, validada e pronta para uso, publicada de uma vez.
+ * 
+ * O plugin guarda somente a referencia para o snapshot atual; um reload monta
+ * um snapshot novo fora da thread do servidor e troca a referencia.
+ * Uma rodada em andamento guarda o snapshot com que comecou e termina com ele.
+ * 
+ * Os templates de mensagem sao compilados aqui, uma vez por carregamento, com o
+ * limiar de gradiente deste snapshot, e nao dependem do cache LRU nem do limiar global do TinyMsg.
+ * 
+ * A validacao das perguntas e incremental: o snapshot guarda o hash do conteudo
+ * das perguntas validas, e no reload so as perguntas com hash novo sao lidas e validadas.
+ * Tipo e peso de cada pergunta ficam em arrays por indice, para o sorteio
+ * montar suas tabelas sem ler o banco de novo. Os mundos de cada pergunta
+ * tambem: cada combinacao distinta de mundos e guardada uma vez e a pergunta
+ * guarda so o indice dela.
+ */
+public final class ConfiguracaoSnapshot {
+    
+    private static final int LIMITE_AVISOS = 10;
+    private static final byte INVALIDA = -1;
+    private static final QuizType[] TIPOS = QuizType.values();
+    
+    private final long versao;
+    private final ChatQuizConfig config;
+    private final BancoPerguntas banco;
+    private final Map<MotorQuiz, List<TinyMsg.Template>> mensagemInicio; // Ja ajustada por motor
+    private final List<TinyMsg.Template> mensagemAcerto;
+    private final TinyMsg.Template bannerInicioTitulo;
+    private final TinyMsg.Template bannerInicioSubtitulo;
+    private final TinyMsg.Template bannerGanhadorTitulo;
+    private final TinyMsg.Template bannerGanhadorSubtitulo;
+    private final List<TemplateTexto> comandosAcerto;
+    private final List<String> avisos;
+    private final MapaLongInt indicePorHash; // Hash do conteudo -> indice, so perguntas validas
+    private final byte[] tipos; // Ordinal do QuizType por indice, ou INVALIDA
+    private final float[] pesos;
+    private final short[] mundosPergunta; // Indice em conjuntosMundos por pergunta
+    private final List<Set<String>> conjuntosMundos; // Combinacoes distintas (minusculas); a 0 e vazia = todos
+    private final Map<String, ChatQuizConfig.MundoConfig> mundos; // Nome em minusculas -> ajustes, na ordem do arquivo
+    private final int perguntasVerificadas;
+    
+    private ConfiguracaoSnapshot(long versao, ChatQuizConfig config, BancoPerguntas banco, List<String> avisos,
+                                 MapaLongInt indicePorHash, byte[] tipos, float[] pesos, short[] mundosPergunta,
+                                 List<Set<String>> conjuntosMundos, Map<String, ChatQuizConfig.MundoConfig> mundos,
+                                 int perguntasVerificadas) {
+        this.versao = versao;
+        this.config = config;
+        this.banco = banco;
+        this.avisos = List.copyOf(avisos);
+        this.indicePorHash = indicePorHash;
+        this.tipos = tipos;
+        this.pesos = pesos;
+        this.mundosPergunta = mundosPergunta;
+        this.conjuntosMundos = List.copyOf(conjuntosMundos);
+        this.mundos = Collections.unmodifiableMap(mundos);
+        this.perguntasVerificadas = perguntasVerificadas;
+        
+        Map<MotorQuiz, List<TinyMsg.Template>> inicio = new HashMap<>();
+        for (MotorQuiz motor : RegistroMotores.get().getMotores()) {
+            inicio.put(motor, compilarMensagemInicio(config, motor));
+        }
+        this.mensagemInicio = inicio;
+        
+        List<TinyMsg.Template> acerto = new ArrayList<>(config.getMensagemGlobalAoAcertar().size());
+        for (String linha : config.getMensagemGlobalAoAcertar()) {
+            acerto.add(TinyMsg.compile(linha, config.getLimiarCorGradiente()));
+        }
+        this.mensagemAcerto = List.copyOf(acerto);
+        
+        this.bannerInicioTitulo = TinyMsg.compile(config.getBannerIniciarQuiz().getTitulo(), config.getLimiarCorGradiente());
+        this.bannerInicioSubtitulo = TinyMsg.compile(config.getBannerIniciarQuiz().getSubtitulo(), config.getLimiarCorGradiente());
+        this.bannerGanhadorTitulo = TinyMsg.compile(config.getBannerGanhadorQuiz().getTitulo(), config.getLimiarCorGradiente());
+        this.bannerGanhadorSubtitulo = TinyMsg.compile(config.getBannerGanhadorQuiz().getSubtitulo(), config.getLimiarCorGradiente());
+        this.comandosAcerto = compilarComandos(config.getComandosGlobaisAoAcertar());
+    }
+    
+    private static List<TinyMsg.Template> compilarMensagemInicio(ChatQuizConfig config, MotorQuiz motor) {
+        List<TinyMsg.Template> linhas = new ArrayList<>(config.getMensagemAntesQuizGlobal().size());
+        for (String linha : config.getMensagemAntesQuizGlobal()) {
+            linhas.add(TinyMsg.compile(motor.ajustarLinhaInicio(linha), config.getLimiarCorGradiente()));
+        }
+        return List.copyOf(linhas);
+    }
+    
+    /**
+     * Compila comandos de recompensa (nulos sao ignorados)
+     */
+    @Nonnull
+    public static List<TemplateTexto> compilarComandos(@Nullable List<String> comandos) {
+        if (comandos == null || comandos.isEmpty()) {
+            return List.of();
+        }
+        List<TemplateTexto> compilados = new ArrayList<>(comandos.size());
+        for (String comando : comandos) {
+            if (comando != null) {
+                compilados.add(TemplateTexto.compilar(comando));
+            }
+        }
+        return List.copyOf(compilados);
+    }
+    
+    /**
+     * Valida a configuracao e compila tudo o que as rodadas usam.
+     * Erros na configuracao geral rejeitam o snapshot inteiro; perguntas
+     * invalidas so geram avisos no log.
+     * 
+     * @param anterior Snapshot atual; perguntas com o mesmo conteudo ja validadas nele nao sao relidas
+     * @throws IllegalArgumentException Se a configuracao for invalida
+     */
+    @Nonnull
+    public static ConfiguracaoSnapshot compilar(long versao, @Nonnull ChatQuizConfig config, @Nonnull BancoPerguntas banco,
+                                                @Nullable ConfiguracaoSnapshot anterior) {
+        if (config.getIntervaloInicioQuizSegundos() <= 0) {
+            throw new IllegalArgumentException("intervaloInicioQuizSegundos deve ser maior que zero");
+        }
+        if (config.getDuracaoQuizSegundos() <= 0) {
+            throw new IllegalArgumentException("duracaoQuizSegundos deve ser maior que zero");
+        }
+        if (config.getMensagemAntesQuizGlobal() == null || config.getMensagemGlobalAoAcertar() == null) {
+            throw new IllegalArgumentException("mensagemAntesQuizGlobal e mensagemGlobalAoAcertar sao obrigatorias");
+        }
+        if (config.getBannerIniciarQuiz() == null || config.getBannerGanhadorQuiz() == null) {
+            throw new IllegalArgumentException("bannerIniciarQuiz e bannerGanhadorQuiz sao obrigatorios");
+        }
+        if (config.getComandosGlobaisAoAcertar() == null) {
+            config.setComandosGlobaisAoAcertar(List.of());
+        }
+        
+        if (config.getModoSelecao() == null) {
+            config.setModoSelecao(ModoSelecao.SACOLA);
+        }
+        if (config.getProporcaoTipos() == null) {
+            config.setProporcaoTipos(Map.of());
+        }
+        Map<String, ChatQuizConfig.MundoConfig> mundos = validarMundos(config);
+        
+        int total = banco.getTamanho();
+        List<String> avisos = new ArrayList<>();
+        MapaLongInt indicePorHash = new MapaLongInt(total);
+        byte[] tipos = new byte[total];
+        float[] pesos = new float[total];
+        short[] mundosPergunta = new short[total];
+        List<Set<String>> conjuntosMundos = new ArrayList<>();
+        Map<Set<String>, Short> indiceConjuntos = new HashMap<>();
+        internarMundos(Set.of(), conjuntosMundos, indiceConjuntos);
+        int verificadas = 0;
+        int invalidas = 0;
+        for (int i = 0; i < total; i++) {
+            long hash = banco.getHashConteudo(i);
+            int anteriorIndice = anterior != null ? anterior.indicePorHash.get(hash) : -1;
+            if (anteriorIndice >= 0) {
+                tipos[i] = anterior.tipos[anteriorIndice];
+                pesos[i] = anterior.pesos[anteriorIndice];
+                mundosPergunta[i] = internarMundos(anterior.conjuntosMundos.get(anterior.mundosPergunta[anteriorIndice]),
+                    conjuntosMundos, indiceConjuntos);
+                indicePorHash.put(hash, i);
+                continue;
+            }
+            
+            verificadas++;
+            ChatQuizConfig.PerguntaConfig pergunta = banco.getPergunta(i);
+            String problema = validarPergunta(pergunta);
+            if (problema == null) {
+                tipos[i] = (byte) (pergunta.getTipo() != null ? pergunta.getTipo() : QuizType.QUIZ).ordinal();
+                pesos[i] = (float) pergunta.getPeso();
+                mundosPergunta[i] = internarMundos(conjuntoMundos(pergunta.getMundos()), conjuntosMundos, indiceConjuntos);
+                indicePorHash.put(hash, i);
+            } else {
+                tipos[i] = INVALIDA;
+                invalidas++;
+                if (avisos.size() < LIMITE_AVISOS) {
+                    avisos.add("Pergunta #" + i + ": " + problema);
+                }
+            }
+        }
+        if (invalidas > LIMITE_AVISOS) {
+            avisos.add("... e mais " + (invalidas - LIMITE_AVISOS) + " perguntas invalidas");
+        }
+        
+        return new ConfiguracaoSnapshot(versao, config, banco, avisos, indicePorHash, tipos, pesos, mundosPergunta,
+            conjuntosMundos, mundos, verificadas);
+    }
+    
+    /**
+     * Valida os ajustes por mundo
+     * @return Ajustes por nome do mundo em minusculas
+     */
+    private static Map<String, ChatQuizConfig.MundoConfig> validarMundos(ChatQuizConfig config) {
+        Map<String, ChatQuizConfig.MundoConfig> mundos = new LinkedHashMap<>();
+        if (config.getMundos() == null) {
+            config.setMundos(new LinkedHashMap<>());
+        }
+        for (Map.Entry<String, ChatQuizConfig.MundoConfig> entrada : config.getMundos().entrySet()) {
+            if (entrada.getKey() == null || entrada.getKey().isBlank()) {
+                throw new IllegalArgumentException("mundos: nome de mundo vazio");
+            }
+            ChatQuizConfig.MundoConfig mundo = entrada.getValue() != null ? entrada.getValue() : new ChatQuizConfig.MundoConfig();
+            if (mundo.getIntervaloInicioQuizSegundos() != null && mundo.getIntervaloInicioQuizSegundos() <= 0) {
+                throw new IllegalArgumentException("mundos." + entrada.getKey() + ".intervaloInicioQuizSegundos deve ser maior que zero");
+            }
+            if (mundo.getDuracaoQuizSegundos() != null && mundo.getDuracaoQuizSegundos() <= 0) {
+                throw new IllegalArgumentException("mundos." + entrada.getKey() + ".duracaoQuizSegundos deve ser maior que zero");
+            }
+            if (mundos.put(entrada.getKey().toLowerCase(Locale.ROOT), mundo) != null) {
+                throw new IllegalArgumentException("mundos: " + entrada.getKey() + " repetido");
+            }
+        }
+        return mundos;
+    }
+    
+    /**
+     * Mundos de uma pergunta em minusculas (vazio = todos)
+     */
+    private static Set<String> conjuntoMundos(@Nullable List<String> mundos) {
+        if (mundos == null || mundos.isEmpty()) {
+            return Set.of();
+        }
+        List<String> nomes = new ArrayList<>(mundos.size());
+        for (String mundo : mundos) {
+            if (mundo != null && !mundo.isBlank()) {
+                nomes.add(mundo.toLowerCase(Locale.ROOT));
+            }
+        }
+        return Set.copyOf(nomes);
+    }
+    
+    /**
+     * Indice do conjunto de mundos, guardando cada combinacao uma vez
+     */
+    private static short internarMundos(Set<String> conjunto, List<Set<String>> conjuntos, Map<Set<String>, Short> indices) {
+        Short indice = indices.get(conjunto);
+        if (indice == null) {
+            if (conjuntos.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Combinacoes de mundos demais nas perguntas");
+            }
+            indice = (short) conjuntos.size();
+            conjuntos.add(conjunto);
+            indices.put(conjunto, indice);
+        }
+        return indice;
+    }
+    
+    /**
+     * Verificacoes comuns a todos os tipos; o resto fica com o motor da pergunta
+     * (que, nas perguntas de texto em memoria, pre-calcula as respostas normalizadas)
+     * @return Descricao do problema, ou null se a pergunta for valida
+     */
+    private static String validarPergunta(ChatQuizConfig.PerguntaConfig pergunta) {
+        if (pergunta == null) {
+            return "registro ilegivel";
+        }
+        if (pergunta.getPergunta() == null || pergunta.getPergunta().isBlank()) {
+            return "sem texto de pergunta";
+        }
+        if (!(pergunta.getPeso() > 0)) {
+            return "peso deve ser maior que zero";
+        }
+        if (pergunta.getTolerancia() < 0) {
+            return "tolerancia nao pode ser negativa";
+        }
+        MotorQuiz motor = RegistroMotores.get().motorDa(pergunta);
+        if (motor == null) {
+            return "motor desconhecido: " + pergunta.getMotor();
+        }
+        return motor.validar(pergunta);
+    }
+    
+    public long getVersao() { return versao; }
+    public ChatQuizConfig getConfig() { return config; }
+    public BancoPerguntas getBanco() { return banco; }
+    public List<TinyMsg.Template> getMensagemAcerto() { return mensagemAcerto; }
+    public TinyMsg.Template getBannerInicioTitulo() { return bannerInicioTitulo; }
+    public TinyMsg.Template getBannerInicioSubtitulo() { return bannerInicioSubtitulo; }
+    public TinyMsg.Template getBannerGanhadorTitulo() { return bannerGanhadorTitulo; }
+    public TinyMsg.Template getBannerGanhadorSubtitulo() { return bannerGanhadorSubtitulo; }
+    public List<TemplateTexto> getComandosAcerto() { return comandosAcerto; }
+    public List<String> getAvisos() { return avisos; }
+    public int getPerguntasVerificadas() { return perguntasVerificadas; }
+    
+    /**
+     * Mensagem de inicio ajustada pelo motor; motores registrados depois do carregamento
+     * sao compilados na hora
+     */
+    @Nonnull
+    public List<TinyMsg.Template> getMensagemInicio(@Nonnull MotorQuiz motor) {
+        List<TinyMsg.Template> linhas = mensagemInicio.get(motor);
+        return linhas != null ? linhas : compilarMensagemInicio(config, motor);
+    }
+    
+    /**
+     * Tipo da pergunta pelo indice no banco
+     * @return Tipo, ou null se a pergunta for invalida
+     */
+    @Nullable
+    public QuizType getTipoPergunta(int indice) {
+        return tipos[indice] == INVALIDA ? null : TIPOS[tipos[indice]];
+    }
+    
+    public float getPesoPergunta(int indice) {
+        return pesos[indice];
+    }
+    
+    /**
+     * Se a pergunta pode ser sorteada no mundo
+     * @param mundo Nome do mundo em minusculas, ou null para o universo inteiro (todas as perguntas)
+     */
+    public boolean isPerguntaDoMundo(int indice, @Nullable String mundo) {
+        if (mundo == null) {
+            return true;
+        }
+        Set<String> conjunto = conjuntosMundos.get(mundosPergunta[indice]);
+        return conjunto.isEmpty() || conjunto.contains(mundo);
+    }
+    
+    /**
+     * Mundos com rodada propria (nomes em minusculas); vazio = uma rodada para o universo inteiro
+     */
+    @Nonnull
+    public Set<String> getMundos() {
+        return mundos.keySet();
+    }
+    
+    public int getIntervaloInicioQuizSegundos(@Nullable String mundo) {
+        ChatQuizConfig.MundoConfig ajustes = mundo != null ? mundos.get(mundo) : null;
+        return ajustes != null && ajustes.getIntervaloInicioQuizSegundos() != null
+            ? ajustes.getIntervaloInicioQuizSegundos() : config.getIntervaloInicioQuizSegundos();
+    }
+    
+    public int getDuracaoQuizSegundos(@Nullable String mundo) {
+        ChatQuizConfig.MundoConfig ajustes = mundo != null ? mundos.get(mundo) : null;
+        return ajustes != null && ajustes.getDuracaoQuizSegundos() != null
+            ? ajustes.getDuracaoQuizSegundos() : config.getDuracaoQuizSegundos();
+    }
+    
+    @Nonnull
+    public Map<QuizType, Double> getProporcaoTipos(@Nullable String mundo) {
+        ChatQuizConfig.MundoConfig ajustes = mundo != null ? mundos.get(mundo) : null;
+        return ajustes != null && ajustes.getProporcaoTipos() != null ? ajustes.getProporcaoTipos() : config.getProporcaoTipos();
+    }
+}
@@ -0,0 +1,32 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+/**
+ * Dificuldade das contas do modo MATH: faixa dos numeros sorteados.
+ */
+public enum Dificuldade {
+    /**
+     * FACIL - Numeros de 1 a 10.
+     */
+    FACIL(1, 10),
+    
+    /**
+     * MEDIO - Numeros de 2 a 50.
+     */
+    MEDIO(2, 50),
+    
+    /**
+     * DIFICIL - Numeros de 10 a 200.
+     */
+    DIFICIL(10, 200);
+    
+    private final int minimo;
+    private final int maximo;
+    
+    Dificuldade(int minimo, int maximo) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+    }
+    
+    public int getMinimo() { return minimo; }
+    public int getMaximo() { return maximo; }
+}
@@ -0,0 +1,22 @@
+package com.hytale.server.plugin.chatquiz.config;
+
+/**
+ * Modos de sorteio das perguntas.
+ */
+public enum ModoSelecao {
+    /**
+     * ALEATORIO - Sorteio uniforme a cada rodada (perguntas podem se repetir logo).
+     */
+    ALEATORIO,
+    
+    /**
+     * SACOLA - Cada pergunta sai uma vez antes de qualquer repeticao,
+     * em ordem aleatoria; quando a sacola esvazia, recomeca.
+     */
+    SACOLA,
+    
+    /**
+     * PESO - Sorteio proporcional ao "Peso" de cada pergunta.
+     */
+    PESO
+}
@@ -20,5 +20,12 @@ public enum QuizType {
      * QUIZ - Responder uma pergunta simples corretamente.
      * Formato tradicional de pergunta e resposta.
      */
-    QUIZ
+    QUIZ,
+    
+    /**
+     * MATH - Resolver uma conta gerada no inicio da rodada.
+     * A pergunta e um modelo de expressao ("{a} + {b} x {c}"); os numeros sao sorteados
+     * conforme a dificuldade e a resposta e o resultado.
+     */
+    MATH
 }
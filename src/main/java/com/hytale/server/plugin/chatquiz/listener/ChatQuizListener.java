@@ -2,6 +2,7 @@ package com.hytale.server.plugin.chatquiz.listener;
 
 import com.hypixel.hytale.server.core.event.events.player.PlayerChatEvent;
 import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.manager.GerenciadorMundos;
 import com.hytale.server.plugin.chatquiz.manager.QuizManager;
 
 import javax.annotation.Nonnull;
@@ -9,22 +10,33 @@ import java.util.function.Consumer;
 
 /**
  * Listener de eventos para o ChatQuiz.
- * Captura mensagens de chat durante quizzes ativos.
+ * Captura mensagens de chat durante quizzes ativos e entrega ao quiz do mundo de quem enviou.
  */
 public class ChatQuizListener implements Consumer<PlayerChatEvent> {
     
     private final ChatQuizPlugin plugin;
-    private final QuizManager quizManager;
+    private final GerenciadorMundos mundos;
     
-    public ChatQuizListener(@Nonnull ChatQuizPlugin plugin, @Nonnull QuizManager quizManager) {
+    public ChatQuizListener(@Nonnull ChatQuizPlugin plugin, @Nonnull GerenciadorMundos mundos) {
         this.plugin = plugin;
-        this.quizManager = quizManager;
+        this.mundos = mundos;
     }
     
     @Override
     public void accept(PlayerChatEvent event) {
-        // Se não há quiz ativo, não faz nada
-        if (!quizManager.isQuizAtivo()) {
+        if (event.getSender() == null) {
+            return;
+        }
+        
+        // Se não há quiz ativo no mundo do jogador, não faz nada
+        QuizManager quizManager = mundos.managerDo(event.getSender());
+        if (quizManager == null || !quizManager.isQuizAtivo()) {
+            return;
+        }
+        
+        // Pre-filtro: conversa comum e descartada sem normalizar nem agendar mensagem de erro
+        String mensagem = event.getContent();
+        if (mensagem == null || !quizManager.isRespostaPossivel(mensagem)) {
             return;
         }
         
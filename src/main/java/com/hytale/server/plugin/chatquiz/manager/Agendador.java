@@ -0,0 +1,119 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.util.RodaTemporizadores;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prazos e trabalho do quiz, compartilhados pelos managers de todos os mundos.
+ * 
+ * Os prazos (timeout da rodada, proximo quiz, anuncio da vitoria, ciclo do feedback
+ * de erro) ficam em uma roda de temporizadores: uma thread, O(1) para agendar e cancelar.
+ * O trabalho das tarefas vencidas e a preparacao das rodadas rodam em um pool separado,
+ * entao uma chamada lenta ao Universe ocupa um trabalhador mas nao atrasa os prazos.
+ * A fila do pool e limitada: se os trabalhadores travarem, o trabalho nao se acumula
+ * sem limite para disparar atrasado em massa depois.
+ */
+final class Agendador {
+    
+    private static final long TICK_MS = 10;
+    private static final int POSICOES = 512; // ~5 s por volta; prazos maiores contam voltas
+    private static final int CAPACIDADE_FILA = 1024; // Tarefas vencidas esperando trabalhador
+    private static final long INTERVALO_AVISO_MS = 10_000; // Entre avisos de fila cheia no log
+    private static final long NOVA_TENTATIVA_MS = 100; // Prazo vencido com a fila cheia volta para a roda
+    
+    private final ChatQuizPlugin plugin;
+    private final MetricasQuiz metricas;
+    private final ThreadPoolExecutor trabalhadores;
+    private final RodaTemporizadores roda;
+    private final AtomicLong rejeitadas = new AtomicLong();
+    private volatile long ultimoAviso = 0;
+    
+    Agendador(@Nonnull ChatQuizPlugin plugin) {
+        this.plugin = plugin;
+        this.metricas = plugin.getMetricas();
+        int quantidade = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger contador = new AtomicInteger();
+        this.trabalhadores = new ThreadPoolExecutor(quantidade, quantidade, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(CAPACIDADE_FILA), r -> {
+                Thread t = new Thread(r, "ChatQuiz-Trabalho-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, this::rejeitar);
+        this.roda = new RodaTemporizadores("ChatQuiz-Temporizador", TICK_MS, TimeUnit.MILLISECONDS, POSICOES, this::despachar);
+    }
+    
+    /**
+     * Agenda uma tarefa para rodar no pool depois do atraso
+     * @throws RejectedExecutionException Se o agendador estiver desligado
+     */
+    @Nonnull
+    RodaTemporizadores.Temporizador agendar(long atraso, @Nonnull TimeUnit unidade, @Nonnull Runnable tarefa) {
+        long prazo = System.nanoTime() + unidade.toNanos(atraso);
+        return roda.agendar(atraso, unidade, () -> {
+            metricas.registrarAtrasoTemporizador(System.nanoTime() - prazo);
+            executarProtegido(tarefa);
+        });
+    }
+    
+    /**
+     * Executa uma tarefa no pool assim que houver trabalhador livre
+     * @throws RejectedExecutionException Se o agendador estiver desligado ou a fila cheia
+     */
+    void executar(@Nonnull Runnable tarefa) {
+        trabalhadores.execute(() -> executarProtegido(tarefa));
+    }
+    
+    /**
+     * Entrega de um prazo vencido ao pool. Com a fila cheia (trabalhadores travados) o prazo
+     * nao se perde nem se acumula na fila: volta para a roda e tenta de novo em NOVA_TENTATIVA_MS.
+     * Roda na thread da roda, entao nunca executa a tarefa nem bloqueia.
+     */
+    private void despachar(Runnable tarefa) {
+        try {
+            trabalhadores.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            if (!trabalhadores.isShutdown()) {
+                roda.agendar(NOVA_TENTATIVA_MS, TimeUnit.MILLISECONDS, tarefa);
+            }
+        }
+    }
+    
+    /**
+     * Politica de rejeicao do pool: registra no log (no maximo um aviso a cada
+     * INTERVALO_AVISO_MS) e rejeita, para quem enviou decidir o que fazer
+     */
+    private void rejeitar(Runnable tarefa, ThreadPoolExecutor executor) {
+        if (!executor.isShutdown()) {
+            long total = rejeitadas.incrementAndGet();
+            long agora = System.currentTimeMillis();
+            if (agora - ultimoAviso >= INTERVALO_AVISO_MS) {
+                ultimoAviso = agora;
+                plugin.getLogger().atWarning().log("Fila de tarefas do quiz cheia (" + CAPACIDADE_FILA
+                    + " tarefas); " + total + " rejeitadas desde o inicio");
+            }
+        }
+        throw new RejectedExecutionException("Fila de tarefas do quiz cheia ou agendador desligado");
+    }
+    
+    void desligar() {
+        roda.desligar();
+        trabalhadores.shutdownNow();
+    }
+    
+    private void executarProtegido(Runnable tarefa) {
+        try {
+            tarefa.run();
+        } catch (Throwable e) {
+            // Inclui Error (ex: InternalError de arquivo mapeado truncado): o trabalhador segue vivo e o erro fica no log
+            plugin.getLogger().atWarning().log("Erro em tarefa do quiz: " + e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Estatisticas de um jogador.
+ * Alteracoes e leituras sao sincronizadas na propria instancia (cada jogador e
+ * um lock independente); a versao cresce a cada alteracao e decide qual registro
+ * vale quando o mesmo jogador aparece mais de uma vez em disco.
+ */
+public final class EstatisticasJogador {
+    
+    private static final QuizType[] TIPOS = QuizType.values();
+    
+    private final UUID uuid;
+    private String nome;
+    private long versao;
+    private int vitorias;
+    private int tentativas;
+    private int sequenciaAtual;
+    private int melhorSequencia;
+    private long menorTempoMs = -1;
+    private long somaTempoMs;
+    private final int[] vitoriasPorTipo = new int[TIPOS.length];
+    private final int[] tentativasPorTipo = new int[TIPOS.length];
+    private long periodoDia; // Periodos das janelas do ranking (ver JanelaRanking)
+    private int vitoriasDia;
+    private long periodoSemana;
+    private int vitoriasSemana;
+    
+    EstatisticasJogador(@Nonnull UUID uuid, @Nonnull String nome) {
+        this.uuid = uuid;
+        this.nome = nome;
+    }
+    
+    synchronized void registrarTentativa(@Nonnull String nome, @Nonnull QuizType tipo) {
+        this.nome = nome;
+        tentativas++;
+        tentativasPorTipo[tipo.ordinal()]++;
+        versao++;
+    }
+    
+    synchronized void registrarVitoria(@Nonnull String nome, @Nonnull QuizType tipo, long tempoMs, long dia, long semana) {
+        registrarTentativa(nome, tipo);
+        vitoriasDia = periodoDia == dia ? vitoriasDia + 1 : 1;
+        periodoDia = dia;
+        vitoriasSemana = periodoSemana == semana ? vitoriasSemana + 1 : 1;
+        periodoSemana = semana;
+        vitorias++;
+        vitoriasPorTipo[tipo.ordinal()]++;
+        sequenciaAtual++;
+        melhorSequencia = Math.max(melhorSequencia, sequenciaAtual);
+        somaTempoMs += tempoMs;
+        if (menorTempoMs < 0 || tempoMs < menorTempoMs) {
+            menorTempoMs = tempoMs;
+        }
+    }
+    
+    /**
+     * @return true se havia sequencia para encerrar
+     */
+    synchronized boolean encerrarSequencia() {
+        if (sequenciaAtual == 0) {
+            return false;
+        }
+        sequenciaAtual = 0;
+        versao++;
+        return true;
+    }
+    
+    @Nonnull public UUID getUuid() { return uuid; }
+    @Nonnull public synchronized String getNome() { return nome; }
+    public synchronized int getVitorias() { return vitorias; }
+    public synchronized int getTentativas() { return tentativas; }
+    public synchronized int getSequenciaAtual() { return sequenciaAtual; }
+    public synchronized int getMelhorSequencia() { return melhorSequencia; }
+    public synchronized long getMenorTempoMs() { return menorTempoMs; }
+    public synchronized int getVitorias(@Nonnull QuizType tipo) { return vitoriasPorTipo[tipo.ordinal()]; }
+    public synchronized int getTentativas(@Nonnull QuizType tipo) { return tentativasPorTipo[tipo.ordinal()]; }
+    
+    /**
+     * Vitorias dentro de uma janela do ranking
+     * @param periodo Periodo atual da janela (JanelaRanking.periodo)
+     */
+    public synchronized int getVitorias(@Nonnull JanelaRanking janela, long periodo) {
+        switch (janela) {
+            case DIARIO:
+                return periodoDia == periodo ? vitoriasDia : 0;
+            case SEMANAL:
+                return periodoSemana == periodo ? vitoriasSemana : 0;
+            default:
+                return vitorias;
+        }
+    }
+    
+    /**
+     * Tempo medio das respostas vencedoras
+     * @return Media em ms, ou -1 sem vitorias
+     */
+    public synchronized long getTempoMedioMs() {
+        return vitorias > 0 ? somaTempoMs / vitorias : -1;
+    }
+    
+    /**
+     * Copia consistente para gravacao (tipos pelo nome, estavel se o enum mudar)
+     */
+    @Nonnull
+    synchronized Registro paraRegistro() {
+        return new Registro(uuid.toString(), nome, versao, vitorias, tentativas, sequenciaAtual, melhorSequencia,
+            menorTempoMs, somaTempoMs, porNome(vitoriasPorTipo), porNome(tentativasPorTipo),
+            periodoDia, vitoriasDia, periodoSemana, vitoriasSemana);
+    }
+    
+    /**
+     * Restaura um jogador gravado
+     * @return Jogador, ou null se o registro estiver incompleto
+     */
+    @Nullable
+    static EstatisticasJogador deRegistro(@Nullable Registro registro) {
+        if (registro == null || registro.uuid() == null) {
+            return null;
+        }
+        EstatisticasJogador jogador;
+        try {
+            jogador = new EstatisticasJogador(UUID.fromString(registro.uuid()), registro.nome() != null ? registro.nome() : "");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        jogador.versao = registro.versao();
+        jogador.vitorias = registro.vitorias();
+        jogador.tentativas = registro.tentativas();
+        jogador.sequenciaAtual = registro.sequenciaAtual();
+        jogador.melhorSequencia = registro.melhorSequencia();
+        jogador.menorTempoMs = registro.menorTempoMs();
+        jogador.somaTempoMs = registro.somaTempoMs();
+        deNome(registro.vitoriasPorTipo(), jogador.vitoriasPorTipo);
+        deNome(registro.tentativasPorTipo(), jogador.tentativasPorTipo);
+        jogador.periodoDia = registro.periodoDia();
+        jogador.vitoriasDia = registro.vitoriasDia();
+        jogador.periodoSemana = registro.periodoSemana();
+        jogador.vitoriasSemana = registro.vitoriasSemana();
+        return jogador;
+    }
+    
+    synchronized long getVersao() {
+        return versao;
+    }
+    
+    private static Map<String, Integer> porNome(int[] valores) {
+        Map<String, Integer> mapa = new LinkedHashMap<>();
+        for (QuizType tipo : TIPOS) {
+            if (valores[tipo.ordinal()] != 0) {
+                mapa.put(tipo.name(), valores[tipo.ordinal()]);
+            }
+        }
+        return mapa;
+    }
+    
+    private static void deNome(Map<String, Integer> mapa, int[] destino) {
+        if (mapa == null) {
+            return;
+        }
+        for (Map.Entry<String, Integer> entrada : mapa.entrySet()) {
+            try {
+                destino[QuizType.valueOf(entrada.getKey()).ordinal()] = entrada.getValue() != null ? entrada.getValue() : 0;
+            } catch (IllegalArgumentException e) {
+                // Tipo que nao existe mais
+            }
+        }
+    }
+    
+    /**
+     * Forma gravada em disco (uma linha JSON por registro)
+     */
+    record Registro(
+            String uuid,
+            String nome,
+            long versao,
+            int vitorias,
+            int tentativas,
+            int sequenciaAtual,
+            int melhorSequencia,
+            long menorTempoMs,
+            long somaTempoMs,
+            Map<String, Integer> vitoriasPorTipo,
+            Map<String, Integer> tentativasPorTipo,
+            long periodoDia,
+            int vitoriasDia,
+            long periodoSemana,
+            int vitoriasSemana) {
+    }
+}
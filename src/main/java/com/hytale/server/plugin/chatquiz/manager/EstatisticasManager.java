@@ -0,0 +1,295 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estatisticas persistentes dos jogadores (vitorias, tentativas, sequencias, tempos).
+ * 
+ * Caminho quente (chat / scheduler): so memoria. O jogador e atualizado sob o proprio
+ * lock dentro de um ConcurrentHashMap e marcado como sujo.
+ * 
+ * Gravacao (write-behind): a cada intervalo uma thread propria grava o estado atual
+ * dos jogadores sujos, uma linha JSON por jogador, em estatisticas.log (somente append).
+ * Quando o log cresce, ele e compactado em estatisticas.json (arquivo temporario +
+ * move atomico) e esvaziado. Na leitura vale o registro de maior versao de cada
+ * jogador, entao uma queda entre a compactacao e o esvaziamento nao perde dados.
+ * 
+ * Rankings (diario, semanal, geral): indices em memoria atualizados a cada vitoria
+ * e remontados a partir das estatisticas ao carregar; os contadores das janelas
+ * sao gravados junto com o resto do jogador.
+ * 
+ * Sequencias: cada mundo com rodada propria tem o seu ultimo vencedor, entao uma
+ * vitoria em um mundo nao encerra a sequencia de quem esta vencendo em outro.
+ */
+public class EstatisticasManager {
+    
+    private static final String ARQUIVO_SNAPSHOT = "estatisticas.json";
+    private static final String ARQUIVO_LOG = "estatisticas.log";
+    private static final int LIMITE_LINHAS_LOG = 10_000;
+    private static final Gson GSON = new GsonBuilder().create();
+    
+    private final ChatQuizPlugin plugin;
+    private final Path snapshot;
+    private final Path log;
+    private final ConcurrentHashMap<UUID, EstatisticasJogador> jogadores = new ConcurrentHashMap<>();
+    private final Set<UUID> sujos = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, UUID> ultimoVencedor = new ConcurrentHashMap<>(); // Por mundo ("" = universo)
+    private final Map<JanelaRanking, Ranking> rankings = new EnumMap<>(JanelaRanking.class);
+    private final ZoneId zona = ZoneId.systemDefault();
+    private final ScheduledExecutorService gravador;
+    private int linhasLog = 0; // Somente na thread de gravacao
+    
+    public EstatisticasManager(@Nonnull ChatQuizPlugin plugin, @Nonnull Path pasta) {
+        this.plugin = plugin;
+        this.snapshot = pasta.resolve(ARQUIVO_SNAPSHOT);
+        this.log = pasta.resolve(ARQUIVO_LOG);
+        for (JanelaRanking janela : JanelaRanking.values()) {
+            rankings.put(janela, new Ranking());
+        }
+        this.gravador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ChatQuiz-Estatisticas");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    /**
+     * Le o snapshot e aplica o log (inicializacao do plugin)
+     */
+    public void carregar() {
+        try {
+            if (Files.exists(snapshot)) {
+                try (BufferedReader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+                    List<EstatisticasJogador.Registro> registros = GSON.fromJson(reader,
+                        new TypeToken<List<EstatisticasJogador.Registro>>() {}.getType());
+                    if (registros != null) {
+                        registros.forEach(this::aplicar);
+                    }
+                }
+            }
+            if (Files.exists(log)) {
+                try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+                    String linha;
+                    while ((linha = reader.readLine()) != null) {
+                        linhasLog++;
+                        try {
+                            aplicar(GSON.fromJson(linha, EstatisticasJogador.Registro.class));
+                        } catch (JsonParseException e) {
+                            // Linha incompleta (queda no meio de uma gravacao)
+                        }
+                    }
+                }
+            }
+        } catch (IOException | JsonParseException e) {
+            plugin.getLogger().atWarning().log("Erro ao carregar estatisticas: " + e.getMessage());
+        }
+        
+        LocalDate hoje = LocalDate.now(zona);
+        for (EstatisticasJogador jogador : jogadores.values()) {
+            atualizarRankings(jogador, hoje);
+        }
+    }
+    
+    private void aplicar(EstatisticasJogador.Registro registro) {
+        EstatisticasJogador jogador = EstatisticasJogador.deRegistro(registro);
+        if (jogador != null) {
+            jogadores.merge(jogador.getUuid(), jogador, (atual, novo) -> novo.getVersao() > atual.getVersao() ? novo : atual);
+        }
+    }
+    
+    /**
+     * Inicia a gravacao periodica
+     */
+    public void iniciar(int intervaloSegundos) {
+        int intervalo = Math.max(1, intervaloSegundos);
+        gravador.scheduleWithFixedDelay(this::gravar, intervalo, intervalo, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Registra uma resposta (certa ou errada) sem I/O
+     */
+    public void registrarTentativa(@Nonnull UUID uuid, @Nonnull String nome, @Nonnull QuizType tipo) {
+        jogador(uuid, nome).registrarTentativa(nome, tipo);
+        sujos.add(uuid);
+    }
+    
+    /**
+     * Registra a vitoria de uma rodada sem I/O
+     * @param tempoMs Tempo entre o inicio da rodada e a resposta
+     * @param mundo Mundo da rodada, ou null para o universo inteiro
+     */
+    public void registrarVitoria(@Nonnull UUID uuid, @Nonnull String nome, @Nonnull QuizType tipo, long tempoMs, @Nullable String mundo) {
+        LocalDate hoje = LocalDate.now(zona);
+        EstatisticasJogador jogador = jogador(uuid, nome);
+        jogador.registrarVitoria(nome, tipo, tempoMs, JanelaRanking.DIARIO.periodo(hoje), JanelaRanking.SEMANAL.periodo(hoje));
+        sujos.add(uuid);
+        atualizarRankings(jogador, hoje);
+        
+        UUID anterior = ultimoVencedor.put(mundo != null ? mundo : "", uuid);
+        if (anterior != null && !anterior.equals(uuid)) {
+            encerrarSequencia(anterior);
+        }
+    }
+    
+    /**
+     * Rodada sem vencedor: encerra a sequencia de quem venceu a anterior no mesmo mundo
+     * @param mundo Mundo da rodada, ou null para o universo inteiro
+     */
+    public void registrarRodadaSemVencedor(@Nullable String mundo) {
+        UUID anterior = ultimoVencedor.remove(mundo != null ? mundo : "");
+        if (anterior != null) {
+            encerrarSequencia(anterior);
+        }
+    }
+    
+    private void encerrarSequencia(UUID uuid) {
+        EstatisticasJogador jogador = jogadores.get(uuid);
+        if (jogador != null && jogador.encerrarSequencia()) {
+            sujos.add(uuid);
+        }
+    }
+    
+    private void atualizarRankings(EstatisticasJogador jogador, LocalDate hoje) {
+        for (Map.Entry<JanelaRanking, Ranking> entrada : rankings.entrySet()) {
+            long periodo = entrada.getKey().periodo(hoje);
+            entrada.getValue().atualizar(jogador.getUuid(), jogador.getNome(), jogador.getVitorias(entrada.getKey(), periodo), periodo);
+        }
+    }
+    
+    private EstatisticasJogador jogador(UUID uuid, String nome) {
+        EstatisticasJogador jogador = jogadores.get(uuid);
+        return jogador != null ? jogador : jogadores.computeIfAbsent(uuid, id -> new EstatisticasJogador(id, nome));
+    }
+    
+    @Nullable
+    public EstatisticasJogador getJogador(@Nonnull UUID uuid) {
+        return jogadores.get(uuid);
+    }
+    
+    /**
+     * Todos os jogadores conhecidos (visao ao vivo, sem copia)
+     */
+    @Nonnull
+    public Collection<EstatisticasJogador> getJogadores() {
+        return Collections.unmodifiableCollection(jogadores.values());
+    }
+    
+    /**
+     * Primeiros colocados de uma janela, O(log n + quantidade)
+     */
+    @Nonnull
+    public List<PosicaoRanking> getTopo(@Nonnull JanelaRanking janela, int quantidade) {
+        return rankings.get(janela).topo(quantidade, janela.periodo(LocalDate.now(zona)));
+    }
+    
+    /**
+     * Posicao do jogador em uma janela, O(log n)
+     * @return Posicao a partir de 1, ou -1 se ele nao venceu no periodo
+     */
+    public int getPosicao(@Nonnull JanelaRanking janela, @Nonnull UUID uuid) {
+        return rankings.get(janela).posicao(uuid, janela.periodo(LocalDate.now(zona)));
+    }
+    
+    /**
+     * Grava os jogadores sujos no log (thread de gravacao)
+     */
+    private void gravar() {
+        if (sujos.isEmpty()) {
+            return;
+        }
+        
+        List<UUID> gravados = new ArrayList<>();
+        StringBuilder linhas = new StringBuilder();
+        for (Iterator<UUID> it = sujos.iterator(); it.hasNext(); ) {
+            UUID uuid = it.next();
+            it.remove();
+            gravados.add(uuid);
+            EstatisticasJogador jogador = jogadores.get(uuid);
+            if (jogador != null) {
+                linhas.append(GSON.toJson(jogador.paraRegistro())).append('\n');
+            }
+        }
+        
+        try {
+            Files.createDirectories(log.getParent());
+            Files.writeString(log, linhas, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            linhasLog += gravados.size();
+            
+            if (linhasLog > Math.max(LIMITE_LINHAS_LOG, jogadores.size() * 2)) {
+                compactar();
+            }
+        } catch (IOException e) {
+            // Tenta de novo na proxima gravacao
+            sujos.addAll(gravados);
+            plugin.getLogger().atWarning().log("Erro ao gravar estatisticas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Grava todos os jogadores no snapshot e esvazia o log
+     */
+    private void compactar() throws IOException {
+        List<EstatisticasJogador.Registro> registros = new ArrayList<>(jogadores.size());
+        for (EstatisticasJogador jogador : jogadores.values()) {
+            registros.add(jogador.paraRegistro());
+        }
+        
+        Path temporario = snapshot.resolveSibling(ARQUIVO_SNAPSHOT + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporario, StandardCharsets.UTF_8)) {
+            GSON.toJson(registros, writer);
+        }
+        Files.move(temporario, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.write(log, new byte[0], StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        linhasLog = 0;
+    }
+    
+    /**
+     * Grava o que estiver pendente, compacta e encerra a thread (desligamento do plugin)
+     */
+    public void desligar() {
+        gravador.shutdown();
+        try {
+            gravador.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        gravar();
+        try {
+            compactar();
+        } catch (IOException e) {
+            plugin.getLogger().atWarning().log("Erro ao compactar estatisticas: " + e.getMessage());
+        }
+    }
+}
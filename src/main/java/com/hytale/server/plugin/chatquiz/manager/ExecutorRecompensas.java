@@ -0,0 +1,128 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hypixel.hytale.server.core.command.system.CommandManager;
+import com.hypixel.hytale.server.core.console.ConsoleSender;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.util.TemplateTexto;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Execucao dos comandos de recompensa fora da thread do chat.
+ * 
+ * A vitoria so enfileira um trabalho (templates ja compilados + valores dos
+ * placeholders) e retorna. Uma thread propria, com fila limitada, executa os
+ * comandos em ordem, esperando cada um terminar. Falhas sao repetidas algumas
+ * vezes e registradas no log com o jogador e a rodada; um comando que nao
+ * responde a tempo nao e repetido, porque ainda pode executar e dar a
+ * recompensa duas vezes. Com a fila cheia a recompensa e descartada com aviso,
+ * em vez de travar a vitoria.
+ */
+final class ExecutorRecompensas {
+    
+    private static final int CAPACIDADE_FILA = 256;
+    private static final int TENTATIVAS = 3;
+    private static final long ESPERA_TENTATIVA_MS = 500;
+    private static final long TEMPO_LIMITE_COMANDO_SEGUNDOS = 10;
+    
+    private final ChatQuizPlugin plugin;
+    private final MetricasQuiz metricas;
+    private final ThreadPoolExecutor executor;
+    
+    ExecutorRecompensas(@Nonnull ChatQuizPlugin plugin) {
+        this.plugin = plugin;
+        this.metricas = plugin.getMetricas();
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(CAPACIDADE_FILA), r -> {
+                Thread t = new Thread(r, "ChatQuiz-Recompensas");
+                t.setDaemon(true);
+                return t;
+            });
+    }
+    
+    /**
+     * Enfileira os comandos de recompensa de um vencedor (retorna na hora)
+     * @param valores Valores dos placeholders, ja calculados na vitoria
+     */
+    void enfileirar(long idRodada, @Nonnull String jogador, @Nonnull List<TemplateTexto> comandos, @Nonnull Map<String, String> valores) {
+        if (comandos.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> executar(idRodada, jogador, comandos, valores));
+        } catch (RejectedExecutionException e) {
+            plugin.getLogger().atWarning().log("Fila de recompensas cheia, recompensa descartada (jogador " + jogador + ", rodada " + idRodada + ")");
+        }
+    }
+    
+    private void executar(long idRodada, String jogador, List<TemplateTexto> comandos, Map<String, String> valores) {
+        for (TemplateTexto template : comandos) {
+            String comando = template.render(valores);
+            if (!executarComRepeticao(idRodada, jogador, comando)) {
+                return; // Interrompido (desligamento)
+            }
+        }
+    }
+    
+    /**
+     * @return false se a thread foi interrompida
+     */
+    private boolean executarComRepeticao(long idRodada, String jogador, String comando) {
+        for (int tentativa = 1; tentativa <= TENTATIVAS; tentativa++) {
+            long inicio = System.nanoTime();
+            try {
+                CompletableFuture<Void> execucao = CommandManager.get().handleCommand(ConsoleSender.INSTANCE, comando);
+                if (execucao != null) {
+                    execucao.get(TEMPO_LIMITE_COMANDO_SEGUNDOS, TimeUnit.SECONDS);
+                }
+                metricas.registrarComando(System.nanoTime() - inicio);
+                return true;
+            } catch (TimeoutException e) {
+                plugin.getLogger().atWarning().log("Comando de recompensa sem resposta em " + TEMPO_LIMITE_COMANDO_SEGUNDOS
+                    + "s (jogador " + jogador + ", rodada " + idRodada + "): " + comando);
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (Exception e) {
+                Throwable causa = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+                plugin.getLogger().atWarning().log("Erro ao executar comando de recompensa (jogador " + jogador + ", rodada " + idRodada
+                    + ", tentativa " + tentativa + "/" + TENTATIVAS + "): " + comando + " - " + causa.getMessage());
+            }
+            
+            if (tentativa < TENTATIVAS) {
+                try {
+                    Thread.sleep(ESPERA_TENTATIVA_MS * tentativa);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Termina as recompensas ja enfileiradas (com limite de tempo) e encerra a thread
+     */
+    void desligar() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.TinyMsg;
+import com.hytale.server.plugin.chatquiz.motor.MotorQuiz;
+import com.hytale.server.plugin.chatquiz.util.RodaTemporizadores;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feedback de resposta errada com limite por jogador.
+ * 
+ * Cada erro apenas marca o jogador como pendente (O(1)); o primeiro pendente arma
+ * um unico ciclo na roda de temporizadores, que envia os feedbacks no pool do
+ * agendador, no maximo um por jogador a cada intervaloFeedbackErroMs. Sem erros
+ * pendentes nenhum ciclo fica armado. A fila de pendentes e limitada, e os envios
+ * nao passam pela thread da roda, entao spam de respostas nao atrasa o timeout do quiz.
+ */
+final class FeedbackErro {
+    
+    private static final long CICLO_MS = 100;
+    private static final int LIMITE_PENDENTES = 512;
+    private static final int LIMITE_POR_CICLO = 64;
+    
+    private final ChatQuizPlugin plugin;
+    private final Agendador agendador;
+    private final ConcurrentHashMap<MotorQuiz, Message> mensagens = new ConcurrentHashMap<>(); // Pre-parseadas, uma por motor
+    private final ConcurrentHashMap<String, Pendente> pendentes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> ultimoEnvio = new ConcurrentHashMap<>();
+    private final AtomicBoolean cicloArmado = new AtomicBoolean();
+    private volatile RodaTemporizadores.Temporizador ciclo = null;
+    
+    private record Pendente(PlayerRef jogador, Message mensagem) {}
+    
+    FeedbackErro(@Nonnull ChatQuizPlugin plugin, @Nonnull Agendador agendador) {
+        this.plugin = plugin;
+        this.agendador = agendador;
+    }
+    
+    void parar() {
+        RodaTemporizadores.Temporizador atual = ciclo;
+        if (atual != null) {
+            atual.cancelar();
+        }
+        limpar();
+    }
+    
+    /**
+     * Registra uma resposta errada. Descartada se o jogador recebeu feedback recentemente
+     * ou se a fila estiver cheia.
+     */
+    void registrar(@Nonnull PlayerRef jogador, @Nonnull MotorQuiz motor) {
+        String nome = jogador.getUsername();
+        Long ultimo = ultimoEnvio.get(nome);
+        if (ultimo != null && System.currentTimeMillis() - ultimo < getIntervaloMs()) {
+            return;
+        }
+        if (pendentes.size() >= LIMITE_PENDENTES) {
+            return;
+        }
+        // Varios erros do mesmo jogador no mesmo ciclo viram um unico feedback
+        pendentes.putIfAbsent(nome, new Pendente(jogador, mensagens.computeIfAbsent(motor, m -> criarMensagem(m.getMensagemErro()))));
+        armarCiclo();
+    }
+    
+    /**
+     * Arma o proximo ciclo de envio, se ainda nao houver um armado
+     */
+    private void armarCiclo() {
+        if (cicloArmado.compareAndSet(false, true)) {
+            try {
+                ciclo = agendador.agendar(CICLO_MS, TimeUnit.MILLISECONDS, this::enviarPendentes);
+            } catch (RejectedExecutionException e) {
+                // Manager desligado
+            }
+        }
+    }
+    
+    /**
+     * Descarta feedbacks pendentes (ex: rodada encerrada)
+     */
+    void limpar() {
+        pendentes.clear();
+    }
+    
+    private void enviarPendentes() {
+        try {
+            long agora = System.currentTimeMillis();
+            int enviados = 0;
+            
+            Iterator<Map.Entry<String, Pendente>> it = pendentes.entrySet().iterator();
+            while (it.hasNext() && enviados < LIMITE_POR_CICLO) {
+                Map.Entry<String, Pendente> entry = it.next();
+                it.remove();
+                
+                Pendente pendente = entry.getValue();
+                ultimoEnvio.put(entry.getKey(), agora);
+                pendente.jogador().sendMessage(pendente.mensagem());
+                enviados++;
+            }
+            
+            // Remove registros antigos para o mapa nao crescer indefinidamente
+            if (pendentes.isEmpty() && !ultimoEnvio.isEmpty()) {
+                long intervalo = getIntervaloMs();
+                ultimoEnvio.values().removeIf(ultimo -> agora - ultimo >= intervalo);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().atWarning().log("Erro ao enviar feedback: " + e.getMessage());
+        }
+        
+        // Desarma antes de conferir: um erro registrado agora arma o ciclo por conta propria
+        cicloArmado.set(false);
+        if (!pendentes.isEmpty()) {
+            armarCiclo();
+        }
+    }
+    
+    private long getIntervaloMs() {
+        return plugin.getConfiguracao().getIntervaloFeedbackErroMs();
+    }
+    
+    @Nonnull
+    private static Message criarMensagem(@Nonnull String texto) {
+        try {
+            return TinyMsg.parse(texto);
+        } catch (Exception e) {
+            return Message.raw(texto);
+        }
+    }
+}
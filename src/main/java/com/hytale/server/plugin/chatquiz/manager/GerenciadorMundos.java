@@ -0,0 +1,181 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.config.ConfiguracaoSnapshot;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Um QuizManager por mundo configurado em "mundos", ou um unico para o universo
+ * inteiro quando nenhum mundo e configurado.
+ * 
+ * O chat e roteado pelo mundo de quem enviou: o UUID do mundo e traduzido para o
+ * nome uma vez (cache) e o nome leva ao manager, duas buscas em mapa por mensagem.
+ * Mensagens de mundos sem rodada propria sao ignoradas.
+ * 
+ * O mapa de managers e imutavel e trocado por inteiro no reload; mundos novos
+ * ganham manager, mundos removidos tem o manager desligado e os mantidos recebem
+ * a configuracao nova sem perder a rodada em andamento.
+ */
+public class GerenciadorMundos {
+    
+    private final ChatQuizPlugin plugin;
+    private final Agendador agendador; // Prazos e trabalho de todos os managers
+    private final ConcurrentHashMap<UUID, String> nomePorWorld = new ConcurrentHashMap<>(); // UUID do mundo -> nome em minusculas
+    private volatile Map<String, QuizManager> porMundo = Map.of();
+    private volatile QuizManager universo = null; // Somente sem mundos configurados
+    private boolean iniciado = false;
+    
+    public GerenciadorMundos(@Nonnull ChatQuizPlugin plugin) {
+        this.plugin = plugin;
+        this.agendador = new Agendador(plugin);
+        atualizarManagers();
+    }
+    
+    /**
+     * Inicia o ciclo automatico em todos os managers
+     */
+    public synchronized void iniciarCiclo() {
+        iniciado = true;
+        for (QuizManager manager : getManagers()) {
+            manager.iniciarCiclo();
+        }
+    }
+    
+    /**
+     * Aplica uma configuracao recarregada, criando e desligando managers conforme os mundos
+     */
+    public synchronized void aoRecarregarConfiguracao() {
+        atualizarManagers();
+    }
+    
+    private void atualizarManagers() {
+        ConfiguracaoSnapshot snapshot = plugin.getSnapshot();
+        List<QuizManager> novos = new ArrayList<>();
+        
+        if (snapshot.getMundos().isEmpty()) {
+            for (QuizManager manager : porMundo.values()) {
+                manager.desligar();
+            }
+            porMundo = Map.of();
+            if (universo == null) {
+                universo = new QuizManager(plugin, null, agendador);
+                novos.add(universo);
+            } else {
+                universo.aoRecarregarConfiguracao();
+            }
+        } else {
+            if (universo != null) {
+                universo.desligar();
+                universo = null;
+            }
+            Map<String, QuizManager> anteriores = new LinkedHashMap<>(porMundo);
+            Map<String, QuizManager> atuais = new LinkedHashMap<>();
+            for (String mundo : snapshot.getMundos()) {
+                QuizManager manager = anteriores.remove(mundo);
+                if (manager == null) {
+                    manager = new QuizManager(plugin, mundo, agendador);
+                    novos.add(manager);
+                } else {
+                    manager.aoRecarregarConfiguracao();
+                }
+                atuais.put(mundo, manager);
+            }
+            porMundo = Collections.unmodifiableMap(atuais);
+            for (QuizManager removido : anteriores.values()) {
+                removido.desligar();
+            }
+        }
+        
+        // Mundos podem ter sido descarregados / recriados desde o ultimo reload
+        nomePorWorld.clear();
+        if (iniciado) {
+            for (QuizManager manager : novos) {
+                manager.iniciarCiclo();
+            }
+        }
+    }
+    
+    /**
+     * Manager responsavel pelo chat do jogador
+     * @return Manager do mundo do jogador, ou null se o mundo nao tem rodada propria
+     */
+    @Nullable
+    public QuizManager managerDo(@Nonnull PlayerRef jogador) {
+        QuizManager atual = universo;
+        if (atual != null) {
+            return atual;
+        }
+        UUID world = jogador.getWorldUuid();
+        if (world == null) {
+            return null;
+        }
+        String nome = nomePorWorld.get(world);
+        if (nome == null) {
+            nome = resolverNome(world);
+            if (nome == null) {
+                return null;
+            }
+        }
+        return porMundo.get(nome);
+    }
+    
+    @Nullable
+    private String resolverNome(@Nonnull UUID world) {
+        try {
+            World mundo = Universe.get().getWorld(world);
+            if (mundo == null || mundo.getName() == null) {
+                return null;
+            }
+            String nome = mundo.getName().toLowerCase(Locale.ROOT);
+            nomePorWorld.put(world, nome);
+            return nome;
+        } catch (Exception e) {
+            plugin.getLogger().atWarning().log("Erro ao identificar mundo " + world + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Todos os managers ativos (um por mundo, ou o do universo)
+     */
+    @Nonnull
+    public Collection<QuizManager> getManagers() {
+        QuizManager atual = universo;
+        return atual != null ? List.of(atual) : porMundo.values();
+    }
+    
+    /**
+     * Manager de um mundo pelo nome
+     * @return Manager, ou null se o mundo nao tem rodada propria
+     */
+    @Nullable
+    public QuizManager getManager(@Nonnull String mundo) {
+        return porMundo.get(mundo.toLowerCase(Locale.ROOT));
+    }
+    
+    /**
+     * Desliga todos os managers (desligamento do plugin)
+     */
+    public synchronized void desligar() {
+        for (QuizManager manager : getManagers()) {
+            manager.desligar();
+        }
+        porMundo = Map.of();
+        universo = null;
+        agendador.desligar();
+    }
+}
@@ -0,0 +1,40 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import javax.annotation.Nonnull;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Periodo contado por um ranking
+ */
+public enum JanelaRanking {
+    /**
+     * Vitorias do dia (zera a meia-noite)
+     */
+    DIARIO,
+    
+    /**
+     * Vitorias da semana (zera na segunda-feira)
+     */
+    SEMANAL,
+    
+    /**
+     * Todas as vitorias
+     */
+    GERAL;
+    
+    /**
+     * Identificador do periodo que contem a data (dia epoch do inicio do periodo; 0 no GERAL)
+     */
+    public long periodo(@Nonnull LocalDate data) {
+        switch (this) {
+            case DIARIO:
+                return data.toEpochDay();
+            case SEMANAL:
+                return data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toEpochDay();
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+import com.hytale.server.plugin.chatquiz.util.Histograma;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metricas do quiz: latencias do caminho quente e resultados das rodadas.
+ * 
+ * Registrar e sem lock (histogramas de LongAdder), entao pode ser chamado do chat,
+ * dos trabalhadores do agendador e das threads de envio. A exportacao le tudo de uma vez em formato
+ * texto do Prometheus e grava em um arquivo local (temporario + move atomico),
+ * para um coletor ao lado do servidor ler.
+ */
+public final class MetricasQuiz {
+    
+    private static final String ARQUIVO = "metricas.prom";
+    private static final int LIMITE_PERGUNTAS_EXPORTADAS = 20;
+    private static final int MINIMO_RODADAS_PERGUNTA = 3;
+    
+    private final ChatQuizPlugin plugin;
+    private final Histograma resposta = new Histograma(Histograma.LIMITES_LATENCIA_NS);
+    private final Histograma mensagem = new Histograma(Histograma.LIMITES_LATENCIA_NS);
+    private final Histograma transmissao = new Histograma(Histograma.LIMITES_LATENCIA_NS);
+    private final Histograma comando = new Histograma(Histograma.LIMITES_LATENCIA_NS);
+    private final Histograma atrasoTemporizador = new Histograma(Histograma.LIMITES_LATENCIA_NS);
+    private final Histograma tempoAcerto = new Histograma(Histograma.LIMITES_RODADA_NS);
+    private final Histograma palpites = new Histograma(Histograma.LIMITES_CONTAGEM);
+    private final LongAdder rodadas = new LongAdder();
+    private final LongAdder rodadasSemVencedor = new LongAdder();
+    private final ConcurrentHashMap<String, ContadorPergunta> perguntas = new ConcurrentHashMap<>();
+    private ScheduledExecutorService exportador;
+    private Path arquivo;
+    
+    public MetricasQuiz(@Nonnull ChatQuizPlugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    /**
+     * Tempo de processamento de uma mensagem do chat durante a rodada
+     */
+    public void registrarResposta(long nanos) {
+        resposta.registrar(nanos);
+    }
+    
+    /**
+     * Tempo de parse / renderizacao das mensagens do TinyMsg
+     */
+    public void registrarMensagem(long nanos) {
+        mensagem.registrar(nanos);
+    }
+    
+    /**
+     * Tempo de envio de um lote de mensagens aos jogadores
+     */
+    public void registrarTransmissao(long nanos) {
+        transmissao.registrar(nanos);
+    }
+    
+    /**
+     * Tempo de execucao de um comando de recompensa
+     */
+    public void registrarComando(long nanos) {
+        comando.registrar(nanos);
+    }
+    
+    /**
+     * Atraso entre o prazo de um temporizador e o inicio da tarefa no pool
+     */
+    public void registrarAtrasoTemporizador(long nanos) {
+        atrasoTemporizador.registrar(nanos);
+    }
+    
+    /**
+     * Resultado de uma rodada encerrada
+     * @param pergunta Texto da pergunta (chave da taxa de timeout)
+     * @param palpitesRodada Mensagens recebidas durante a rodada
+     * @param tempoAcertoNanos Tempo ate o acerto, ou negativo se ninguem acertou
+     */
+    public void registrarRodada(@Nonnull String pergunta, long palpitesRodada, long tempoAcertoNanos) {
+        rodadas.increment();
+        palpites.registrar(palpitesRodada);
+        ContadorPergunta contador = perguntas.computeIfAbsent(pergunta, p -> new ContadorPergunta());
+        contador.rodadas.increment();
+        if (tempoAcertoNanos < 0) {
+            rodadasSemVencedor.increment();
+            contador.timeouts.increment();
+        } else {
+            tempoAcerto.registrar(tempoAcertoNanos);
+        }
+    }
+    
+    /**
+     * Comeca a exportar para o arquivo periodicamente
+     * @param pasta Pasta do arquivo metricas.prom
+     * @param intervaloSegundos Intervalo da exportacao (0 desativa)
+     */
+    public synchronized void iniciar(@Nonnull Path pasta, int intervaloSegundos) {
+        if (intervaloSegundos <= 0 || exportador != null) {
+            return;
+        }
+        arquivo = pasta.resolve(ARQUIVO);
+        exportador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ChatQuiz-Metricas");
+            t.setDaemon(true);
+            return t;
+        });
+        exportador.scheduleWithFixedDelay(this::exportar, intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Para a exportacao periodica e grava uma ultima vez
+     */
+    public synchronized void desligar() {
+        if (exportador != null) {
+            exportador.shutdownNow();
+            exportador = null;
+            exportar();
+        }
+    }
+    
+    private void exportar() {
+        try {
+            Path temporario = arquivo.resolveSibling(ARQUIVO + ".tmp");
+            Files.writeString(temporario, formatarPrometheus(), StandardCharsets.UTF_8);
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().atWarning().log("Erro ao exportar metricas: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Todas as metricas no formato texto do Prometheus (tempos em segundos)
+     */
+    @Nonnull
+    public String formatarPrometheus() {
+        StringBuilder sb = new StringBuilder(4096);
+        escreverHistograma(sb, "chatquiz_resposta_segundos", "Processamento de cada mensagem do chat durante uma rodada", resposta, true);
+        escreverHistograma(sb, "chatquiz_mensagem_segundos", "Parse e renderizacao das mensagens do TinyMsg", mensagem, true);
+        escreverHistograma(sb, "chatquiz_transmissao_segundos", "Envio de um lote de mensagens aos jogadores", transmissao, true);
+        escreverHistograma(sb, "chatquiz_comando_segundos", "Execucao de um comando de recompensa", comando, true);
+        escreverHistograma(sb, "chatquiz_atraso_temporizador_segundos", "Atraso entre o prazo de um temporizador e o inicio da tarefa", atrasoTemporizador, true);
+        escreverHistograma(sb, "chatquiz_tempo_acerto_segundos", "Tempo entre o inicio da rodada e o primeiro acerto", tempoAcerto, true);
+        escreverHistograma(sb, "chatquiz_palpites_rodada", "Mensagens recebidas por rodada", palpites, false);
+        
+        escreverContador(sb, "chatquiz_rodadas_total", "Rodadas encerradas", rodadas.sum());
+        escreverContador(sb, "chatquiz_rodadas_sem_vencedor_total", "Rodadas encerradas por timeout", rodadasSemVencedor.sum());
+        
+        sb.append("# HELP chatquiz_pergunta_taxa_timeout Fracao das rodadas da pergunta sem vencedor (perguntas com maior taxa)\n");
+        sb.append("# TYPE chatquiz_pergunta_taxa_timeout gauge\n");
+        for (TaxaPergunta taxa : pioresPerguntas(LIMITE_PERGUNTAS_EXPORTADAS)) {
+            sb.append("chatquiz_pergunta_taxa_timeout{pergunta=\"").append(escaparRotulo(taxa.pergunta())).append("\"} ")
+              .append(taxa.taxa()).append('\n');
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Resumo legivel para o comando /chatquiz stats
+     */
+    @Nonnull
+    public List<String> resumo() {
+        List<String> linhas = new ArrayList<>();
+        linhas.add(linhaLatencia("Respostas", resposta));
+        linhas.add(linhaLatencia("Mensagens", mensagem));
+        linhas.add(linhaLatencia("Transmissao (lote)", transmissao));
+        linhas.add(linhaLatencia("Comandos", comando));
+        linhas.add(linhaLatencia("Atraso dos temporizadores", atrasoTemporizador));
+        
+        long total = rodadas.sum();
+        long semVencedor = rodadasSemVencedor.sum();
+        linhas.add("Rodadas: " + total + " | sem vencedor: " + semVencedor
+            + (total > 0 ? " (" + Math.round(semVencedor * 100.0 / total) + "%)" : ""));
+        linhas.add("Tempo ate o acerto: p50 " + formatarDuracao(tempoAcerto.percentil(0.5))
+            + " | p90 " + formatarDuracao(tempoAcerto.percentil(0.9)));
+        long totalPalpites = palpites.getTotal();
+        linhas.add("Palpites por rodada: media " + (totalPalpites > 0 ? palpites.getSoma() / totalPalpites : 0)
+            + " | p90 " + Math.max(0, palpites.percentil(0.9)));
+        
+        for (TaxaPergunta taxa : pioresPerguntas(3)) {
+            linhas.add("Timeout " + Math.round(taxa.taxa() * 100) + "% (" + taxa.rodadas() + " rodadas): " + taxa.pergunta());
+        }
+        return linhas;
+    }
+    
+    private List<TaxaPergunta> pioresPerguntas(int limite) {
+        List<TaxaPergunta> taxas = new ArrayList<>();
+        for (Map.Entry<String, ContadorPergunta> entrada : perguntas.entrySet()) {
+            long rodadasPergunta = entrada.getValue().rodadas.sum();
+            if (rodadasPergunta >= MINIMO_RODADAS_PERGUNTA) {
+                taxas.add(new TaxaPergunta(entrada.getKey(), rodadasPergunta,
+                    (double) entrada.getValue().timeouts.sum() / rodadasPergunta));
+            }
+        }
+        taxas.sort(Comparator.comparingDouble(TaxaPergunta::taxa).reversed());
+        return taxas.size() > limite ? taxas.subList(0, limite) : taxas;
+    }
+    
+    private static String linhaLatencia(String nome, Histograma histograma) {
+        return nome + ": " + histograma.getTotal()
+            + " | p50 " + formatarDuracao(histograma.percentil(0.5))
+            + " | p99 " + formatarDuracao(histograma.percentil(0.99));
+    }
+    
+    private static String formatarDuracao(long nanos) {
+        if (nanos < 0) {
+            return "-";
+        }
+        if (nanos == Long.MAX_VALUE) {
+            return "acima do limite";
+        }
+        if (nanos < 1_000_000L) {
+            return "<=" + nanos / 1_000 + "us";
+        }
+        if (nanos < 1_000_000_000L) {
+            return "<=" + nanos / 1_000_000 + "ms";
+        }
+        return "<=" + nanos / 1_000_000_000L + "s";
+    }
+    
+    private static void escreverHistograma(StringBuilder sb, String nome, String ajuda, Histograma histograma, boolean nanos) {
+        long[] limites = histograma.getLimites();
+        long[] contagens = histograma.getContagens();
+        
+        sb.append("# HELP ").append(nome).append(' ').append(ajuda).append('\n');
+        sb.append("# TYPE ").append(nome).append(" histogram\n");
+        long acumulado = 0;
+        for (int i = 0; i < limites.length; i++) {
+            acumulado += contagens[i];
+            sb.append(nome).append("_bucket{le=\"").append(formatarValor(limites[i], nanos)).append("\"} ").append(acumulado).append('\n');
+        }
+        acumulado += contagens[limites.length];
+        sb.append(nome).append("_bucket{le=\"+Inf\"} ").append(acumulado).append('\n');
+        sb.append(nome).append("_sum ").append(formatarValor(histograma.getSoma(), nanos)).append('\n');
+        sb.append(nome).append("_count ").append(acumulado).append('\n');
+    }
+    
+    private static void escreverContador(StringBuilder sb, String nome, String ajuda, long valor) {
+        sb.append("# HELP ").append(nome).append(' ').append(ajuda).append('\n');
+        sb.append("# TYPE ").append(nome).append(" counter\n");
+        sb.append(nome).append(' ').append(valor).append('\n');
+    }
+    
+    private static String formatarValor(long valor, boolean nanos) {
+        return nanos ? BigDecimal.valueOf(valor, 9).stripTrailingZeros().toPlainString() : Long.toString(valor);
+    }
+    
+    private static String escaparRotulo(String valor) {
+        return valor.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+    
+    private static final class ContadorPergunta {
+        final LongAdder rodadas = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+    }
+    
+    private record TaxaPergunta(String pergunta, long rodadas, double taxa) {}
+}
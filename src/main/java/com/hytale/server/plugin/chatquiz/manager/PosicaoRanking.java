@@ -0,0 +1,10 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Linha de um ranking
+ * @param posicao Posicao a partir de 1
+ */
+public record PosicaoRanking(int posicao, @Nonnull String nome, int vitorias) {
+}
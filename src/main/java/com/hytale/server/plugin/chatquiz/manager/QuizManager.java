@@ -2,40 +2,71 @@ package com.hytale.server.plugin.chatquiz.manager;
 
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.event.events.player.PlayerChatEvent;
-import com.hypixel.hytale.server.core.universe.Universe;
-import com.hypixel.hytale.server.core.util.EventTitleUtil;
 import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
 import com.hytale.server.plugin.chatquiz.TinyMsg;
+import com.hytale.server.plugin.chatquiz.config.BancoPerguntas;
 import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.ConfiguracaoSnapshot;
 import com.hytale.server.plugin.chatquiz.config.QuizType;
-import com.hytale.server.plugin.chatquiz.TinyMsg;
-import com.hypixel.hytale.server.core.Message;
+import com.hytale.server.plugin.chatquiz.motor.Desafio;
+import com.hytale.server.plugin.chatquiz.motor.MotorQuiz;
+import com.hytale.server.plugin.chatquiz.motor.RegistroMotores;
+import com.hytale.server.plugin.chatquiz.util.RodaTemporizadores;
+import com.hytale.server.plugin.chatquiz.util.TemplateTexto;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.text.Normalizer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Gerenciador do sistema de Quiz.
- * Suporta múltiplos tipos: QUIZ, TYPE, SCRAMBLE
+ * Suporta múltiplos tipos: QUIZ, TYPE, SCRAMBLE, MATH
+ * 
+ * Cada manager conduz as rodadas de um mundo (ou do universo inteiro, sem mundos
+ * configurados): sorteio, agendamento, estado e envio sao so dele, entao as rodadas
+ * de mundos diferentes correm em paralelo sem dividir lock. O GerenciadorMundos
+ * entrega a cada manager o chat do seu mundo.
+ * 
+ * Concorrencia: o estado da rodada e um RodadaQuiz imutavel em um AtomicReference.
+ * O chat le a rodada sem lock; vitoria e timeout disputam o compareAndSet,
+ * entao cada rodada termina exatamente uma vez. As tarefas agendadas
+ * (timeout / proximo quiz) sao protegidas pelo monitor do manager.
+ * 
+ * Prazos e trabalho vao para o Agendador compartilhado: os temporizadores ficam
+ * na roda e as tarefas vencidas rodam no pool, que pode executar tarefas de um
+ * mesmo manager em paralelo; a preparacao da rodada tem o seu proprio lock.
  */
 public class QuizManager {
     
     private final ChatQuizPlugin plugin;
+    private final String mundo;
     private final Random random = new Random();
-    private final ScheduledExecutorService scheduler;
+    private final Agendador agendador;
+    private final FeedbackErro feedbackErro;
+    private final Transmissor transmissor;
+    private final MetricasQuiz metricas;
+    private final ExecutorRecompensas recompensas;
     
-    private boolean quizAtivo = false;
-    private ChatQuizConfig.PerguntaConfig perguntaAtual = null;
-    private String palavraEmbaralhada = null; // Usado no modo SCRAMBLE
-    private ScheduledFuture<?> timeoutTask = null;
-    private ScheduledFuture<?> proximoQuizTask = null;
+    private final AtomicReference<RodadaQuiz> rodadaAtual = new AtomicReference<>();
+    private final AtomicLong proximoIdRodada = new AtomicLong();
+    private RodaTemporizadores.Temporizador timeoutTask = null;
+    private long idRodadaTimeout = 0;
+    private RodaTemporizadores.Temporizador proximoQuizTask = null;
+    private final Object lockPreparacao = new Object(); // Seletor e banco fora do monitor do manager
+    private volatile boolean desligado = false; // O agendador e compartilhado: manager desligado nao agenda mais nada
+    private volatile SeletorPerguntas seletor = null;
+    private final AtomicReference<RodadaPreparada> proximaRodada = new AtomicReference<>();
+    private final SplittableRandom geradorRodadas = new SplittableRandom();
     
     public static final String PERMISSION_ADMIN = "chatquiz.admin";
     
@@ -44,14 +75,22 @@ public class QuizManager {
     private static final String PLACEHOLDER_PLAYER = "{player}";
     private static final String PLACEHOLDER_SCRAMBLE = "{scramble}";
     private static final String PLACEHOLDER_TIPO = "{tipo}";
+    private static final String PLACEHOLDER_RESPOSTA = "{resposta}";
+    private static final String PLACEHOLDER_POSICAO = "{posicao}";
+    private static final String PLACEHOLDER_VITORIAS = "{vitorias}";
     
-    public QuizManager(@Nonnull ChatQuizPlugin plugin) {
+    /**
+     * @param mundo Nome do mundo (minusculas), ou null para uma rodada no universo inteiro
+     * @param agendador Prazos e trabalho, compartilhados com os managers dos outros mundos
+     */
+    QuizManager(@Nonnull ChatQuizPlugin plugin, @Nullable String mundo, @Nonnull Agendador agendador) {
         this.plugin = plugin;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "ChatQuiz-Scheduler");
-            t.setDaemon(true);
-            return t;
-        });
+        this.mundo = mundo;
+        this.agendador = agendador;
+        this.metricas = plugin.getMetricas();
+        this.transmissor = new Transmissor(plugin, mundo);
+        this.recompensas = new ExecutorRecompensas(plugin);
+        this.feedbackErro = new FeedbackErro(plugin, agendador);
     }
     
     /**
@@ -60,354 +99,503 @@ public class QuizManager {
     public void iniciarCiclo() {
         cancelarTarefas();
         
-        ChatQuizConfig config = plugin.getConfiguracao();
-        if (config.getPerguntas().isEmpty()) {
+        if (plugin.getBancoPerguntas().isVazio()) {
             plugin.getLogger().atWarning().log("Nenhuma pergunta configurada!");
             return;
         }
         
-        agendarProximoQuiz(config.getIntervaloInicioQuizSegundos());
-        plugin.getLogger().atInfo().log("Ciclo iniciado. Proximo quiz em " + config.getIntervaloInicioQuizSegundos() + " segundos.");
+        int intervalo = plugin.getSnapshot().getIntervaloInicioQuizSegundos(mundo);
+        agendarProximoQuiz(intervalo);
+        agendarPreparacao();
+        plugin.getLogger().atInfo().log(prefixoLog() + "Ciclo iniciado. Proximo quiz em " + intervalo + " segundos.");
     }
     
-    private void agendarProximoQuiz(int segundos) {
-        cancelarTarefas();
-        proximoQuizTask = scheduler.schedule(this::iniciarQuiz, segundos, TimeUnit.SECONDS);
+    private synchronized void agendarProximoQuiz(int segundos) {
+        if (proximoQuizTask != null) {
+            proximoQuizTask.cancelar();
+            proximoQuizTask = null;
+        }
+        if (desligado) {
+            return;
+        }
+        try {
+            proximoQuizTask = agendador.agendar(segundos, TimeUnit.SECONDS, this::iniciarQuizAgendado);
+        } catch (RejectedExecutionException e) {
+            proximoQuizTask = null; // Manager desligado
+        }
+    }
+    
+    /**
+     * Inicio automatico: nunca substitui uma rodada em andamento (ex: iniciada por comando)
+     */
+    private void iniciarQuizAgendado() {
+        if (rodadaAtual.get() != null) {
+            return;
+        }
+        try {
+            iniciarQuiz();
+        } catch (RuntimeException e) {
+            // Sem rodada publicada nada mais reagenda o ciclo: tenta de novo no proximo intervalo
+            plugin.getLogger().atWarning().log(prefixoLog() + "Erro ao iniciar quiz: " + e);
+            if (rodadaAtual.get() == null) {
+                agendarProximoQuiz(plugin.getSnapshot().getIntervaloInicioQuizSegundos(mundo));
+            }
+        }
+    }
+    
+    /**
+     * Aplica uma configuracao recarregada: a rodada em andamento termina com o snapshot antigo,
+     * o proximo agendamento ja usa o intervalo novo.
+     */
+    public void aoRecarregarConfiguracao() {
+        // Tabelas de sorteio montadas aqui, na thread do reload, e nao no inicio da proxima rodada
+        seletorPara(plugin.getSnapshot());
+        agendarAposRecarga();
+        agendarPreparacao();
+    }
+    
+    private synchronized void agendarAposRecarga() {
+        if (rodadaAtual.get() != null) {
+            return;
+        }
+        if (plugin.getBancoPerguntas().isVazio()) {
+            plugin.getLogger().atWarning().log("Nenhuma pergunta configurada!");
+        }
+        agendarProximoQuiz(plugin.getSnapshot().getIntervaloInicioQuizSegundos(mundo));
     }
     
     /**
      * Inicia um novo quiz
      */
     public void iniciarQuiz() {
-        ChatQuizConfig config = plugin.getConfiguracao();
-        List<ChatQuizConfig.PerguntaConfig> perguntas = config.getPerguntas();
+        if (desligado) {
+            return;
+        }
+        
+        // Snapshot lido uma vez: a rodada inteira usa a mesma configuracao, mesmo com reload no meio
+        ConfiguracaoSnapshot snapshot = plugin.getSnapshot();
+        ChatQuizConfig config = snapshot.getConfig();
+        BancoPerguntas banco = snapshot.getBanco();
         
-        if (perguntas.isEmpty()) {
+        if (banco.isVazio()) {
             plugin.getLogger().atWarning().log("Sem perguntas disponiveis.");
-            agendarProximoQuiz(config.getIntervaloInicioQuizSegundos());
+            agendarProximoQuiz(snapshot.getIntervaloInicioQuizSegundos(mundo));
+            return;
+        }
+        
+        // Normalmente ja preparada no intervalo; se o snapshot mudou (reload), prepara agora
+        RodadaPreparada preparada = proximaRodada.getAndSet(null);
+        if (preparada == null || preparada.snapshot() != snapshot) {
+            preparada = prepararRodada(snapshot);
+        }
+        if (preparada == null) {
+            plugin.getLogger().atWarning().log(prefixoLog() + "Nenhuma pergunta valida para sortear, tentando novamente no proximo ciclo.");
+            agendarProximoQuiz(snapshot.getIntervaloInicioQuizSegundos(mundo));
             return;
         }
+        ChatQuizConfig.PerguntaConfig pergunta = preparada.pergunta();
+        String textoExibido = preparada.desafio().textoExibido();
         
-        perguntaAtual = perguntas.get(random.nextInt(perguntas.size()));
-        quizAtivo = true;
-        palavraEmbaralhada = null;
+        // Rodada montada por completo antes de ser publicada para o chat
+        RodadaQuiz rodada = new RodadaQuiz(
+            proximoIdRodada.incrementAndGet(),
+            snapshot,
+            pergunta,
+            preparada.motor(),
+            preparada.desafio(),
+            preparada.comandos(),
+            System.nanoTime(),
+            new LongAdder()
+        );
         
-        // Se for SCRAMBLE, embaralha a primeira resposta
-        String textoExibido = perguntaAtual.getPergunta();
-        if (perguntaAtual.getTipo() == QuizType.SCRAMBLE && !perguntaAtual.getRespostas().isEmpty()) {
-            palavraEmbaralhada = ChatQuizConfig.embaralharPalavra(perguntaAtual.getRespostas().get(0));
-            textoExibido = palavraEmbaralhada;
+        // Publica a rodada e agenda o timeout juntos; o timeout so encerra a rodada para a qual foi agendado
+        synchronized (this) {
+            if (desligado) {
+                return; // Desligado durante a preparacao: a rodada nunca e publicada
+            }
+            // Inicio agendado e /chatquiz podem preparar ao mesmo tempo: so o primeiro publica
+            if (!rodadaAtual.compareAndSet(null, rodada)) {
+                plugin.getLogger().atWarning().log(prefixoLog() + "Quiz nao iniciado: outra rodada ja esta em andamento.");
+                return;
+            }
+            if (timeoutTask != null) {
+                timeoutTask.cancelar();
+            }
+            idRodadaTimeout = rodada.id();
+            try {
+                timeoutTask = agendador.agendar(snapshot.getDuracaoQuizSegundos(mundo), TimeUnit.SECONDS, () -> finalizarQuizSemVencedor(rodada));
+            } catch (RejectedExecutionException e) {
+                timeoutTask = null; // Manager desligado
+            }
         }
         
         // Envia mensagem de início com placeholders substituídos
-        enviarMensagemInicio(config, perguntaAtual, textoExibido);
+        enviarMensagemInicio(rodada);
         
         if (config.getBannerIniciarQuiz().isAtivo()) {
             mostrarBannerParaTodos(
-                config.getBannerIniciarQuiz().getTitulo(),
-                substituirPlaceholders(config.getBannerIniciarQuiz().getSubtitulo(), "", textoExibido, perguntaAtual.getTipo())
+                snapshot.getBannerInicioTitulo(),
+                snapshot.getBannerInicioSubtitulo(),
+                valoresPlaceholders("", textoExibido, rodada.tipo())
             );
         }
         
-        plugin.getLogger().atInfo().log("Quiz iniciado! Tipo: " + perguntaAtual.getTipo() + " | " + perguntaAtual.getPergunta());
+        plugin.getLogger().atInfo().log(prefixoLog() + "Quiz iniciado! Tipo: " + rodada.tipo() + " | " + pergunta.getPergunta());
         
-        timeoutTask = scheduler.schedule(this::finalizarQuizSemVencedor, config.getDuracaoQuizSegundos(), TimeUnit.SECONDS);
+        // Sorteia e monta a proxima rodada fora do caminho de inicio
+        agendarPreparacao();
     }
     
     /**
-     * Envia mensagem de início do quiz com formatação apropriada para cada tipo
+     * Sorteia a pergunta e monta o que a rodada precisa
+     * @return Rodada preparada, ou null se nao houver pergunta valida
      */
-    private void enviarMensagemInicio(ChatQuizConfig config, ChatQuizConfig.PerguntaConfig pergunta, String textoExibido) {
-        QuizType tipo = pergunta.getTipo();
+    @Nullable
+    private RodadaPreparada prepararRodada(@Nonnull ConfiguracaoSnapshot snapshot) {
+        BancoPerguntas banco = snapshot.getBanco();
+        if (banco.isVazio()) {
+            return null;
+        }
         
-        for (String linha : config.getMensagemAntesQuizGlobal()) {
-            String mensagem = linha;
-            
-            // Substitui placeholders
-            mensagem = mensagem.replace(PLACEHOLDER_PERGUNTA, textoExibido);
-            mensagem = mensagem.replace(PLACEHOLDER_SCRAMBLE, palavraEmbaralhada != null ? palavraEmbaralhada : "");
-            mensagem = mensagem.replace(PLACEHOLDER_TIPO, tipo.name());
-            
-            // Ajusta mensagens conforme o tipo
-            if (tipo == QuizType.TYPE && mensagem.contains("Pergunta:")) {
-                mensagem = mensagem.replace("Pergunta:", "Digite:");
-            } else if (tipo == QuizType.SCRAMBLE && mensagem.contains("Pergunta:")) {
-                mensagem = mensagem.replace("Pergunta:", "Desembaralhe:");
-            }
-            
-            // Adiciona dica sobre o tipo no final da mensagem
-            if (mensagem.contains("Digite sua resposta") && tipo != QuizType.QUIZ) {
-                if (tipo == QuizType.TYPE) {
-                    mensagem = mensagem + " &7(rapido!)";
-                } else if (tipo == QuizType.SCRAMBLE) {
-                    mensagem = mensagem + " &7(desembaralhe!)";
-                }
-            }
-            
-            Universe.get().sendMessage(criarMensagem(mensagem));
+        // Sorteio sem repeticao/ponderado; somente a pergunta sorteada e carregada do banco.
+        // O seletor nao e thread-safe e a preparacao pode rodar em dois trabalhadores ao mesmo tempo
+        ChatQuizConfig.PerguntaConfig pergunta;
+        synchronized (lockPreparacao) {
+            int indicePergunta = seletorPara(snapshot).sortear(random);
+            pergunta = indicePergunta >= 0 ? banco.getPergunta(indicePergunta) : null;
         }
-    }
-    
-    /**
-     * Processa resposta do chat
-     */
-    public void processarResposta(@Nonnull PlayerChatEvent event) {
-        if (!quizAtivo || perguntaAtual == null) {
-            return;
+        if (pergunta == null) {
+            return null;
         }
         
-        com.hypixel.hytale.server.core.universe.PlayerRef sender = event.getSender();
-        String mensagem = event.getContent();
-        
-        if (sender == null || mensagem == null) {
-            return;
+        // O motor da pergunta monta o texto mostrado e compila o validador das respostas.
+        // Motores de terceiros (e o MotorConta com uma expressao invalida) podem lancar: a rodada e descartada
+        MotorQuiz motor = RegistroMotores.get().motorDa(pergunta);
+        Desafio desafio;
+        try {
+            desafio = motor != null ? motor.preparar(pergunta, snapshot.getConfig(), novoGeradorRodada()) : null;
+        } catch (RuntimeException e) {
+            plugin.getLogger().atWarning().log(prefixoLog() + "Erro do motor " + motor.getNome() + ": " + e.getMessage());
+            desafio = null;
         }
-        
-        String nomeJogador = sender.getUsername();
-        QuizType tipo = perguntaAtual.getTipo();
-        
-        boolean acertou = false;
-        
-        switch (tipo) {
-            case TYPE:
-                // TYPE: comparação exata, sem normalização (apenas trim)
-                acertou = validarTipo(mensagem, perguntaAtual.getRespostas());
-                break;
-            case SCRAMBLE:
-                // SCRAMBLE: validação normalizada
-                acertou = validarScramble(mensagem, perguntaAtual.getRespostas());
-                break;
-            case QUIZ:
-            default:
-                // QUIZ: validação normalizada (case insensitive, sem acentos)
-                acertou = validarQuiz(mensagem, perguntaAtual.getRespostas());
-                break;
+        if (desafio == null) {
+            plugin.getLogger().atWarning().log(prefixoLog() + "Nao foi possivel montar a rodada: " + pergunta.getPergunta());
+            return null;
         }
         
-        if (acertou) {
-            processarVitoria(sender, nomeJogador);
-        } else {
-            // Resposta errada - mensagem conforme o tipo
-            enviarMensagemErro(sender, tipo);
+        return new RodadaPreparada(
+            snapshot,
+            pergunta,
+            motor,
+            desafio,
+            comandosRecompensa(snapshot, pergunta)
+        );
+    }
+    
+    private void agendarPreparacao() {
+        if (desligado) {
+            return;
+        }
+        try {
+            agendador.executar(() -> proximaRodada.set(prepararRodada(plugin.getSnapshot())));
+        } catch (RejectedExecutionException e) {
+            // Manager desligado ou fila cheia: o inicio da rodada prepara na hora
         }
     }
     
     /**
-     * Valida resposta para tipo TYPE (digitação exata, case insensitive mas preserva espaços/pontuação)
+     * Gerador independente para cada rodada (SplittableRandom nao e thread-safe, split sim sob o lock)
      */
-    private boolean validarTipo(String mensagem, List<String> respostas) {
-        String respostaDigitada = mensagem.trim();
-        for (String respostaCorreta : respostas) {
-            if (respostaDigitada.equalsIgnoreCase(respostaCorreta.trim())) {
-                return true;
-            }
-        }
-        return false;
+    private synchronized SplittableRandom novoGeradorRodada() {
+        return geradorRodadas.split();
     }
     
     /**
-     * Valida resposta para tipo SCRAMBLE (normalizado)
+     * Seletor do snapshot informado, montado na primeira vez que o snapshot e usado
      */
-    private boolean validarScramble(String mensagem, List<String> respostas) {
-        String respostaNormalizada = normalizarTexto(mensagem);
-        for (String respostaCorreta : respostas) {
-            if (respostaNormalizada.equals(normalizarTexto(respostaCorreta))) {
-                return true;
-            }
+    @Nonnull
+    private SeletorPerguntas seletorPara(@Nonnull ConfiguracaoSnapshot snapshot) {
+        SeletorPerguntas atual = seletor;
+        if (atual == null || atual.getSnapshot() != snapshot) {
+            atual = SeletorPerguntas.criar(snapshot, mundo);
+            seletor = atual;
         }
-        return false;
+        return atual;
     }
     
     /**
-     * Valida resposta para tipo QUIZ (normalizado, suporta múltiplas variações)
+     * Envia mensagem de início do quiz com formatação apropriada para cada tipo
      */
-    private boolean validarQuiz(String mensagem, List<String> respostas) {
-        String respostaNormalizada = normalizarTexto(mensagem);
-        for (String respostaCorreta : respostas) {
-            if (respostaNormalizada.equals(normalizarTexto(respostaCorreta))) {
-                return true;
-            }
-        }
-        return false;
+    private void enviarMensagemInicio(RodadaQuiz rodada) {
+        Desafio desafio = rodada.desafio();
+        String palavraEmbaralhada = desafio.palavraEmbaralhada();
+        
+        // Linhas ja ajustadas pelo motor e compiladas no snapshot; aqui so preenche os placeholders
+        Map<String, String> valores = Map.of(
+            PLACEHOLDER_PERGUNTA, desafio.textoExibido(),
+            PLACEHOLDER_SCRAMBLE, palavraEmbaralhada != null ? palavraEmbaralhada : "",
+            PLACEHOLDER_TIPO, rodada.tipo().name()
+        );
+        
+        // Todas as linhas em uma unica mensagem, enviada em lotes
+        enviarTemplates(rodada.snapshot().getMensagemInicio(rodada.motor()), valores);
     }
     
     /**
-     * Envia mensagem de erro conforme o tipo do quiz
+     * Processa resposta do chat
      */
-    private void enviarMensagemErro(com.hypixel.hytale.server.core.universe.PlayerRef player, QuizType tipo) {
-        scheduler.schedule(() -> {
-            String mensagem;
-            switch (tipo) {
-                case TYPE:
-                    mensagem = "&cErrado! &fDigite exatamente como mostrado.";
-                    break;
-                case SCRAMBLE:
-                    mensagem = "&cErrado! &fTente reorganizar as letras.";
-                    break;
-                case QUIZ:
-                default:
-                    mensagem = "&cResposta errada! &fTente novamente.";
-                    break;
+    public void processarResposta(@Nonnull PlayerChatEvent event) {
+        RodadaQuiz rodada = rodadaAtual.get();
+        if (rodada == null) {
+            return;
+        }
+        
+        com.hypixel.hytale.server.core.universe.PlayerRef sender = event.getSender();
+        String mensagem = event.getContent();
+        
+        if (sender == null || mensagem == null) {
+            return;
+        }
+        
+        long inicio = System.nanoTime();
+        rodada.palpites().increment();
+        String nomeJogador = sender.getUsername();
+        QuizType tipo = rodada.tipo();
+        
+        // Validador final do tipo, compilado na preparacao da rodada
+        boolean acertou = rodada.desafio().validador().corresponde(mensagem);
+        
+        UUID uuid = sender.getUuid();
+        if (acertou) {
+            // Somente quem vencer o CAS e o vencedor; acertos simultaneos e o timeout perdem
+            if (rodadaAtual.compareAndSet(rodada, null)) {
+                long tempoAcerto = inicio - rodada.inicioNanos();
+                metricas.registrarRodada(rodada.pergunta().getPergunta(), rodada.palpites().sum(), tempoAcerto);
+                if (uuid != null) {
+                    plugin.getEstatisticas().registrarVitoria(uuid, nomeJogador, tipo, tempoAcerto / 1_000_000, mundo);
+                }
+                processarVitoria(rodada, sender, nomeJogador);
+            } else if (uuid != null) {
+                plugin.getEstatisticas().registrarTentativa(uuid, nomeJogador, tipo);
+            }
+        } else {
+            // Resposta errada - feedback limitado por jogador, sem agendar tarefa por erro
+            if (uuid != null) {
+                plugin.getEstatisticas().registrarTentativa(uuid, nomeJogador, tipo);
             }
-            player.sendMessage(criarMensagem(mensagem));
-        }, 100, TimeUnit.MILLISECONDS);
+            feedbackErro.registrar(sender, rodada.motor());
+        }
+        metricas.registrarResposta(System.nanoTime() - inicio);
     }
     
-    private void processarVitoria(@Nonnull com.hypixel.hytale.server.core.universe.PlayerRef vencedor, @Nonnull String nomeJogador) {
-        quizAtivo = false;
-        cancelarTarefas();
+    private void processarVitoria(@Nonnull RodadaQuiz rodada, @Nonnull com.hypixel.hytale.server.core.universe.PlayerRef vencedor, @Nonnull String nomeJogador) {
+        cancelarTimeout(rodada);
+        feedbackErro.limpar();
         
-        ChatQuizConfig config = plugin.getConfiguracao();
+        // Mensagens e comandos da configuracao com que a rodada comecou
+        ConfiguracaoSnapshot snapshot = rodada.snapshot();
+        ChatQuizConfig config = snapshot.getConfig();
         
         // Envia mensagem global para todos (incluindo o ganhador) com delay
-        scheduler.schedule(() -> {
-            enviarMensagemGlobalComPlayer(config.getMensagemGlobalAoAcertar(), nomeJogador, "");
-        }, 200, TimeUnit.MILLISECONDS);
+        Map<String, String> valoresAcerto = valoresVencedor(vencedor, nomeJogador, QuizType.QUIZ);
+        try {
+            agendador.agendar(200, TimeUnit.MILLISECONDS, () -> enviarTemplates(snapshot.getMensagemAcerto(), valoresAcerto));
+        } catch (RejectedExecutionException e) {
+            // Manager desligado
+        }
         
         if (config.getBannerGanhadorQuiz().isAtivo()) {
             mostrarBannerParaTodos(
-                config.getBannerGanhadorQuiz().getTitulo(),
-                substituirPlaceholders(config.getBannerGanhadorQuiz().getSubtitulo(), nomeJogador, "", perguntaAtual.getTipo())
+                snapshot.getBannerGanhadorTitulo(),
+                snapshot.getBannerGanhadorSubtitulo(),
+                valoresVencedor(vencedor, nomeJogador, rodada.tipo())
             );
         }
         
-        executarComandos(config.getComandosGlobaisAoAcertar(), nomeJogador);
+        // Comandos ja compilados; a execucao fica na fila de recompensas, fora do chat
+        recompensas.enfileirar(rodada.id(), nomeJogador, rodada.comandos(), valoresVencedor(vencedor, nomeJogador, rodada.tipo()));
         
-        if (perguntaAtual != null) {
-            executarComandos(perguntaAtual.getComandosAoAcertar(), nomeJogador);
-        }
+        plugin.getLogger().atInfo().log(prefixoLog() + "Quiz finalizado! Vencedor: " + nomeJogador);
         
-        plugin.getLogger().atInfo().log("Quiz finalizado! Vencedor: " + nomeJogador);
-        
-        perguntaAtual = null;
-        palavraEmbaralhada = null;
-        agendarProximoQuiz(config.getIntervaloInicioQuizSegundos());
+        agendarProximoQuiz(plugin.getSnapshot().getIntervaloInicioQuizSegundos(mundo));
     }
     
-    private void finalizarQuizSemVencedor() {
-        if (!quizAtivo) {
+    private void finalizarQuizSemVencedor(@Nonnull RodadaQuiz rodada) {
+        // Perdeu para uma vitoria, cancelamento ou nova rodada
+        if (!rodadaAtual.compareAndSet(rodada, null)) {
             return;
         }
         
-        quizAtivo = false;
-        
-        // Mostra a resposta correta dependendo do tipo
-        String mensagemTimeout = "&6&lQUIZ &cNinguem acertou a pergunta!";
-        if (perguntaAtual != null) {
-            QuizType tipo = perguntaAtual.getTipo();
-            if (tipo == QuizType.SCRAMBLE && !perguntaAtual.getRespostas().isEmpty()) {
-                mensagemTimeout = "&6&lQUIZ &cNinguem acertou! &fA palavra era: &e" + perguntaAtual.getRespostas().get(0);
-            } else if (tipo == QuizType.TYPE && !perguntaAtual.getRespostas().isEmpty()) {
-                mensagemTimeout = "&6&lQUIZ &cNinguem digitou a frase corretamente!";
-            }
-        }
+        feedbackErro.limpar();
+        plugin.getEstatisticas().registrarRodadaSemVencedor(mundo);
+        metricas.registrarRodada(rodada.pergunta().getPergunta(), rodada.palpites().sum(), -1);
         
-        Universe.get().sendMessage(criarMensagem(mensagemTimeout));
+        // Mensagem do motor; {resposta} recebe a resposta que o motor decidiu mostrar
+        String respostaExibida = rodada.desafio().respostaExibida();
+        Map<String, String> valores = Map.of(PLACEHOLDER_RESPOSTA, respostaExibida != null ? respostaExibida : "");
+        transmissor.enviarLinhas(List.of(criarMensagem(rodada.motor().getMensagemTimeout(), valores)));
         
-        plugin.getLogger().atInfo().log("Quiz finalizado sem vencedor.");
+        plugin.getLogger().atInfo().log(prefixoLog() + "Quiz finalizado sem vencedor.");
         
-        perguntaAtual = null;
-        palavraEmbaralhada = null;
-        agendarProximoQuiz(plugin.getConfiguracao().getIntervaloInicioQuizSegundos());
+        agendarProximoQuiz(plugin.getSnapshot().getIntervaloInicioQuizSegundos(mundo));
     }
     
-    public void cancelarQuizAtual() {
-        quizAtivo = false;
-        perguntaAtual = null;
-        palavraEmbaralhada = null;
+    /**
+     * Encerra o quiz, cancela os temporizadores e libera as threads do manager (desligamento do plugin)
+     */
+    public void desligar() {
+        synchronized (this) {
+            desligado = true;
+        }
+        cancelarQuizAtual();
+        feedbackErro.parar();
+        transmissor.desligar();
+        recompensas.desligar();
+    }
+    
+    public synchronized void cancelarQuizAtual() {
+        rodadaAtual.set(null);
+        feedbackErro.limpar();
         cancelarTarefas();
     }
     
-    private void cancelarTarefas() {
+    /**
+     * Cancela o timeout somente se ainda pertencer a rodada informada
+     */
+    private synchronized void cancelarTimeout(@Nonnull RodadaQuiz rodada) {
+        if (timeoutTask != null && idRodadaTimeout == rodada.id()) {
+            timeoutTask.cancelar();
+            timeoutTask = null;
+        }
+    }
+    
+    private synchronized void cancelarTarefas() {
         if (timeoutTask != null) {
-            timeoutTask.cancel(false);
+            timeoutTask.cancelar();
             timeoutTask = null;
         }
         if (proximoQuizTask != null) {
-            proximoQuizTask.cancel(false);
+            proximoQuizTask.cancelar();
             proximoQuizTask = null;
         }
     }
     
-    private void enviarMensagemGlobal(@Nonnull List<String> mensagens, @Nonnull String pergunta) {
-        enviarMensagemGlobalComPlayer(mensagens, "", pergunta);
-    }
-    
-    private void enviarMensagemGlobalComPlayer(@Nonnull List<String> mensagens, @Nonnull String player, @Nonnull String pergunta) {
-        enviarMensagemGlobalComPlayer(mensagens, player, pergunta, QuizType.QUIZ);
-    }
-    
-    private void enviarMensagemGlobalComPlayer(@Nonnull List<String> mensagens, @Nonnull String player, @Nonnull String pergunta, QuizType tipo) {
+    private void enviarTemplates(@Nonnull List<TinyMsg.Template> templates, @Nonnull Map<String, String> valores) {
         try {
-            for (String linha : mensagens) {
-                String mensagem = substituirPlaceholders(linha, player, pergunta, tipo);
-                Universe.get().sendMessage(criarMensagem(mensagem));
+            long inicio = System.nanoTime();
+            List<Message> linhas = new ArrayList<>(templates.size());
+            for (TinyMsg.Template template : templates) {
+                linhas.add(template.render(valores));
             }
+            metricas.registrarMensagem(System.nanoTime() - inicio);
+            transmissor.enviarLinhas(linhas);
         } catch (Exception e) {
             plugin.getLogger().atWarning().log("Erro ao enviar mensagem: " + e.getMessage());
         }
     }
     
-    private void mostrarBannerParaTodos(@Nonnull String titulo, @Nonnull String subtitulo) {
+    private void mostrarBannerParaTodos(@Nonnull TinyMsg.Template titulo, @Nonnull TinyMsg.Template subtitulo, @Nonnull Map<String, String> valores) {
         try {
-            Message titleMsg = criarMensagem(titulo);
-            Message subtitleMsg = criarMensagem(subtitulo);
+            long inicio = System.nanoTime();
+            Message titleMsg = titulo.render(valores);
+            Message subtitleMsg = subtitulo.render(valores);
+            metricas.registrarMensagem(System.nanoTime() - inicio);
             
-            for (com.hypixel.hytale.server.core.universe.PlayerRef ref : Universe.get().getPlayers()) {
-                EventTitleUtil.showEventTitleToPlayer(ref, titleMsg, subtitleMsg, true);
-            }
+            transmissor.mostrarBanner(titleMsg, subtitleMsg);
         } catch (Exception e) {
             plugin.getLogger().atWarning().log("Erro ao mostrar banner: " + e.getMessage());
         }
     }
     
-    private void executarComandos(@Nonnull List<String> comandos, @Nonnull String nomeJogador) {
-        for (String comando : comandos) {
-            String comandoFinal = substituirPlaceholders(comando, nomeJogador, "", QuizType.QUIZ);
-            
-            try {
-                com.hypixel.hytale.server.core.command.system.CommandManager.get()
-                    .handleCommand(com.hypixel.hytale.server.core.console.ConsoleSender.INSTANCE, comandoFinal);
-            } catch (Exception e) {
-                plugin.getLogger().atWarning().log("Erro ao executar comando: " + comandoFinal);
-            }
+    /**
+     * Comandos globais do snapshot seguidos dos comandos da pergunta
+     */
+    @Nonnull
+    private static List<TemplateTexto> comandosRecompensa(@Nonnull ConfiguracaoSnapshot snapshot, @Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        List<TemplateTexto> daPergunta = ConfiguracaoSnapshot.compilarComandos(pergunta.getComandosAoAcertar());
+        if (daPergunta.isEmpty()) {
+            return snapshot.getComandosAcerto();
         }
+        List<TemplateTexto> comandos = new ArrayList<>(snapshot.getComandosAcerto().size() + daPergunta.size());
+        comandos.addAll(snapshot.getComandosAcerto());
+        comandos.addAll(daPergunta);
+        return List.copyOf(comandos);
     }
     
     @Nonnull
-    private String substituirPlaceholders(@Nonnull String texto, @Nonnull String player, @Nonnull String pergunta, QuizType tipo) {
-        return texto.replace(PLACEHOLDER_PLAYER, player)
-                    .replace(PLACEHOLDER_PERGUNTA, pergunta)
-                    .replace(PLACEHOLDER_TIPO, tipo.name());
+    private Map<String, String> valoresPlaceholders(@Nonnull String player, @Nonnull String pergunta, QuizType tipo) {
+        return Map.of(
+            PLACEHOLDER_PLAYER, player,
+            PLACEHOLDER_PERGUNTA, pergunta,
+            PLACEHOLDER_TIPO, tipo.name()
+        );
     }
     
+    /**
+     * Placeholders das mensagens de vitoria, com a posicao do vencedor no ranking geral
+     */
     @Nonnull
-    private String normalizarTexto(@Nonnull String texto) {
-        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD);
-        normalizado = normalizado.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "");
-        return normalizado.toLowerCase().trim();
+    private Map<String, String> valoresVencedor(@Nonnull com.hypixel.hytale.server.core.universe.PlayerRef vencedor, @Nonnull String player, QuizType tipo) {
+        UUID uuid = vencedor.getUuid();
+        EstatisticasJogador estatisticas = uuid != null ? plugin.getEstatisticas().getJogador(uuid) : null;
+        int posicao = uuid != null ? plugin.getEstatisticas().getPosicao(JanelaRanking.GERAL, uuid) : -1;
+        return Map.of(
+            PLACEHOLDER_PLAYER, player,
+            PLACEHOLDER_PERGUNTA, "",
+            PLACEHOLDER_TIPO, tipo.name(),
+            PLACEHOLDER_POSICAO, posicao > 0 ? String.valueOf(posicao) : "-",
+            PLACEHOLDER_VITORIAS, String.valueOf(estatisticas != null ? estatisticas.getVitorias() : 0)
+        );
     }
     
+    /**
+     * Renderiza um template de mensagem (compilado uma vez e mantido em cache)
+     */
     @Nonnull
-    private Message criarMensagem(@Nonnull String texto) {
+    private Message criarMensagem(@Nonnull String template, @Nonnull Map<String, String> valores) {
         try {
-            return TinyMsg.parse(texto);
+            long inicio = System.nanoTime();
+            Message mensagem = TinyMsg.compile(template).render(valores);
+            metricas.registrarMensagem(System.nanoTime() - inicio);
+            return mensagem;
         } catch (Exception e) {
-            return Message.raw(texto);
+            return Message.raw(template);
         }
     }
     
+    private String prefixoLog() {
+        return mundo != null ? "[" + mundo + "] " : "";
+    }
+    
+    /**
+     * Pre-filtro rapido: retorna false quando a mensagem certamente nao e a resposta
+     */
+    public boolean isRespostaPossivel(@Nonnull String mensagem) {
+        RodadaQuiz rodada = rodadaAtual.get();
+        return rodada != null && rodada.desafio().validador().podeSerResposta(mensagem);
+    }
+    
     public boolean isQuizAtivo() {
-        return quizAtivo;
+        return rodadaAtual.get() != null;
+    }
+    
+    /**
+     * Mundo deste manager (minusculas), ou null se a rodada vale para o universo inteiro
+     */
+    @Nullable
+    public String getMundo() {
+        return mundo;
     }
     
     @Nullable
     public ChatQuizConfig.PerguntaConfig getPerguntaAtual() {
-        return perguntaAtual;
+        RodadaQuiz rodada = rodadaAtual.get();
+        return rodada != null ? rodada.pergunta() : null;
     }
     
     @Nullable
     public String getPalavraEmbaralhada() {
-        return palavraEmbaralhada;
+        RodadaQuiz rodada = rodadaAtual.get();
+        return rodada != null ? rodada.desafio().palavraEmbaralhada() : null;
     }
 }
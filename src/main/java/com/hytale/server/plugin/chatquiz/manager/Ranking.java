@@ -0,0 +1,107 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.util.ArvoreRanking;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ranking de vitorias de uma janela, atualizado a cada vitoria.
+ * 
+ * A arvore guarda a ordem; o mapa guarda a chave atual de cada jogador para
+ * remover a antiga quando as vitorias mudam. Empate: quem chegou primeiro na
+ * pontuacao fica na frente. Quando o periodo da janela vira, o ranking recomeca.
+ */
+final class Ranking {
+    
+    private final ArvoreRanking<UUID> arvore = new ArvoreRanking<>();
+    private final Map<UUID, Entrada> entradas = new HashMap<>();
+    private long periodo;
+    private long proximaOrdem = 0;
+    
+    /**
+     * Atualiza as vitorias do jogador no periodo informado
+     */
+    synchronized void atualizar(@Nonnull UUID uuid, @Nonnull String nome, int vitorias, long periodo) {
+        if (!avancar(periodo)) {
+            return;
+        }
+        Entrada anterior = entradas.get(uuid);
+        if (anterior != null) {
+            if (anterior.vitorias == vitorias) {
+                anterior.nome = nome;
+                return;
+            }
+            arvore.remover(anterior.vitorias, anterior.ordem);
+        }
+        if (vitorias <= 0) {
+            entradas.remove(uuid);
+            return;
+        }
+        long ordem = proximaOrdem++;
+        arvore.inserir(vitorias, ordem, uuid);
+        entradas.put(uuid, new Entrada(nome, vitorias, ordem));
+    }
+    
+    /**
+     * @return Posicao a partir de 1, ou -1 se o jogador nao venceu no periodo
+     */
+    synchronized int posicao(@Nonnull UUID uuid, long periodo) {
+        if (!avancar(periodo)) {
+            return -1;
+        }
+        Entrada entrada = entradas.get(uuid);
+        return entrada != null ? arvore.posicao(entrada.vitorias, entrada.ordem) : -1;
+    }
+    
+    @Nonnull
+    synchronized List<PosicaoRanking> topo(int quantidade, long periodo) {
+        if (!avancar(periodo)) {
+            return List.of();
+        }
+        List<UUID> primeiros = arvore.primeiros(quantidade);
+        List<PosicaoRanking> resultado = new ArrayList<>(primeiros.size());
+        for (UUID uuid : primeiros) {
+            Entrada entrada = entradas.get(uuid);
+            resultado.add(new PosicaoRanking(resultado.size() + 1, entrada.nome, entrada.vitorias));
+        }
+        return resultado;
+    }
+    
+    synchronized int getTamanho() {
+        return entradas.size();
+    }
+    
+    /**
+     * Recomeca o ranking se o periodo virou
+     * @return false se o periodo informado ja passou (chamada atrasada)
+     */
+    private boolean avancar(long periodo) {
+        if (periodo < this.periodo) {
+            return false;
+        }
+        if (periodo > this.periodo) {
+            arvore.limpar();
+            entradas.clear();
+            this.periodo = periodo;
+        }
+        return true;
+    }
+    
+    private static final class Entrada {
+        
+        String nome;
+        final int vitorias;
+        final long ordem;
+        
+        Entrada(String nome, int vitorias, long ordem) {
+            this.nome = nome;
+            this.vitorias = vitorias;
+            this.ordem = ordem;
+        }
+    }
+}
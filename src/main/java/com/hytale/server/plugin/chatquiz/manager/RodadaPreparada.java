@@ -0,0 +1,23 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.ConfiguracaoSnapshot;
+import com.hytale.server.plugin.chatquiz.motor.Desafio;
+import com.hytale.server.plugin.chatquiz.motor.MotorQuiz;
+import com.hytale.server.plugin.chatquiz.util.TemplateTexto;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Proxima rodada ja sorteada e montada (pergunta lida do banco, desafio preparado pelo motor,
+ * comandos de recompensa compilados), preparada em segundo plano durante o intervalo entre quizzes.
+ * So e usada se o snapshot de configuracao ainda for o mesmo no inicio da rodada.
+ */
+record RodadaPreparada(
+        @Nonnull ConfiguracaoSnapshot snapshot,
+        @Nonnull ChatQuizConfig.PerguntaConfig pergunta,
+        @Nonnull MotorQuiz motor,
+        @Nonnull Desafio desafio,
+        @Nonnull List<TemplateTexto> comandos) {
+}
@@ -0,0 +1,40 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.ConfiguracaoSnapshot;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+import com.hytale.server.plugin.chatquiz.motor.Desafio;
+import com.hytale.server.plugin.chatquiz.motor.MotorQuiz;
+import com.hytale.server.plugin.chatquiz.util.TemplateTexto;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estado imutavel de uma rodada de quiz.
+ * A rodada ativa e trocada via AtomicReference no QuizManager:
+ * quem conseguir o compareAndSet para null (vitoria ou timeout) encerra a rodada,
+ * garantindo que cada rodada tenha no maximo um vencedor.
+ * O snapshot de configuracao fica preso a rodada, entao um reload no meio
+ * nao altera mensagens nem comandos da rodada em andamento.
+ * O desafio (texto mostrado e validador compilado) vem do motor da pergunta.
+ * Unica parte mutavel: o contador de palpites, usado nas metricas.
+ */
+record RodadaQuiz(
+        long id,
+        @Nonnull ConfiguracaoSnapshot snapshot,
+        @Nonnull ChatQuizConfig.PerguntaConfig pergunta,
+        @Nonnull MotorQuiz motor,
+        @Nonnull Desafio desafio,
+        @Nonnull List<TemplateTexto> comandos,
+        long inicioNanos,
+        @Nonnull LongAdder palpites) {
+    
+    /**
+     * Categoria da pergunta (estatisticas e proporcaoTipos)
+     */
+    QuizType tipo() {
+        return pergunta.getTipo() != null ? pergunta.getTipo() : QuizType.QUIZ;
+    }
+}
@@ -0,0 +1,218 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.ConfiguracaoSnapshot;
+import com.hytale.server.plugin.chatquiz.config.ModoSelecao;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+import com.hytale.server.plugin.chatquiz.util.TabelaAlias;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteio das perguntas de um snapshot de configuracao.
+ * Cada mundo com rodada propria tem o seu seletor, so com as perguntas daquele mundo.
+ * 
+ * As perguntas validas sao separadas em grupos (um por tipo quando ha proporcaoTipos,
+ * senao um grupo unico). Cada sorteio escolhe o grupo pela tabela alias das proporcoes
+ * e depois a pergunta dentro do grupo, conforme o modo:
+ * - SACOLA: Fisher-Yates incremental sobre um int[]; a pergunta sorteada vai para o fim
+ *   da parte ainda nao sorteada, entao nenhuma repete ate o grupo inteiro sair
+ * - PESO: tabela alias dos pesos das perguntas
+ * - ALEATORIO: indice uniforme
+ * 
+ * Perguntas sorteadas nas ultimas rodadas (intervaloRepeticaoPerguntas) sao rejeitadas
+ * e sorteadas de novo, com um limite de tentativas para o sorteio continuar O(1).
+ * 
+ * A montagem e O(n) e acontece fora do chat (no reload); cada sorteio e O(1).
+ */
+final class SeletorPerguntas {
+    
+    private static final int TENTATIVAS = 8;
+    
+    private final ConfiguracaoSnapshot snapshot;
+    private final Grupo[] grupos;
+    private final TabelaAlias aliasGrupos;
+    
+    // Janela de repeticao: ultimas perguntas sorteadas (anel) + marcacao para consulta O(1)
+    private final int[] recentes;
+    private final BitSet emEspera;
+    private int proximoRecente = 0;
+    private int totalRecentes = 0;
+    
+    private SeletorPerguntas(ConfiguracaoSnapshot snapshot, Grupo[] grupos, double[] proporcoes, int janela) {
+        this.snapshot = snapshot;
+        this.grupos = grupos;
+        this.aliasGrupos = grupos.length > 1 ? new TabelaAlias(proporcoes) : null;
+        this.recentes = new int[janela];
+        this.emEspera = new BitSet(snapshot.getBanco().getTamanho());
+    }
+    
+    /**
+     * Monta o seletor com as perguntas validas do snapshot
+     * @param mundo Mundo da rodada (minusculas), ou null para o universo inteiro
+     */
+    @Nonnull
+    static SeletorPerguntas criar(@Nonnull ConfiguracaoSnapshot snapshot, @Nullable String mundo) {
+        ChatQuizConfig config = snapshot.getConfig();
+        int total = snapshot.getBanco().getTamanho();
+        
+        // Indices das perguntas validas (e do mundo) por tipo
+        QuizType[] tipos = QuizType.values();
+        int[][] porTipo = new int[tipos.length][];
+        int[] contagem = new int[tipos.length];
+        for (int i = 0; i < total; i++) {
+            QuizType tipo = snapshot.getTipoPergunta(i);
+            if (tipo != null && snapshot.isPerguntaDoMundo(i, mundo)) {
+                contagem[tipo.ordinal()]++;
+            }
+        }
+        for (int t = 0; t < tipos.length; t++) {
+            porTipo[t] = new int[contagem[t]];
+            contagem[t] = 0;
+        }
+        for (int i = 0; i < total; i++) {
+            QuizType tipo = snapshot.getTipoPergunta(i);
+            if (tipo != null && snapshot.isPerguntaDoMundo(i, mundo)) {
+                porTipo[tipo.ordinal()][contagem[tipo.ordinal()]++] = i;
+            }
+        }
+        
+        // Um grupo por tipo com proporcao positiva; sem proporcoes (ou sem perguntas nelas), grupo unico
+        List<Grupo> grupos = new ArrayList<>();
+        List<Double> proporcoes = new ArrayList<>();
+        Map<QuizType, Double> proporcaoTipos = snapshot.getProporcaoTipos(mundo);
+        for (QuizType tipo : tipos) {
+            Double proporcao = proporcaoTipos.get(tipo);
+            if (proporcao != null && proporcao > 0 && porTipo[tipo.ordinal()].length > 0) {
+                grupos.add(new Grupo(snapshot, config.getModoSelecao(), porTipo[tipo.ordinal()]));
+                proporcoes.add(proporcao);
+            }
+        }
+        int validas = 0;
+        for (int[] indices : porTipo) {
+            validas += indices.length;
+        }
+        if (grupos.isEmpty() && validas > 0) {
+            int[] todas = new int[validas];
+            int pos = 0;
+            for (int[] indices : porTipo) {
+                System.arraycopy(indices, 0, todas, pos, indices.length);
+                pos += indices.length;
+            }
+            grupos.add(new Grupo(snapshot, config.getModoSelecao(), todas));
+            proporcoes.add(1.0);
+        }
+        
+        // Janela limitada a metade do banco, para sempre sobrar pergunta fora dela
+        int janela = Math.max(0, Math.min(config.getIntervaloRepeticaoPerguntas(), validas / 2));
+        double[] pesosGrupos = proporcoes.stream().mapToDouble(Double::doubleValue).toArray();
+        return new SeletorPerguntas(snapshot, grupos.toArray(new Grupo[0]), pesosGrupos, janela);
+    }
+    
+    /**
+     * Sorteia a proxima pergunta
+     * @return Indice da pergunta no banco, ou -1 se nao houver pergunta valida
+     */
+    synchronized int sortear(@Nonnull RandomGenerator random) {
+        if (grupos.length == 0) {
+            return -1;
+        }
+        Grupo grupo = aliasGrupos != null ? grupos[aliasGrupos.sortear(random)] : grupos[0];
+        
+        int posicao = grupo.escolher(random);
+        for (int tentativa = 1; tentativa < TENTATIVAS && emEspera.get(grupo.indice(posicao)); tentativa++) {
+            posicao = grupo.escolher(random);
+        }
+        
+        int indice = grupo.indice(posicao);
+        grupo.consumir(posicao);
+        registrarRecente(indice);
+        return indice;
+    }
+    
+    private void registrarRecente(int indice) {
+        if (recentes.length == 0 || emEspera.get(indice)) {
+            // Ja esta na janela (todas as tentativas cairam em perguntas recentes)
+            return;
+        }
+        if (totalRecentes == recentes.length) {
+            emEspera.clear(recentes[proximoRecente]);
+        } else {
+            totalRecentes++;
+        }
+        recentes[proximoRecente] = indice;
+        proximoRecente = (proximoRecente + 1) % recentes.length;
+        emEspera.set(indice);
+    }
+    
+    @Nonnull
+    ConfiguracaoSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Perguntas de um grupo e o estado do sorteio dentro dele
+     */
+    private static final class Grupo {
+        
+        private final ModoSelecao modo;
+        private final int[] indices;
+        private final TabelaAlias alias;
+        private int restantes; // SACOLA: indices[0, restantes) ainda nao sorteados nesta volta
+        
+        Grupo(ConfiguracaoSnapshot snapshot, ModoSelecao modo, int[] indices) {
+            this.modo = modo;
+            this.indices = indices;
+            this.restantes = indices.length;
+            
+            if (modo == ModoSelecao.PESO) {
+                double[] pesos = new double[indices.length];
+                for (int i = 0; i < indices.length; i++) {
+                    pesos[i] = snapshot.getPesoPergunta(indices[i]);
+                }
+                this.alias = new TabelaAlias(pesos);
+            } else {
+                this.alias = null;
+            }
+        }
+        
+        /**
+         * Escolhe uma posicao candidata (sem consumir)
+         */
+        int escolher(RandomGenerator random) {
+            switch (modo) {
+                case PESO:
+                    return alias.sortear(random);
+                case SACOLA:
+                    if (restantes == 0) {
+                        restantes = indices.length;
+                    }
+                    return random.nextInt(restantes);
+                default:
+                    return random.nextInt(indices.length);
+            }
+        }
+        
+        int indice(int posicao) {
+            return indices[posicao];
+        }
+        
+        /**
+         * Confirma a posicao escolhida; na SACOLA ela sai da parte ainda nao sorteada
+         */
+        void consumir(int posicao) {
+            if (modo == ModoSelecao.SACOLA) {
+                restantes--;
+                int sorteado = indices[posicao];
+                indices[posicao] = indices[restantes];
+                indices[restantes] = sorteado;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.hytale.server.plugin.chatquiz.manager;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.util.EventTitleUtil;
+import com.hytale.server.plugin.chatquiz.ChatQuizPlugin;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Pipeline de envio das mensagens globais do quiz.
+ * 
+ * Todas as linhas de um evento (inicio, vitoria, timeout) sao renderizadas uma vez
+ * e combinadas em uma unica Message. O envio aos jogadores e dividido em lotes
+ * executados em virtual threads, entao anuncios para muitos jogadores nao
+ * ocupam os trabalhadores do agendador.
+ * 
+ * Com mundo definido, so os jogadores daquele mundo recebem; sem mundo, todos do universo.
+ */
+final class Transmissor {
+    
+    private static final int TAMANHO_LOTE = 64;
+    private static final Message QUEBRA_LINHA = Message.raw("\n");
+    
+    private final ChatQuizPlugin plugin;
+    private final ExecutorService executor;
+    private final MetricasQuiz metricas;
+    private final String mundo;
+    
+    /**
+     * @param mundo Nome do mundo (minusculas), ou null para o universo inteiro
+     */
+    Transmissor(@Nonnull ChatQuizPlugin plugin, @Nullable String mundo) {
+        this.plugin = plugin;
+        this.mundo = mundo;
+        this.metricas = plugin.getMetricas();
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ChatQuiz-Broadcast-", 0).factory()
+        );
+    }
+    
+    /**
+     * Combina as linhas em uma unica mensagem e envia para todos os jogadores do mundo
+     */
+    void enviarLinhas(@Nonnull List<Message> linhas) {
+        if (linhas.isEmpty()) {
+            return;
+        }
+        Message combinada = combinar(linhas);
+        distribuir(jogador -> jogador.sendMessage(combinada));
+    }
+    
+    /**
+     * Mostra o banner para todos os jogadores do mundo
+     */
+    void mostrarBanner(@Nonnull Message titulo, @Nonnull Message subtitulo) {
+        distribuir(jogador -> EventTitleUtil.showEventTitleToPlayer(jogador, titulo, subtitulo, true));
+    }
+    
+    void desligar() {
+        executor.shutdown();
+    }
+    
+    @Nonnull
+    static Message combinar(@Nonnull List<Message> linhas) {
+        if (linhas.size() == 1) {
+            return linhas.get(0);
+        }
+        Message combinada = Message.empty();
+        for (int i = 0; i < linhas.size(); i++) {
+            if (i > 0) {
+                combinada.insert(QUEBRA_LINHA);
+            }
+            combinada.insert(linhas.get(i));
+        }
+        return combinada;
+    }
+    
+    private void distribuir(@Nonnull Consumer<PlayerRef> envio) {
+        List<PlayerRef> jogadores;
+        try {
+            jogadores = listarJogadores();
+        } catch (Exception e) {
+            plugin.getLogger().atWarning().log("Erro ao listar jogadores: " + e.getMessage());
+            return;
+        }
+        
+        for (int inicio = 0; inicio < jogadores.size(); inicio += TAMANHO_LOTE) {
+            List<PlayerRef> lote = jogadores.subList(inicio, Math.min(inicio + TAMANHO_LOTE, jogadores.size()));
+            try {
+                executor.execute(() -> enviarLote(lote, envio));
+            } catch (RejectedExecutionException e) {
+                return; // Plugin desligando
+            }
+        }
+    }
+    
+    @Nonnull
+    private List<PlayerRef> listarJogadores() {
+        Universe universo = Universe.get();
+        if (mundo == null) {
+            return new ArrayList<>(universo.getPlayers());
+        }
+        World world = universo.getWorld(mundo);
+        if (world == null) {
+            // Nome no arquivo com maiusculas diferentes das do servidor
+            for (World candidato : universo.getWorlds().values()) {
+                if (mundo.equalsIgnoreCase(candidato.getName())) {
+                    world = candidato;
+                    break;
+                }
+            }
+        }
+        return world != null ? new ArrayList<>(world.getPlayerRefs()) : List.of();
+    }
+    
+    private void enviarLote(@Nonnull List<PlayerRef> lote, @Nonnull Consumer<PlayerRef> envio) {
+        long inicio = System.nanoTime();
+        for (PlayerRef jogador : lote) {
+            try {
+                envio.accept(jogador);
+            } catch (Exception e) {
+                plugin.getLogger().atWarning().log("Erro ao enviar mensagem para " + jogador.getUsername() + ": " + e.getMessage());
+            }
+        }
+        metricas.registrarTransmissao(System.nanoTime() - inicio);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Rodada montada por um motor: o que e mostrado e o validador ja compilado.
+ * @param textoExibido Texto no lugar de {pergunta}
+ * @param palavraEmbaralhada Texto no lugar de {scramble} (SCRAMBLE), ou null
+ * @param respostaExibida Resposta mostrada no timeout ({resposta}), ou null
+ * @param validador Validador das mensagens do chat durante a rodada
+ */
+public record Desafio(
+        @Nonnull String textoExibido,
+        @Nullable String palavraEmbaralhada,
+        @Nullable String respostaExibida,
+        @Nonnull ValidadorResposta validador) {
+}
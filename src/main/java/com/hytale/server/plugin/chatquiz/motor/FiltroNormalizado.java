@@ -0,0 +1,133 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.util.NormalizadorTexto;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Pre-filtro das respostas normalizadas (sem acentos, case insensitive, com trim).
+ * Percorre a mensagem uma unica vez aplicando a mesma conversao do NormalizadorTexto,
+ * sem alocar, e descarta a mensagem pelo primeiro caractere e pelo tamanho.
+ * 
+ * A mesma passada devolve a assinatura do histograma de caracteres da mensagem, que o
+ * ValidadorEmbaralhado compara com as assinaturas das respostas.
+ * 
+ * Respostas com tolerancia a erros alargam a faixa de tamanho pelos erros aceitos e
+ * liberam qualquer primeiro caractere (o primeiro pode ser justamente o erro).
+ */
+final class FiltroNormalizado {
+    
+    // Resultados de varrer() que nao sao assinatura (assinaturas sao sempre >= 0)
+    static final long REJEITADA = -1;
+    static final long INDEFINIDA = -2; // Exige o Normalizer: a validacao completa decide
+    
+    private final PrimeirosCaracteres primeiros = new PrimeirosCaracteres();
+    private int tamanhoMinimo = Integer.MAX_VALUE;
+    private int tamanhoMaximo = 0;
+    
+    private FiltroNormalizado() {}
+    
+    /**
+     * @param normalizadas Respostas ja normalizadas
+     * @param erros Erros de digitacao aceitos em cada resposta
+     */
+    @Nonnull
+    static FiltroNormalizado compilar(@Nonnull List<String> normalizadas, @Nonnull int[] erros) {
+        FiltroNormalizado filtro = new FiltroNormalizado();
+        for (int i = 0; i < normalizadas.size(); i++) {
+            String chave = normalizadas.get(i);
+            filtro.tamanhoMinimo = Math.min(filtro.tamanhoMinimo, Math.max(0, chave.length() - erros[i]));
+            filtro.tamanhoMaximo = Math.max(filtro.tamanhoMaximo, chave.length() + erros[i]);
+            if (erros[i] > 0) {
+                filtro.primeiros.liberar();
+            } else if (!chave.isEmpty()) {
+                filtro.primeiros.marcar(chave.charAt(0));
+            }
+        }
+        return filtro;
+    }
+    
+    /**
+     * Varre a mensagem como se ja estivesse normalizada
+     * @return REJEITADA se a mensagem certamente nao e uma resposta, INDEFINIDA se exige
+     *         o Normalizer, ou a assinatura do histograma da mensagem normalizada
+     */
+    long varrer(@Nonnull String mensagem) {
+        if (tamanhoMinimo > tamanhoMaximo) {
+            return REJEITADA; // Pergunta sem respostas
+        }
+        
+        boolean iniciou = false;
+        int tamanho = 0;
+        int espacosPendentes = 0;
+        long somaPendente = 0;
+        long quadradosPendentes = 0;
+        long soma = 0;
+        long somaQuadrados = 0;
+        
+        for (int i = 0; i < mensagem.length(); i++) {
+            char c = mensagem.charAt(i);
+            if (!NormalizadorTexto.isSimples(c)) {
+                return INDEFINIDA;
+            }
+            if (NormalizadorTexto.isMarcaDiacritica(c)) {
+                continue;
+            }
+            
+            char convertido = NormalizadorTexto.converterCaractere(c);
+            if (convertido <= ' ') {
+                // Espacos so contam se aparecerem entre caracteres significativos (trim)
+                if (iniciou) {
+                    espacosPendentes++;
+                    somaPendente += convertido;
+                    quadradosPendentes += (long) convertido * convertido;
+                }
+                continue;
+            }
+            
+            if (!iniciou) {
+                if (!primeiros.permite(convertido)) {
+                    return REJEITADA;
+                }
+                iniciou = true;
+            }
+            
+            tamanho += espacosPendentes + 1;
+            if (tamanho > tamanhoMaximo) {
+                return REJEITADA;
+            }
+            soma += somaPendente + convertido;
+            somaQuadrados += quadradosPendentes + (long) convertido * convertido;
+            espacosPendentes = 0;
+            somaPendente = 0;
+            quadradosPendentes = 0;
+        }
+        
+        if (tamanho < tamanhoMinimo) {
+            return REJEITADA;
+        }
+        return combinar(tamanho, soma, somaQuadrados);
+    }
+    
+    /**
+     * Assinatura do histograma de caracteres (independente da ordem) de uma resposta normalizada
+     */
+    static long assinatura(@Nonnull String normalizada) {
+        long soma = 0;
+        long somaQuadrados = 0;
+        for (int i = 0; i < normalizada.length(); i++) {
+            char c = normalizada.charAt(i);
+            soma += c;
+            somaQuadrados += (long) c * c;
+        }
+        return combinar(normalizada.length(), soma, somaQuadrados);
+    }
+    
+    /**
+     * Tamanho nos bits altos e somas nos 48 de baixo; o bit de sinal fica livre para REJEITADA e INDEFINIDA
+     */
+    private static long combinar(int tamanho, long soma, long somaQuadrados) {
+        return ((long) (tamanho & 0x7FFF) << 48) | (((soma << 24) ^ somaQuadrados) & 0xFFFF_FFFF_FFFFL);
+    }
+}
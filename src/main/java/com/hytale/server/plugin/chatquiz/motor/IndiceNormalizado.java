@@ -0,0 +1,75 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.util.AutomatoLevenshtein;
+import com.hytale.server.plugin.chatquiz.util.NormalizadorTexto;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Indice das respostas normalizadas (sem acentos, case insensitive, com trim).
+ * As respostas sao normalizadas uma unica vez quando a pergunta e ativada.
+ * 
+ * Poucas respostas: comparacao direta, sem alocar Strings por tentativa.
+ * Muitas respostas: uma normalizacao + busca O(1) em HashSet.
+ * Com tolerancia a erros de digitacao: uma normalizacao + automato de Levenshtein
+ * de todas as respostas, linear no tamanho da mensagem.
+ */
+final class IndiceNormalizado {
+    
+    // Ate este numero de respostas a busca linear sem alocacao e mais barata que o hash
+    private static final int LIMITE_BUSCA_LINEAR = 4;
+    
+    private final String[] respostas;
+    @Nullable
+    private final Set<String> chaves;
+    @Nullable
+    private final AutomatoLevenshtein automato;
+    
+    private IndiceNormalizado(String[] respostas, @Nullable Set<String> chaves, @Nullable AutomatoLevenshtein automato) {
+        this.respostas = respostas;
+        this.chaves = chaves;
+        this.automato = automato;
+    }
+    
+    /**
+     * @param normalizadas Respostas ja normalizadas
+     * @param erros Erros de digitacao aceitos em cada resposta
+     */
+    @Nonnull
+    static IndiceNormalizado compilar(@Nonnull List<String> normalizadas, @Nonnull int[] erros) {
+        Set<String> respostas = new LinkedHashSet<>(normalizadas);
+        boolean tolerante = false;
+        for (int e : erros) {
+            tolerante |= e > 0;
+        }
+        
+        // Automato so quando alguma resposta aceita erro; senao a comparacao exata basta
+        AutomatoLevenshtein automato = tolerante ? AutomatoLevenshtein.compilar(normalizadas, erros) : null;
+        
+        return new IndiceNormalizado(
+            respostas.toArray(new String[0]),
+            respostas.size() > LIMITE_BUSCA_LINEAR ? Set.copyOf(respostas) : null,
+            automato
+        );
+    }
+    
+    boolean corresponde(@Nonnull String mensagem) {
+        if (automato != null) {
+            // Respostas exatas sao aceitas pelo automato com zero erros
+            return automato.aceita(NormalizadorTexto.normalizar(mensagem));
+        }
+        if (chaves != null) {
+            return chaves.contains(NormalizadorTexto.normalizar(mensagem));
+        }
+        for (String resposta : respostas) {
+            if (NormalizadorTexto.corresponde(mensagem, resposta)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
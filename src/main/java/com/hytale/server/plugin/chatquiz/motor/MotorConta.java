@@ -0,0 +1,74 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.Dificuldade;
+import com.hytale.server.plugin.chatquiz.util.ExpressaoMatematica;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.SplittableRandom;
+
+/**
+ * MATH: conta gerada a cada rodada a partir do modelo em "Pergunta".
+ */
+final class MotorConta implements MotorQuiz {
+    
+    @Nonnull
+    @Override
+    public String getNome() {
+        return "MATH";
+    }
+    
+    /**
+     * O modelo precisa compilar e gerar alguma conta com resultado inteiro
+     * (sorteio com semente fixa, para o resultado da validacao nao variar entre recargas)
+     */
+    @Nullable
+    @Override
+    public String validar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        ExpressaoMatematica expressao;
+        try {
+            expressao = ExpressaoMatematica.compilar(pergunta.getPergunta());
+        } catch (IllegalArgumentException e) {
+            return "conta invalida: " + e.getMessage();
+        }
+        Dificuldade dificuldade = pergunta.getDificuldade();
+        if (expressao.gerar(dificuldade.getMinimo(), dificuldade.getMaximo(), new SplittableRandom(0)) == null) {
+            return "conta sem resultado inteiro na dificuldade " + dificuldade;
+        }
+        return null;
+    }
+    
+    /**
+     * Sorteia a conta; o resultado ja fica calculado para o chat so comparar numeros
+     */
+    @Nullable
+    @Override
+    public Desafio preparar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta, @Nonnull ChatQuizConfig config, @Nonnull SplittableRandom random) {
+        Dificuldade dificuldade = pergunta.getDificuldade();
+        ExpressaoMatematica.Conta conta = ExpressaoMatematica.compilar(pergunta.getPergunta())
+            .gerar(dificuldade.getMinimo(), dificuldade.getMaximo(), random);
+        if (conta == null) {
+            return null;
+        }
+        return new Desafio(conta.texto(), null, String.valueOf(conta.resultado()), new ValidadorNumero(conta.resultado()));
+    }
+    
+    @Nonnull
+    @Override
+    public String ajustarLinhaInicio(@Nonnull String linha) {
+        return MotorQuiz.ajustarLinha(linha, "Calcule:", " &7(so o numero!)");
+    }
+    
+    @Nonnull
+    @Override
+    public String getMensagemErro() {
+        return "&cConta errada! &fTente novamente.";
+    }
+    
+    @Nonnull
+    @Override
+    public String getMensagemTimeout() {
+        return "&6&lQUIZ &cNinguem acertou! &fO resultado era: &e{resposta}";
+    }
+}
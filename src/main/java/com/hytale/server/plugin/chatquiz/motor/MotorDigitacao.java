@@ -0,0 +1,40 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+
+import javax.annotation.Nonnull;
+
+/**
+ * TYPE: primeiro a digitar a frase exata (case insensitive, com trim).
+ */
+final class MotorDigitacao extends MotorTexto {
+    
+    MotorDigitacao() {
+        super(QuizType.TYPE.name());
+    }
+    
+    @Nonnull
+    @Override
+    protected ValidadorResposta validador(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        return ValidadorExato.compilar(pergunta);
+    }
+    
+    @Nonnull
+    @Override
+    public String ajustarLinhaInicio(@Nonnull String linha) {
+        return MotorQuiz.ajustarLinha(linha, "Digite:", " &7(rapido!)");
+    }
+    
+    @Nonnull
+    @Override
+    public String getMensagemErro() {
+        return "&cErrado! &fDigite exatamente como mostrado.";
+    }
+    
+    @Nonnull
+    @Override
+    public String getMensagemTimeout() {
+        return "&6&lQUIZ &cNinguem digitou a frase corretamente!";
+    }
+}
@@ -0,0 +1,59 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+import com.hytale.server.plugin.chatquiz.util.Embaralhador;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * SCRAMBLE: desembaralhar a primeira resposta, embaralhada a cada rodada.
+ */
+final class MotorEmbaralhado extends MotorTexto {
+    
+    MotorEmbaralhado() {
+        super(QuizType.SCRAMBLE.name());
+    }
+    
+    @Nonnull
+    @Override
+    protected ValidadorResposta validador(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        return ValidadorEmbaralhado.compilar(pergunta);
+    }
+    
+    /**
+     * Embaralha a primeira resposta (nunca igual a uma resposta aceita)
+     */
+    @Nonnull
+    @Override
+    public Desafio preparar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta, @Nonnull ChatQuizConfig config, @Nonnull SplittableRandom random) {
+        List<String> normalizadas = new ArrayList<>(pergunta.getRespostas().size());
+        for (int i = 0; i < pergunta.getRespostas().size(); i++) {
+            normalizadas.add(pergunta.getRespostaNormalizada(i));
+        }
+        String original = pergunta.getRespostas().get(0);
+        String embaralhada = Embaralhador.embaralhar(original, normalizadas, config.isEmbaralharPorPalavra(), random);
+        return new Desafio(embaralhada, embaralhada, original, validador(pergunta));
+    }
+    
+    @Nonnull
+    @Override
+    public String ajustarLinhaInicio(@Nonnull String linha) {
+        return MotorQuiz.ajustarLinha(linha, "Desembaralhe:", " &7(desembaralhe!)");
+    }
+    
+    @Nonnull
+    @Override
+    public String getMensagemErro() {
+        return "&cErrado! &fTente reorganizar as letras.";
+    }
+    
+    @Nonnull
+    @Override
+    public String getMensagemTimeout() {
+        return "&6&lQUIZ &cNinguem acertou! &fA palavra era: &e{resposta}";
+    }
+}
@@ -0,0 +1,23 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+
+import javax.annotation.Nonnull;
+
+/**
+ * QUIZ: pergunta e resposta tradicionais (sem acentos, case insensitive, com Tolerancia opcional).
+ * Usa os textos padrao de MotorQuiz.
+ */
+final class MotorPergunta extends MotorTexto {
+    
+    MotorPergunta() {
+        super(QuizType.QUIZ.name());
+    }
+    
+    @Nonnull
+    @Override
+    protected ValidadorResposta validador(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        return ValidadorNormalizado.compilar(pergunta);
+    }
+}
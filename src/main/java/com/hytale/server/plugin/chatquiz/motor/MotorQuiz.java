@@ -0,0 +1,89 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.SplittableRandom;
+
+/**
+ * Motor de um tipo de quiz: tudo o que muda de um tipo para outro.
+ * 
+ * O QuizManager nao conhece os tipos; ele pede ao motor da pergunta para validar,
+ * preparar a rodada (texto mostrado + validador compilado) e os textos de inicio,
+ * erro e timeout. O chat so chama o ValidadorResposta da rodada, uma classe final
+ * por tipo, sem decidir nada pelo tipo a cada mensagem.
+ * 
+ * Os motores nativos (QUIZ, TYPE, SCRAMBLE, MATH) ficam no RegistroMotores. Outros
+ * plugins registram os seus com RegistroMotores.registrar ou, declarando-os em
+ * META-INF/services/com.hytale.server.plugin.chatquiz.motor.MotorQuiz, com
+ * RegistroMotores.carregar(proprio classloader); sao escolhidos pelo campo "Motor" da pergunta.
+ * Implementacoes precisam ser thread-safe: preparar roda fora da thread do chat.
+ */
+public interface MotorQuiz {
+    
+    /**
+     * Nome do motor, usado no campo "Motor" das perguntas (sem diferenciar maiusculas).
+     * Os motores nativos usam o nome do QuizType.
+     */
+    @Nonnull
+    String getNome();
+    
+    /**
+     * Valida a pergunta no carregamento da configuracao (fora da thread do servidor).
+     * Texto, peso e tolerancia ja foram verificados.
+     * @return Descricao do problema, ou null se a pergunta for valida
+     */
+    @Nullable
+    String validar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta);
+    
+    /**
+     * Prepara uma rodada da pergunta (no intervalo entre quizzes, fora do chat)
+     * @param random Gerador proprio da rodada
+     * @return Desafio da rodada, ou null se nao foi possivel montar
+     */
+    @Nullable
+    Desafio preparar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta, @Nonnull ChatQuizConfig config, @Nonnull SplittableRandom random);
+    
+    /**
+     * Ajusta uma linha da mensagem de inicio (mensagemAntesQuizGlobal) para este tipo.
+     * Chamado uma vez por carregamento; o resultado e compilado no snapshot.
+     */
+    @Nonnull
+    default String ajustarLinhaInicio(@Nonnull String linha) {
+        return linha;
+    }
+    
+    /**
+     * Feedback de resposta errada (com cores)
+     */
+    @Nonnull
+    default String getMensagemErro() {
+        return "&cResposta errada! &fTente novamente.";
+    }
+    
+    /**
+     * Mensagem quando ninguem acerta; {resposta} recebe Desafio.respostaExibida
+     */
+    @Nonnull
+    default String getMensagemTimeout() {
+        return "&6&lQUIZ &cNinguem acertou a pergunta!";
+    }
+    
+    /**
+     * Troca o rotulo "Pergunta:" e acrescenta a dica ao fim da linha "Digite sua resposta"
+     * @param rotulo Rotulo no lugar de "Pergunta:" (ex: "Digite:")
+     * @param dica Texto acrescentado a linha de instrucao (ex: " &7(rapido!)")
+     */
+    @Nonnull
+    static String ajustarLinha(@Nonnull String linha, @Nonnull String rotulo, @Nonnull String dica) {
+        String mensagem = linha;
+        if (mensagem.contains("Pergunta:")) {
+            mensagem = mensagem.replace("Pergunta:", rotulo);
+        }
+        if (mensagem.contains("Digite sua resposta")) {
+            mensagem = mensagem + dica;
+        }
+        return mensagem;
+    }
+}
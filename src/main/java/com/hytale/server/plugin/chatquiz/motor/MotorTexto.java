@@ -0,0 +1,66 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.util.NormalizadorTexto;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Base dos motores de texto (QUIZ, TYPE, SCRAMBLE): perguntas com lista de respostas.
+ * Cada motor escolhe a semantica da comparacao uma unica vez, pelo validador que compila
+ * (ValidadorNormalizado, ValidadorExato, ValidadorEmbaralhado ou um proprio).
+ * Motores de outros plugins podem estender esta classe para reaproveitar a validacao das respostas.
+ */
+public abstract class MotorTexto implements MotorQuiz {
+    
+    private final String nome;
+    
+    protected MotorTexto(@Nonnull String nome) {
+        this.nome = nome;
+    }
+    
+    @Nonnull
+    @Override
+    public String getNome() {
+        return nome;
+    }
+    
+    /**
+     * Exige respostas e, nas perguntas que ficam em memoria, pre-calcula as respostas normalizadas
+     */
+    @Nullable
+    @Override
+    public String validar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        List<String> respostas = pergunta.getRespostas();
+        if (respostas == null || respostas.isEmpty()) {
+            return "sem respostas";
+        }
+        if (pergunta.getRespostasNormalizadas() == null) {
+            List<String> normalizadas = new ArrayList<>(respostas.size());
+            for (String resposta : respostas) {
+                if (resposta == null) {
+                    return "resposta nula";
+                }
+                normalizadas.add(NormalizadorTexto.normalizar(resposta));
+            }
+            pergunta.setRespostasNormalizadas(normalizadas);
+        }
+        return null;
+    }
+    
+    @Nullable
+    @Override
+    public Desafio preparar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta, @Nonnull ChatQuizConfig config, @Nonnull SplittableRandom random) {
+        return new Desafio(pergunta.getPergunta(), null, null, validador(pergunta));
+    }
+    
+    /**
+     * Compila o validador das respostas da pergunta para uma rodada
+     */
+    @Nonnull
+    protected abstract ValidadorResposta validador(@Nonnull ChatQuizConfig.PerguntaConfig pergunta);
+}
@@ -0,0 +1,39 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto dos caracteres que podem iniciar uma resposta, usado pelos pre-filtros.
+ * Bitmap ate Latin Extended-A; acima disso basta uma resposta com esse inicio para
+ * qualquer caractere alto passar (conservador).
+ */
+final class PrimeirosCaracteres {
+    
+    private static final int LIMITE_BITMAP = 0x180;
+    
+    private final long[] bits = new long[LIMITE_BITMAP / 64];
+    private boolean foraBitmap = false;
+    
+    void marcar(char c) {
+        if (c < LIMITE_BITMAP) {
+            bits[c >>> 6] |= 1L << c;
+        } else {
+            foraBitmap = true;
+        }
+    }
+    
+    /**
+     * Aceita qualquer inicio (resposta com tolerancia: o primeiro caractere pode ser o erro)
+     */
+    void liberar() {
+        Arrays.fill(bits, -1L);
+        foraBitmap = true;
+    }
+    
+    boolean permite(char c) {
+        if (c < LIMITE_BITMAP) {
+            return (bits[c >>> 6] & (1L << c)) != 0;
+        }
+        return foraBitmap;
+    }
+}
@@ -0,0 +1,168 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+import com.hytale.server.plugin.chatquiz.config.QuizType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Motores de quiz disponiveis, por nome.
+ * 
+ * Os nativos (um por QuizType) sao criados aqui; os de outros plugins entram por
+ * registrar ou pelo ServiceLoader (carregar). Cada plugin do servidor tem o proprio
+ * classloader, que nao enxerga os arquivos META-INF/services dos outros: na primeira
+ * consulta so o classloader do ChatQuiz e o de contexto da thread sao varridos, e um
+ * plugin com motores chama carregar com o proprio classloader.
+ * 
+ * O mapa e copiado a cada registro e publicado em um campo volatile: a leitura,
+ * feita a cada rodada e na validacao das perguntas, nao trava.
+ */
+public final class RegistroMotores {
+    
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    
+    private final MotorQuiz[] nativos; // Por ordinal do QuizType
+    private volatile Map<String, MotorQuiz> porNome; // Nome em maiusculas -> motor, na ordem de registro
+    
+    private RegistroMotores() {
+        nativos = new MotorQuiz[QuizType.values().length];
+        nativos[QuizType.QUIZ.ordinal()] = new MotorPergunta();
+        nativos[QuizType.TYPE.ordinal()] = new MotorDigitacao();
+        nativos[QuizType.SCRAMBLE.ordinal()] = new MotorEmbaralhado();
+        nativos[QuizType.MATH.ordinal()] = new MotorConta();
+        
+        Map<String, MotorQuiz> mapa = new LinkedHashMap<>();
+        for (MotorQuiz motor : nativos) {
+            mapa.put(chave(motor.getNome()), motor);
+        }
+        porNome = Collections.unmodifiableMap(mapa);
+        
+        ClassLoader proprio = MotorQuiz.class.getClassLoader();
+        carregar(proprio);
+        ClassLoader contexto = Thread.currentThread().getContextClassLoader();
+        if (contexto != null && contexto != proprio) {
+            carregar(contexto);
+        }
+    }
+    
+    private static final class Instancia {
+        static final RegistroMotores REGISTRO = new RegistroMotores();
+    }
+    
+    @Nonnull
+    public static RegistroMotores get() {
+        return Instancia.REGISTRO;
+    }
+    
+    /**
+     * Registra um motor. Perguntas com o nome dele em "Motor" passam a valer no proximo reload.
+     * @throws IllegalArgumentException Se ja existir um motor com o mesmo nome
+     */
+    public synchronized void registrar(@Nonnull MotorQuiz motor) {
+        String chave = chave(motor.getNome());
+        if (porNome.containsKey(chave)) {
+            throw new IllegalArgumentException("Motor de quiz ja registrado: " + motor.getNome());
+        }
+        Map<String, MotorQuiz> mapa = new LinkedHashMap<>(porNome);
+        mapa.put(chave, motor);
+        porNome = Collections.unmodifiableMap(mapa);
+    }
+    
+    /**
+     * Registra os motores declarados em META-INF/services/com.hytale.server.plugin.chatquiz.motor.MotorQuiz
+     * visiveis pelo classloader. Um plugin com motores chama no setup, com o proprio classloader
+     * (getClass().getClassLoader()). Motores cuja classe ja esta registrada sao ignorados, entao
+     * chamar de novo ou com um classloader pai nao duplica nada.
+     * @return Quantidade de motores registrados
+     */
+    public synchronized int carregar(@Nonnull ClassLoader classLoader) {
+        Map<String, MotorQuiz> mapa = new LinkedHashMap<>(porNome);
+        Set<Class<?>> classes = new HashSet<>();
+        for (MotorQuiz motor : mapa.values()) {
+            classes.add(motor.getClass());
+        }
+        
+        // Um provedor quebrado nao impede os outros de carregar
+        int registrados = 0;
+        Iterator<MotorQuiz> provedores = ServiceLoader.load(MotorQuiz.class, classLoader).iterator();
+        while (true) {
+            try {
+                if (!provedores.hasNext()) {
+                    break;
+                }
+                MotorQuiz motor = provedores.next();
+                if (!classes.add(motor.getClass())) {
+                    continue;
+                }
+                if (mapa.putIfAbsent(chave(motor.getNome()), motor) != null) {
+                    LOGGER.atWarning().log("Motor de quiz ignorado, nome repetido: " + motor.getNome());
+                } else {
+                    registrados++;
+                }
+            } catch (ServiceConfigurationError e) {
+                LOGGER.atWarning().log("Erro ao carregar motor de quiz: " + e.getMessage());
+            }
+        }
+        porNome = Collections.unmodifiableMap(mapa);
+        return registrados;
+    }
+    
+    /**
+     * Motor pelo nome (sem diferenciar maiusculas)
+     * @return Motor, ou null se nao houver
+     */
+    @Nullable
+    public MotorQuiz getMotor(@Nonnull String nome) {
+        return porNome.get(chave(nome));
+    }
+    
+    /**
+     * Motor nativo do tipo
+     */
+    @Nonnull
+    public MotorQuiz getMotor(@Nonnull QuizType tipo) {
+        return nativos[tipo.ordinal()];
+    }
+    
+    /**
+     * Motor da pergunta: o do campo "Motor", se houver, senao o nativo do Tipo (QUIZ se nulo)
+     * @return Motor, ou null se o nome em "Motor" nao estiver registrado
+     */
+    @Nullable
+    public MotorQuiz motorDa(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        String nome = pergunta.getMotor();
+        if (nome != null && !nome.isBlank()) {
+            return getMotor(nome);
+        }
+        return getMotor(pergunta.getTipo() != null ? pergunta.getTipo() : QuizType.QUIZ);
+    }
+    
+    /**
+     * Todos os motores, nativos primeiro
+     */
+    @Nonnull
+    public Collection<MotorQuiz> getMotores() {
+        return porNome.values();
+    }
+    
+    @Nonnull
+    public Set<String> getNomes() {
+        return porNome.keySet();
+    }
+    
+    private static String chave(String nome) {
+        return nome.trim().toUpperCase(Locale.ROOT);
+    }
+}
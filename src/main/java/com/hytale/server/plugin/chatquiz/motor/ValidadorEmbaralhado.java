@@ -0,0 +1,69 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Validador de palavras embaralhadas (SCRAMBLE): respostas normalizadas, sem tolerancia
+ * a erros. Alem do tamanho e do primeiro caractere, o pre-filtro exige que o histograma
+ * de letras da mensagem bata com o de alguma resposta, entao palavras com outras letras
+ * nem chegam ao indice.
+ */
+public final class ValidadorEmbaralhado implements ValidadorResposta {
+    
+    private final FiltroNormalizado filtro;
+    private final long[] assinaturas;
+    private final IndiceNormalizado indice;
+    
+    private ValidadorEmbaralhado(FiltroNormalizado filtro, long[] assinaturas, IndiceNormalizado indice) {
+        this.filtro = filtro;
+        this.assinaturas = assinaturas;
+        this.indice = indice;
+    }
+    
+    /**
+     * Compila o validador a partir das respostas da pergunta
+     */
+    @Nonnull
+    public static ValidadorEmbaralhado compilar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        List<String> normalizadas = new ArrayList<>();
+        for (int i = 0; i < pergunta.getRespostas().size(); i++) {
+            if (pergunta.getRespostas().get(i) != null) {
+                normalizadas.add(pergunta.getRespostaNormalizada(i));
+            }
+        }
+        // Sem erros: uma letra trocada mudaria a assinatura e o filtro descartaria a resposta
+        int[] erros = new int[normalizadas.size()];
+        long[] assinaturas = new long[normalizadas.size()];
+        for (int i = 0; i < assinaturas.length; i++) {
+            assinaturas[i] = FiltroNormalizado.assinatura(normalizadas.get(i));
+        }
+        return new ValidadorEmbaralhado(
+            FiltroNormalizado.compilar(normalizadas, erros),
+            assinaturas,
+            IndiceNormalizado.compilar(normalizadas, erros)
+        );
+    }
+    
+    @Override
+    public boolean podeSerResposta(@Nonnull String mensagem) {
+        long assinatura = filtro.varrer(mensagem);
+        if (assinatura < 0) {
+            return assinatura == FiltroNormalizado.INDEFINIDA;
+        }
+        for (long a : assinaturas) {
+            if (a == assinatura) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @Override
+    public boolean corresponde(@Nonnull String mensagem) {
+        return indice.corresponde(mensagem);
+    }
+}
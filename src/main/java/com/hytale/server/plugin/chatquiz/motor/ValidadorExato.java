@@ -0,0 +1,131 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Validador de frase exata (TYPE): apenas trim, comparacao case insensitive
+ * (igual a equalsIgnoreCase), acentos contam.
+ * 
+ * O pre-filtro olha o tamanho apos trim e o primeiro caractere. Poucas respostas:
+ * regionMatches sem alocar; muitas: uma chave de caixa dobrada + busca O(1) em HashSet.
+ */
+public final class ValidadorExato implements ValidadorResposta {
+    
+    // Ate este numero de respostas a busca linear sem alocacao e mais barata que o hash
+    private static final int LIMITE_BUSCA_LINEAR = 4;
+    
+    private final String[] respostas;
+    @Nullable
+    private final Set<String> chaves;
+    private final PrimeirosCaracteres primeiros;
+    private final int tamanhoMinimo;
+    private final int tamanhoMaximo;
+    
+    private ValidadorExato(String[] respostas, @Nullable Set<String> chaves, PrimeirosCaracteres primeiros,
+                           int tamanhoMinimo, int tamanhoMaximo) {
+        this.respostas = respostas;
+        this.chaves = chaves;
+        this.primeiros = primeiros;
+        this.tamanhoMinimo = tamanhoMinimo;
+        this.tamanhoMaximo = tamanhoMaximo;
+    }
+    
+    /**
+     * Compila o validador a partir das respostas da pergunta
+     */
+    @Nonnull
+    public static ValidadorExato compilar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        Set<String> respostas = new LinkedHashSet<>();
+        Set<String> chaves = new LinkedHashSet<>();
+        PrimeirosCaracteres primeiros = new PrimeirosCaracteres();
+        int tamanhoMinimo = Integer.MAX_VALUE;
+        int tamanhoMaximo = 0;
+        for (String resposta : pergunta.getRespostas()) {
+            if (resposta == null) {
+                continue;
+            }
+            String limpa = resposta.trim();
+            respostas.add(limpa);
+            chaves.add(chave(limpa));
+            tamanhoMinimo = Math.min(tamanhoMinimo, limpa.length());
+            tamanhoMaximo = Math.max(tamanhoMaximo, limpa.length());
+            if (!limpa.isEmpty()) {
+                primeiros.marcar(dobrarCaixa(limpa.charAt(0)));
+            }
+        }
+        return new ValidadorExato(
+            respostas.toArray(new String[0]),
+            respostas.size() > LIMITE_BUSCA_LINEAR ? Set.copyOf(chaves) : null,
+            primeiros,
+            tamanhoMinimo,
+            tamanhoMaximo
+        );
+    }
+    
+    @Override
+    public boolean podeSerResposta(@Nonnull String mensagem) {
+        int inicio = inicio(mensagem);
+        int tamanho = fim(mensagem, inicio) - inicio;
+        if (tamanho < tamanhoMinimo || tamanho > tamanhoMaximo) {
+            return false;
+        }
+        return tamanho == 0 || primeiros.permite(dobrarCaixa(mensagem.charAt(inicio)));
+    }
+    
+    /**
+     * equalsIgnoreCase sobre a mensagem com trim, sem criar a String com trim
+     */
+    @Override
+    public boolean corresponde(@Nonnull String mensagem) {
+        if (chaves != null) {
+            return chaves.contains(chave(mensagem.trim()));
+        }
+        
+        int inicio = inicio(mensagem);
+        int tamanho = fim(mensagem, inicio) - inicio;
+        for (String resposta : respostas) {
+            if (resposta.length() == tamanho && mensagem.regionMatches(true, inicio, resposta, 0, tamanho)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static int inicio(@Nonnull String mensagem) {
+        int inicio = 0;
+        while (inicio < mensagem.length() && mensagem.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        return inicio;
+    }
+    
+    private static int fim(@Nonnull String mensagem, int inicio) {
+        int fim = mensagem.length();
+        while (fim > inicio && mensagem.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return fim;
+    }
+    
+    /**
+     * Chave equivalente a equalsIgnoreCase: duas strings tem a mesma chave
+     * se e somente se equalsIgnoreCase retornaria true.
+     */
+    @Nonnull
+    private static String chave(@Nonnull String limpa) {
+        char[] chars = new char[limpa.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = dobrarCaixa(limpa.charAt(i));
+        }
+        return new String(chars);
+    }
+    
+    private static char dobrarCaixa(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
@@ -0,0 +1,51 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.config.ChatQuizConfig;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validador de respostas normalizadas (QUIZ): sem acentos, case insensitive, com trim
+ * e com a Tolerancia a erros de digitacao da pergunta.
+ * Pre-filtro de uma passada seguido do indice de respostas, ambos compilados na preparacao da rodada.
+ */
+public final class ValidadorNormalizado implements ValidadorResposta {
+    
+    private final FiltroNormalizado filtro;
+    private final IndiceNormalizado indice;
+    
+    private ValidadorNormalizado(FiltroNormalizado filtro, IndiceNormalizado indice) {
+        this.filtro = filtro;
+        this.indice = indice;
+    }
+    
+    /**
+     * Compila o validador a partir das respostas da pergunta
+     */
+    @Nonnull
+    public static ValidadorNormalizado compilar(@Nonnull ChatQuizConfig.PerguntaConfig pergunta) {
+        List<String> normalizadas = new ArrayList<>();
+        int[] erros = new int[pergunta.getRespostas().size()];
+        for (int i = 0; i < pergunta.getRespostas().size(); i++) {
+            if (pergunta.getRespostas().get(i) != null) {
+                erros[normalizadas.size()] = pergunta.getErrosPermitidos(i);
+                normalizadas.add(pergunta.getRespostaNormalizada(i));
+            }
+        }
+        erros = Arrays.copyOf(erros, normalizadas.size());
+        return new ValidadorNormalizado(FiltroNormalizado.compilar(normalizadas, erros), IndiceNormalizado.compilar(normalizadas, erros));
+    }
+    
+    @Override
+    public boolean podeSerResposta(@Nonnull String mensagem) {
+        return filtro.varrer(mensagem) != FiltroNormalizado.REJEITADA;
+    }
+    
+    @Override
+    public boolean corresponde(@Nonnull String mensagem) {
+        return indice.corresponde(mensagem);
+    }
+}
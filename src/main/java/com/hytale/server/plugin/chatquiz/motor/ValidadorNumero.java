@@ -0,0 +1,29 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import com.hytale.server.plugin.chatquiz.util.LeitorNumero;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Validador das contas (MATH): a mensagem e lida direto como numero e comparada
+ * ao resultado ja calculado, sem normalizar nem alocar. Qualquer numero conta
+ * como tentativa.
+ */
+final class ValidadorNumero implements ValidadorResposta {
+    
+    private final long resultado;
+    
+    ValidadorNumero(long resultado) {
+        this.resultado = resultado;
+    }
+    
+    @Override
+    public boolean podeSerResposta(@Nonnull String mensagem) {
+        return LeitorNumero.ler(mensagem) != LeitorNumero.INVALIDO;
+    }
+    
+    @Override
+    public boolean corresponde(@Nonnull String mensagem) {
+        return LeitorNumero.ler(mensagem) == resultado;
+    }
+}
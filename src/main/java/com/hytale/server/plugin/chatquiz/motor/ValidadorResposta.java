@@ -0,0 +1,23 @@
+package com.hytale.server.plugin.chatquiz.motor;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Validador de respostas de uma rodada, compilado pelo motor antes de a rodada comecar.
+ * Chamado na thread do chat para cada mensagem: nao deve alocar nem bloquear.
+ */
+public interface ValidadorResposta {
+    
+    /**
+     * Pre-filtro: false somente quando a mensagem certamente nao e uma tentativa de resposta.
+     * Mensagens filtradas nao contam como tentativa nem recebem feedback de erro.
+     */
+    default boolean podeSerResposta(@Nonnull String mensagem) {
+        return true;
+    }
+    
+    /**
+     * Verifica se a mensagem e uma resposta correta
+     */
+    boolean corresponde(@Nonnull String mensagem);
+}
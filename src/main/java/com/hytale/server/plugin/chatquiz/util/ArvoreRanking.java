@@ -0,0 +1,195 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Arvore de estatistica de ordem (treap) para rankings.
+ * 
+ * Chave: pontos em ordem decrescente, desempate pela ordem de chegada (menor primeiro).
+ * Cada no guarda o tamanho da subarvore, entao inserir, remover e descobrir a posicao
+ * de uma chave custam O(log n) esperado, e os primeiros N saem em O(log n + N),
+ * sem ordenar todos os jogadores a cada consulta.
+ * 
+ * Nao e thread-safe; quem usa sincroniza.
+ */
+public final class ArvoreRanking<T> {
+    
+    private final SplittableRandom random = new SplittableRandom();
+    private No<T> raiz;
+    
+    /**
+     * Insere uma chave nova (pontos + ordem precisam ser unicos)
+     */
+    public void inserir(int pontos, long ordem, @Nonnull T valor) {
+        raiz = inserir(raiz, new No<>(pontos, ordem, valor, random.nextInt()));
+    }
+    
+    /**
+     * Remove a chave, se existir
+     */
+    public void remover(int pontos, long ordem) {
+        raiz = remover(raiz, pontos, ordem);
+    }
+    
+    /**
+     * Posicao da chave no ranking
+     * @return Posicao a partir de 1, ou -1 se a chave nao existir
+     */
+    public int posicao(int pontos, long ordem) {
+        int antes = 0;
+        No<T> no = raiz;
+        while (no != null) {
+            int c = comparar(pontos, ordem, no);
+            if (c == 0) {
+                return antes + tamanho(no.esquerda) + 1;
+            }
+            if (c < 0) {
+                no = no.esquerda;
+            } else {
+                antes += tamanho(no.esquerda) + 1;
+                no = no.direita;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Primeiros valores do ranking, em ordem
+     */
+    @Nonnull
+    public List<T> primeiros(int quantidade) {
+        List<T> resultado = new ArrayList<>(Math.min(Math.max(quantidade, 0), getTamanho()));
+        ArrayDeque<No<T>> pilha = new ArrayDeque<>();
+        No<T> no = raiz;
+        while (resultado.size() < quantidade && (no != null || !pilha.isEmpty())) {
+            while (no != null) {
+                pilha.push(no);
+                no = no.esquerda;
+            }
+            no = pilha.pop();
+            resultado.add(no.valor);
+            no = no.direita;
+        }
+        return resultado;
+    }
+    
+    public int getTamanho() {
+        return tamanho(raiz);
+    }
+    
+    public void limpar() {
+        raiz = null;
+    }
+    
+    private No<T> inserir(No<T> no, No<T> novo) {
+        if (no == null) {
+            return novo;
+        }
+        if (comparar(novo.pontos, novo.ordem, no) < 0) {
+            no.esquerda = inserir(no.esquerda, novo);
+            if (no.esquerda.prioridade > no.prioridade) {
+                no = girarDireita(no);
+            }
+        } else {
+            no.direita = inserir(no.direita, novo);
+            if (no.direita.prioridade > no.prioridade) {
+                no = girarEsquerda(no);
+            }
+        }
+        atualizar(no);
+        return no;
+    }
+    
+    private No<T> remover(No<T> no, int pontos, long ordem) {
+        if (no == null) {
+            return null;
+        }
+        int c = comparar(pontos, ordem, no);
+        if (c == 0) {
+            return juntar(no.esquerda, no.direita);
+        }
+        if (c < 0) {
+            no.esquerda = remover(no.esquerda, pontos, ordem);
+        } else {
+            no.direita = remover(no.direita, pontos, ordem);
+        }
+        atualizar(no);
+        return no;
+    }
+    
+    /**
+     * Junta duas subarvores em que todas as chaves de a vem antes das de b
+     */
+    private No<T> juntar(No<T> a, No<T> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.prioridade > b.prioridade) {
+            a.direita = juntar(a.direita, b);
+            atualizar(a);
+            return a;
+        }
+        b.esquerda = juntar(a, b.esquerda);
+        atualizar(b);
+        return b;
+    }
+    
+    private No<T> girarDireita(No<T> no) {
+        No<T> filho = no.esquerda;
+        no.esquerda = filho.direita;
+        filho.direita = no;
+        atualizar(no);
+        return filho;
+    }
+    
+    private No<T> girarEsquerda(No<T> no) {
+        No<T> filho = no.direita;
+        no.direita = filho.esquerda;
+        filho.esquerda = no;
+        atualizar(no);
+        return filho;
+    }
+    
+    /**
+     * Negativo se a chave vem antes do no no ranking
+     */
+    private static int comparar(int pontos, long ordem, No<?> no) {
+        if (pontos != no.pontos) {
+            return pontos > no.pontos ? -1 : 1;
+        }
+        return Long.compare(ordem, no.ordem);
+    }
+    
+    private static void atualizar(No<?> no) {
+        no.tamanho = 1 + tamanho(no.esquerda) + tamanho(no.direita);
+    }
+    
+    private static int tamanho(No<?> no) {
+        return no != null ? no.tamanho : 0;
+    }
+    
+    private static final class No<T> {
+        
+        final int pontos;
+        final long ordem;
+        final T valor;
+        final int prioridade;
+        No<T> esquerda;
+        No<T> direita;
+        int tamanho = 1;
+        
+        No(int pontos, long ordem, T valor, int prioridade) {
+            this.pontos = pontos;
+            this.ordem = ordem;
+            this.valor = valor;
+            this.prioridade = prioridade;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Automato deterministico que aceita os textos a ate k edicoes de alguma das
+ * palavras, cada uma com o seu k. Uma edicao e um caractere a mais, a menos, trocado
+ * ou dois vizinhos invertidos ("brasilai" esta a 1 edicao de "brasilia").
+ * 
+ * As palavras ficam em uma trie; um estado do automato e o conjunto de pares
+ * (no da trie, edicoes gastas), guardando so o menor numero de edicoes por no.
+ * Uma inversao em andamento e um no "pendente": o texto ja trouxe o segundo
+ * caractere e o no so e alcancado se o proximo for o primeiro.
+ * 
+ * O alfabeto e o das palavras mais uma classe "outro" (caracteres que nao aparecem
+ * em nenhuma palavra se comportam igual). Os estados sao montados sob demanda, na
+ * primeira vez que um texto passa por eles, e ficam guardados: montar todos de uma
+ * vez explode com muitas respostas longas. Depois de montado, verificar um texto e
+ * uma consulta de tabela por caractere, linear no tamanho do texto e sem depender
+ * de quantas palavras existem. Acima do limite de estados, as transicoes novas sao
+ * calculadas sem guardar (o resultado e o mesmo, so mais lento).
+ */
+public final class AutomatoLevenshtein {
+    
+    /**
+     * Limite de edicoes por palavra
+     */
+    public static final int MAXIMO_EDICOES = 3;
+    
+    private static final int LIMITE_ESTADOS = 16_384;
+    private static final int LIMITE_TABELA_CLASSES = 0x180;
+    private static final Estado MORTO = new Estado(new int[0], false, 0);
+    
+    // Classe 0 = caractere fora das palavras
+    private final byte[] classeTabela; // Classe por caractere < LIMITE_TABELA_CLASSES
+    private final char[] caracteresExtras; // Caracteres >= LIMITE_TABELA_CLASSES, ordenados
+    private final int[] classesExtras;
+    private final char[] representantes; // Um caractere por classe
+    private final int quantidadeClasses;
+    
+    private final Trie trie;
+    private final Estado inicial;
+    
+    // Montagem dos estados, sob o monitor do automato
+    private final int pendenteBase; // No pendente de inversao = pendenteBase + no da trie
+    private final int[] melhor; // Menor numero de edicoes por no no estado em montagem
+    private final List<Integer> tocados = new ArrayList<>();
+    private final Map<String, Estado> estadosPorChave = new HashMap<>();
+    
+    private AutomatoLevenshtein(String[] palavras, int[] limites) {
+        // Alfabeto: um indice de classe por caractere distinto das palavras
+        TreeSet<Character> alfabeto = new TreeSet<>();
+        for (String palavra : palavras) {
+            for (int i = 0; i < palavra.length(); i++) {
+                alfabeto.add(palavra.charAt(i));
+            }
+        }
+        this.classeTabela = new byte[LIMITE_TABELA_CLASSES];
+        List<Character> extras = new ArrayList<>();
+        int classes = 1;
+        for (char c : alfabeto) {
+            if (c < LIMITE_TABELA_CLASSES && classes <= Byte.MAX_VALUE) {
+                classeTabela[c] = (byte) classes++;
+            } else {
+                extras.add(c);
+            }
+        }
+        this.caracteresExtras = new char[extras.size()];
+        this.classesExtras = new int[extras.size()];
+        for (int i = 0; i < caracteresExtras.length; i++) {
+            caracteresExtras[i] = extras.get(i);
+            classesExtras[i] = classes++;
+        }
+        this.quantidadeClasses = classes;
+        this.representantes = new char[classes];
+        for (int c = 0; c < LIMITE_TABELA_CLASSES; c++) {
+            if (classeTabela[c] != 0) {
+                representantes[classeTabela[c]] = (char) c;
+            }
+        }
+        for (int i = 0; i < caracteresExtras.length; i++) {
+            representantes[classesExtras[i]] = caracteresExtras[i];
+        }
+        
+        this.trie = new Trie(palavras, limites);
+        this.pendenteBase = trie.tamanho();
+        this.melhor = new int[trie.tamanho() * 2];
+        Arrays.fill(melhor, Integer.MAX_VALUE);
+        
+        relaxar(0, 0);
+        int[] pares = fecharEColetar();
+        Estado estado = pares.length == 0 ? MORTO : new Estado(pares, isAceito(pares), quantidadeClasses);
+        if (estado != MORTO) {
+            estadosPorChave.put(chave(pares), estado);
+        }
+        this.inicial = estado;
+    }
+    
+    /**
+     * Compila o automato
+     * @param palavras Palavras aceitas (ja normalizadas)
+     * @param edicoes Edicoes permitidas para cada palavra (limitadas a MAXIMO_EDICOES)
+     */
+    @Nonnull
+    public static AutomatoLevenshtein compilar(@Nonnull List<String> palavras, @Nonnull int[] edicoes) {
+        int[] limites = new int[palavras.size()];
+        for (int i = 0; i < limites.length; i++) {
+            limites[i] = Math.max(0, Math.min(MAXIMO_EDICOES, edicoes[i]));
+        }
+        return new AutomatoLevenshtein(palavras.toArray(new String[0]), limites);
+    }
+    
+    /**
+     * Verifica se o texto (ja normalizado) esta a ate k edicoes de alguma palavra
+     */
+    public boolean aceita(@Nonnull String texto) {
+        Estado estado = inicial;
+        for (int i = 0; i < texto.length(); i++) {
+            if (estado == MORTO) {
+                return false;
+            }
+            int classe = classe(texto.charAt(i));
+            Estado proximo = estado.proximos.get(classe);
+            estado = proximo != null ? proximo : montarTransicao(estado, classe);
+        }
+        return estado.aceito;
+    }
+    
+    /**
+     * Quantidade de estados ja montados
+     */
+    public synchronized int getEstados() {
+        return estadosPorChave.size();
+    }
+    
+    private int classe(char c) {
+        if (c < LIMITE_TABELA_CLASSES && classeTabela[c] != 0) {
+            return classeTabela[c];
+        }
+        if (caracteresExtras.length == 0) {
+            return 0;
+        }
+        int pos = Arrays.binarySearch(caracteresExtras, c);
+        return pos >= 0 ? classesExtras[pos] : 0;
+    }
+    
+    /**
+     * Calcula o destino de uma transicao ainda nao montada e guarda no estado de origem
+     */
+    private synchronized Estado montarTransicao(Estado origem, int classe) {
+        Estado pronto = origem.proximos.get(classe);
+        if (pronto != null) {
+            return pronto; // Montada por outra thread enquanto esperava o monitor
+        }
+        
+        char c = representantes[classe];
+        int[] pares = origem.pares;
+        for (int i = 0; i < pares.length; i += 2) {
+            int no = pares[i];
+            int gastas = pares[i + 1];
+            if (no >= pendenteBase) {
+                // Inversao: so continua se vier o caractere que ficou para tras
+                int alvo = no - pendenteBase;
+                if (classe != 0 && trie.entrada.get(trie.pai.get(alvo)) == c) {
+                    relaxar(alvo, gastas);
+                }
+                continue;
+            }
+            if (classe != 0) {
+                int filho = trie.filho(no, c);
+                if (filho >= 0) {
+                    relaxar(filho, gastas); // Caractere igual
+                }
+                for (int intermediario : trie.filhos.get(no)) {
+                    int alvo = trie.entrada.get(intermediario) != c ? trie.filho(intermediario, c) : -1;
+                    if (alvo >= 0) {
+                        relaxar(pendenteBase + alvo, gastas + 1); // Inicio de inversao
+                    }
+                }
+            }
+            for (int filho : trie.filhos.get(no)) {
+                relaxar(filho, gastas + 1); // Troca
+            }
+            relaxar(no, gastas + 1); // Caractere a mais no texto
+        }
+        
+        int[] destinoPares = fecharEColetar();
+        if (destinoPares.length == 0) {
+            origem.proximos.set(classe, MORTO);
+            return MORTO;
+        }
+        String chave = chave(destinoPares);
+        Estado destino = estadosPorChave.get(chave);
+        if (destino == null) {
+            destino = new Estado(destinoPares, isAceito(destinoPares), quantidadeClasses);
+            if (estadosPorChave.size() >= LIMITE_ESTADOS) {
+                return destino; // Sem guardar: usado so nesta verificacao
+            }
+            estadosPorChave.put(chave, destino);
+        }
+        origem.proximos.set(classe, destino);
+        return destino;
+    }
+    
+    private boolean isAceito(int[] pares) {
+        for (int i = 0; i < pares.length; i += 2) {
+            if (pares[i] < pendenteBase && pares[i + 1] <= trie.limiteFinal.get(pares[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void relaxar(int no, int gastas) {
+        int noTrie = no >= pendenteBase ? no - pendenteBase : no;
+        if (gastas > trie.limiteSubarvore[noTrie] || gastas >= melhor[no]) {
+            return; // Nenhuma palavra abaixo aceita tantas edicoes, ou ja alcancado com menos
+        }
+        if (melhor[no] == Integer.MAX_VALUE) {
+            tocados.add(no);
+        }
+        melhor[no] = gastas;
+    }
+    
+    /**
+     * Aplica as remocoes (avancar na trie sem consumir caractere) e devolve o estado ordenado
+     */
+    private int[] fecharEColetar() {
+        // Filhos tem indice maior que o pai: processar em ordem crescente propaga tudo em uma passada
+        TreeSet<Integer> fila = new TreeSet<>(tocados);
+        while (!fila.isEmpty()) {
+            int no = fila.pollFirst();
+            if (no >= pendenteBase) {
+                continue;
+            }
+            for (int filho : trie.filhos.get(no)) {
+                int antes = melhor[filho];
+                relaxar(filho, melhor[no] + 1);
+                if (melhor[filho] != antes) {
+                    fila.add(filho);
+                }
+            }
+        }
+        
+        int[] nos = new int[tocados.size()];
+        for (int i = 0; i < nos.length; i++) {
+            nos[i] = tocados.get(i);
+        }
+        Arrays.sort(nos);
+        int[] pares = new int[nos.length * 2];
+        for (int i = 0; i < nos.length; i++) {
+            pares[i * 2] = nos[i];
+            pares[i * 2 + 1] = melhor[nos[i]];
+            melhor[nos[i]] = Integer.MAX_VALUE;
+        }
+        tocados.clear();
+        return pares;
+    }
+    
+    private static String chave(int[] pares) {
+        StringBuilder sb = new StringBuilder(pares.length * 2);
+        for (int i = 0; i < pares.length; i += 2) {
+            sb.append((char) (pares[i] >>> 16)).append((char) pares[i]).append((char) pares[i + 1]);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Estado montado: pares [no, edicoes, ...] ordenados por no e as transicoes ja conhecidas
+     */
+    private static final class Estado {
+        
+        final int[] pares;
+        final boolean aceito;
+        final AtomicReferenceArray<Estado> proximos; // Por classe; null = ainda nao montada
+        
+        Estado(int[] pares, boolean aceito, int quantidadeClasses) {
+            this.pares = pares;
+            this.aceito = aceito;
+            this.proximos = new AtomicReferenceArray<>(quantidadeClasses);
+        }
+    }
+    
+    /**
+     * Trie das palavras; filhos sempre tem indice maior que o pai
+     */
+    private static final class Trie {
+        
+        final List<char[]> rotulos = new ArrayList<>();
+        final List<int[]> filhos = new ArrayList<>();
+        final List<Character> entrada = new ArrayList<>(); // Caractere da aresta que chega no no
+        final List<Integer> pai = new ArrayList<>();
+        final List<Integer> limiteFinal = new ArrayList<>(); // Maior k das palavras que terminam no no, ou -1
+        final int[] limiteSubarvore; // Maior k das palavras abaixo do no (para podar estados inuteis)
+        
+        Trie(String[] palavras, int[] limites) {
+            novoNo();
+            for (int p = 0; p < palavras.length; p++) {
+                int no = 0;
+                for (int i = 0; i < palavras[p].length(); i++) {
+                    char c = palavras[p].charAt(i);
+                    int filho = filho(no, c);
+                    if (filho < 0) {
+                        filho = novoNo();
+                        entrada.set(filho, c);
+                        pai.set(filho, no);
+                        adicionarFilho(no, c, filho);
+                    }
+                    no = filho;
+                }
+                limiteFinal.set(no, Math.max(limiteFinal.get(no), limites[p]));
+            }
+            
+            limiteSubarvore = new int[tamanho()];
+            for (int no = tamanho() - 1; no >= 0; no--) {
+                int limite = limiteFinal.get(no);
+                for (int filho : filhos.get(no)) {
+                    limite = Math.max(limite, limiteSubarvore[filho]);
+                }
+                limiteSubarvore[no] = limite;
+            }
+        }
+        
+        int tamanho() {
+            return rotulos.size();
+        }
+        
+        int filho(int no, char c) {
+            char[] r = rotulos.get(no);
+            for (int i = 0; i < r.length; i++) {
+                if (r[i] == c) {
+                    return filhos.get(no)[i];
+                }
+            }
+            return -1;
+        }
+        
+        private int novoNo() {
+            rotulos.add(new char[0]);
+            filhos.add(new int[0]);
+            entrada.add('\0');
+            pai.add(-1);
+            limiteFinal.add(-1);
+            return rotulos.size() - 1;
+        }
+        
+        private void adicionarFilho(int no, char c, int filho) {
+            char[] r = Arrays.copyOf(rotulos.get(no), rotulos.get(no).length + 1);
+            int[] f = Arrays.copyOf(filhos.get(no), filhos.get(no).length + 1);
+            r[r.length - 1] = c;
+            f[f.length - 1] = filho;
+            rotulos.set(no, r);
+            filhos.set(no, f);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador de palavras embaralhadas para o modo SCRAMBLE.
+ * 
+ * Trabalha sobre code points em um int[] reaproveitado por thread (pares surrogate
+ * nunca sao separados) e embaralha com Fisher-Yates usando o SplittableRandom da rodada.
+ * O resultado nunca corresponde a uma resposta aceita, exceto quando nenhuma
+ * permutacao consegue isso (ex: "aaa").
+ */
+public final class Embaralhador {
+    
+    private static final int TENTATIVAS = 8;
+    private static final ThreadLocal<int[]> BUFFER = ThreadLocal.withInitial(() -> new int[64]);
+    private static final ThreadLocal<int[]> POSICOES = ThreadLocal.withInitial(() -> new int[64]);
+    
+    private Embaralhador() {}
+    
+    /**
+     * Embaralha o texto
+     * @param texto Texto original (normalmente a primeira resposta)
+     * @param respostasNormalizadas Respostas aceitas ja normalizadas; o resultado nao pode corresponder a nenhuma
+     * @param porPalavra true para embaralhar cada palavra separadamente, mantendo os espacos no lugar
+     * @param random Gerador da rodada
+     * @return Texto embaralhado
+     */
+    @Nonnull
+    public static String embaralhar(@Nonnull String texto, @Nonnull List<String> respostasNormalizadas,
+                                    boolean porPalavra, @Nonnull SplittableRandom random) {
+        int total = carregarCodePoints(texto);
+        int[] pontos = BUFFER.get();
+        
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            if (porPalavra) {
+                embaralharPalavras(pontos, total, random);
+            } else {
+                embaralharTudo(pontos, total, random);
+            }
+            String resultado = new String(pontos, 0, total);
+            if (!isRespostaAceita(resultado, respostasNormalizadas)) {
+                return resultado;
+            }
+        }
+        
+        // Azar ou poucas permutacoes distintas: procura uma troca que resolva
+        String resultado = trocarAteDiferir(pontos, total, respostasNormalizadas, porPalavra);
+        if (resultado == null && porPalavra) {
+            resultado = trocarAteDiferir(pontos, total, respostasNormalizadas, false);
+        }
+        return resultado != null ? resultado : new String(pontos, 0, total);
+    }
+    
+    /**
+     * Copia os code points do texto para o buffer da thread
+     * @return Quantidade de code points
+     */
+    private static int carregarCodePoints(String texto) {
+        int[] buffer = BUFFER.get();
+        if (buffer.length < texto.length()) {
+            buffer = new int[Math.max(texto.length(), buffer.length * 2)];
+            BUFFER.set(buffer);
+        }
+        int total = 0;
+        for (int i = 0; i < texto.length(); ) {
+            int cp = texto.codePointAt(i);
+            buffer[total++] = cp;
+            i += Character.charCount(cp);
+        }
+        return total;
+    }
+    
+    /**
+     * Fisher-Yates em pontos[inicio, fim) (trecho sem espacos)
+     */
+    private static void embaralharLetras(int[] pontos, int inicio, int fim, SplittableRandom random) {
+        for (int i = fim - 1; i > inicio; i--) {
+            int j = inicio + random.nextInt(i - inicio + 1);
+            int temp = pontos[i];
+            pontos[i] = pontos[j];
+            pontos[j] = temp;
+        }
+    }
+    
+    /**
+     * Fisher-Yates sobre todas as letras do texto; os espacos ficam na posicao original
+     */
+    private static void embaralharTudo(int[] pontos, int total, SplittableRandom random) {
+        int[] posicoes = POSICOES.get();
+        if (posicoes.length < total) {
+            posicoes = new int[Math.max(total, posicoes.length * 2)];
+            POSICOES.set(posicoes);
+        }
+        int letras = 0;
+        for (int i = 0; i < total; i++) {
+            if (!Character.isWhitespace(pontos[i])) {
+                posicoes[letras++] = i;
+            }
+        }
+        for (int i = letras - 1; i > 0; i--) {
+            int a = posicoes[i];
+            int b = posicoes[random.nextInt(i + 1)];
+            int temp = pontos[a];
+            pontos[a] = pontos[b];
+            pontos[b] = temp;
+        }
+    }
+    
+    private static void embaralharPalavras(int[] pontos, int total, SplittableRandom random) {
+        int inicio = 0;
+        while (inicio < total) {
+            while (inicio < total && Character.isWhitespace(pontos[inicio])) {
+                inicio++;
+            }
+            int fim = inicio;
+            while (fim < total && !Character.isWhitespace(pontos[fim])) {
+                fim++;
+            }
+            embaralharLetras(pontos, inicio, fim, random);
+            inicio = fim;
+        }
+    }
+    
+    /**
+     * Tenta trocas de duas letras diferentes ate o resultado nao ser uma resposta aceita
+     * @return Resultado, ou null se nenhuma troca resolver
+     */
+    private static String trocarAteDiferir(int[] pontos, int total, List<String> respostasNormalizadas, boolean mesmaPalavra) {
+        for (int i = 0; i < total; i++) {
+            if (Character.isWhitespace(pontos[i])) {
+                continue;
+            }
+            for (int j = i + 1; j < total; j++) {
+                if (Character.isWhitespace(pontos[j])) {
+                    if (mesmaPalavra) {
+                        break;
+                    }
+                    continue;
+                }
+                if (pontos[i] == pontos[j]) {
+                    continue;
+                }
+                int temp = pontos[i];
+                pontos[i] = pontos[j];
+                pontos[j] = temp;
+                String resultado = new String(pontos, 0, total);
+                if (!isRespostaAceita(resultado, respostasNormalizadas)) {
+                    return resultado;
+                }
+                pontos[j] = pontos[i];
+                pontos[i] = temp;
+            }
+        }
+        return null;
+    }
+    
+    private static boolean isRespostaAceita(String texto, List<String> respostasNormalizadas) {
+        for (String resposta : respostasNormalizadas) {
+            if (resposta != null && NormalizadorTexto.corresponde(texto, resposta)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
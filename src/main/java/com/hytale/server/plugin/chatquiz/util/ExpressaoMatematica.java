@@ -0,0 +1,359 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Modelo de conta do modo MATH, compilado uma vez e sorteado a cada rodada.
+ * 
+ * O modelo e uma expressao com numeros, variaveis entre chaves, parenteses e as
+ * operacoes + - x * / (ex: "{a} + {b} x {c}", "({a} + 5) / {b}"). Cada variavel
+ * recebe um numero da faixa da dificuldade, ou da propria faixa ("{a:1-1000}");
+ * a mesma variavel repetida recebe o mesmo numero. O texto mostrado e o proprio
+ * modelo com os numeros no lugar das variaveis.
+ * 
+ * A expressao vira um programa pos-fixado; sortear e avaliar esse programa algumas
+ * vezes ate sair um resultado inteiro (divisoes exatas, sem overflow), entao o
+ * resultado ja esta pronto antes de a rodada comecar. Quando o dividendo e uma
+ * variavel que so aparece uma vez, o numero sorteado vira o quociente e o dividendo
+ * e ajustado (quociente x divisor), entao "{a} / {b}" sempre sai na primeira tentativa.
+ */
+public final class ExpressaoMatematica {
+    
+    /**
+     * Conta sorteada: texto mostrado aos jogadores e o resultado
+     */
+    public record Conta(@Nonnull String texto, long resultado) {}
+    
+    private static final long LIMITE_RESULTADO = 1_000_000_000_000L;
+    private static final int TENTATIVAS = 256;
+    private static final int SEM_FAIXA = Integer.MIN_VALUE;
+    
+    // Operacoes do programa pos-fixado (operacao, argumento)
+    private static final int CONSTANTE = 0;
+    private static final int VARIAVEL = 1;
+    private static final int SOMAR = 2;
+    private static final int SUBTRAIR = 3;
+    private static final int MULTIPLICAR = 4;
+    private static final int DIVIDIR = 5;
+    private static final int NEGAR = 6;
+    
+    private final int[] programa;
+    private final long[] constantes;
+    private final int profundidade; // Tamanho maximo da pilha
+    private final String[] literais; // Texto entre as variaveis; literais.length == ocorrencias.length + 1
+    private final int[] ocorrencias; // Variavel de cada posicao do texto
+    private final int[] minimos; // Faixa propria por variavel, ou SEM_FAIXA
+    private final int[] maximos;
+    private final boolean[] ajustaveis; // Variavel que aparece uma vez so (pode virar dividendo exato)
+    
+    private ExpressaoMatematica(Compilador compilador) {
+        this.programa = compilador.programa.stream().mapToInt(Integer::intValue).toArray();
+        this.constantes = compilador.constantes.stream().mapToLong(Long::longValue).toArray();
+        this.profundidade = Math.max(1, compilador.profundidadeMaxima);
+        this.literais = compilador.literais.toArray(new String[0]);
+        this.ocorrencias = compilador.ocorrencias.stream().mapToInt(Integer::intValue).toArray();
+        this.minimos = compilador.minimos.stream().mapToInt(Integer::intValue).toArray();
+        this.maximos = compilador.maximos.stream().mapToInt(Integer::intValue).toArray();
+        this.ajustaveis = new boolean[minimos.length];
+        int[] contagem = new int[minimos.length];
+        for (int variavel : ocorrencias) {
+            contagem[variavel]++;
+        }
+        for (int v = 0; v < contagem.length; v++) {
+            ajustaveis[v] = contagem[v] == 1;
+        }
+    }
+    
+    /**
+     * Compila o modelo da conta
+     * @throws IllegalArgumentException Se o modelo nao for uma expressao valida
+     */
+    @Nonnull
+    public static ExpressaoMatematica compilar(@Nonnull String modelo) {
+        Compilador compilador = new Compilador(modelo);
+        compilador.expressao();
+        compilador.pularEspacos();
+        if (compilador.posicao < modelo.length()) {
+            throw new IllegalArgumentException("caractere inesperado '" + modelo.charAt(compilador.posicao)
+                + "' na posicao " + (compilador.posicao + 1));
+        }
+        compilador.literais.add(modelo.substring(compilador.fimLiteral));
+        return new ExpressaoMatematica(compilador);
+    }
+    
+    /**
+     * Sorteia os numeros e calcula o resultado
+     * @param minimo Menor numero das variaveis sem faixa propria
+     * @param maximo Maior numero das variaveis sem faixa propria
+     * @return Conta, ou null se nenhum sorteio deu resultado inteiro
+     */
+    @Nullable
+    public Conta gerar(int minimo, int maximo, @Nonnull SplittableRandom random) {
+        long[] valores = new long[minimos.length];
+        long[] pilha = new long[profundidade];
+        int[] origens = new int[profundidade];
+        for (int tentativa = 0; tentativa < TENTATIVAS; tentativa++) {
+            for (int v = 0; v < valores.length; v++) {
+                int de = minimos[v] != SEM_FAIXA ? minimos[v] : minimo;
+                int ate = minimos[v] != SEM_FAIXA ? maximos[v] : maximo;
+                valores[v] = random.nextLong(de, (long) ate + 1);
+            }
+            long resultado = avaliar(valores, pilha, origens);
+            if (resultado != LeitorNumero.INVALIDO) {
+                return new Conta(texto(valores), resultado);
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Avalia o programa; divisoes por uma variavel ajustavel corrigem o dividendo em valores
+     * @param origens Variavel ajustavel de cada posicao da pilha, ou -1
+     * @return Resultado, ou LeitorNumero.INVALIDO se uma divisao nao for exata ou estourar o limite
+     */
+    private long avaliar(long[] valores, long[] pilha, int[] origens) {
+        int topo = 0;
+        try {
+            for (int i = 0; i < programa.length; i += 2) {
+                switch (programa[i]) {
+                    case CONSTANTE:
+                        origens[topo] = -1;
+                        pilha[topo++] = constantes[programa[i + 1]];
+                        break;
+                    case VARIAVEL:
+                        origens[topo] = ajustaveis[programa[i + 1]] ? programa[i + 1] : -1;
+                        pilha[topo++] = valores[programa[i + 1]];
+                        break;
+                    case NEGAR:
+                        origens[topo - 1] = -1;
+                        pilha[topo - 1] = Math.negateExact(pilha[topo - 1]);
+                        break;
+                    default:
+                        long direita = pilha[--topo];
+                        long esquerda = pilha[topo - 1];
+                        int dividendo = origens[topo - 1];
+                        if (programa[i] == DIVIDIR && dividendo >= 0 && direita != 0 && esquerda % direita != 0) {
+                            // O numero sorteado vira o quociente; o texto mostra o dividendo ajustado
+                            valores[dividendo] = Math.multiplyExact(esquerda, direita);
+                            esquerda = valores[dividendo];
+                        }
+                        origens[topo - 1] = -1;
+                        pilha[topo - 1] = operar(programa[i], esquerda, direita);
+                        break;
+                }
+                if (Math.abs(pilha[topo - 1]) > LIMITE_RESULTADO) {
+                    return LeitorNumero.INVALIDO;
+                }
+            }
+        } catch (ArithmeticException e) {
+            return LeitorNumero.INVALIDO;
+        }
+        return pilha[0];
+    }
+    
+    private static long operar(int operacao, long esquerda, long direita) {
+        switch (operacao) {
+            case SOMAR:
+                return Math.addExact(esquerda, direita);
+            case SUBTRAIR:
+                return Math.subtractExact(esquerda, direita);
+            case MULTIPLICAR:
+                return Math.multiplyExact(esquerda, direita);
+            case DIVIDIR:
+                if (direita == 0 || esquerda % direita != 0) {
+                    throw new ArithmeticException("divisao nao exata");
+                }
+                return esquerda / direita;
+            default:
+                throw new IllegalStateException("Operacao desconhecida: " + operacao);
+        }
+    }
+    
+    private String texto(long[] valores) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ocorrencias.length; i++) {
+            sb.append(literais[i]);
+            long valor = valores[ocorrencias[i]];
+            if (valor < 0) {
+                sb.append('(').append(valor).append(')');
+            } else {
+                sb.append(valor);
+            }
+        }
+        return sb.append(literais[ocorrencias.length]).toString();
+    }
+    
+    /**
+     * Analisador descendente recursivo do modelo
+     */
+    private static final class Compilador {
+        
+        final String modelo;
+        int posicao = 0;
+        final List<Integer> programa = new ArrayList<>();
+        final List<Long> constantes = new ArrayList<>();
+        int profundidade = 0;
+        int profundidadeMaxima = 0;
+        final List<String> literais = new ArrayList<>();
+        final List<Integer> ocorrencias = new ArrayList<>();
+        int fimLiteral = 0;
+        final List<String> nomes = new ArrayList<>();
+        final List<Integer> minimos = new ArrayList<>();
+        final List<Integer> maximos = new ArrayList<>();
+        
+        Compilador(String modelo) {
+            this.modelo = modelo;
+        }
+        
+        void expressao() {
+            termo();
+            while (true) {
+                char c = proximo();
+                if (c != '+' && c != '-') {
+                    return;
+                }
+                posicao++;
+                termo();
+                emitirOperacao(c == '+' ? SOMAR : SUBTRAIR);
+            }
+        }
+        
+        void termo() {
+            fator();
+            while (true) {
+                char c = proximo();
+                int operacao;
+                if (c == '*' || c == 'x' || c == 'X' || c == '\u00D7') {
+                    operacao = MULTIPLICAR;
+                } else if (c == '/' || c == '\u00F7') {
+                    operacao = DIVIDIR;
+                } else {
+                    return;
+                }
+                posicao++;
+                fator();
+                emitirOperacao(operacao);
+            }
+        }
+        
+        void fator() {
+            char c = proximo();
+            if (c == '-') {
+                posicao++;
+                fator();
+                emitir(NEGAR, 0);
+            } else if (c == '(') {
+                posicao++;
+                expressao();
+                if (proximo() != ')') {
+                    throw erro("')' esperado");
+                }
+                posicao++;
+            } else if (c == '{') {
+                variavel();
+            } else if (c >= '0' && c <= '9') {
+                long valor = 0;
+                while (posicao < modelo.length() && modelo.charAt(posicao) >= '0' && modelo.charAt(posicao) <= '9') {
+                    valor = valor * 10 + (modelo.charAt(posicao++) - '0');
+                    if (valor > LIMITE_RESULTADO) {
+                        throw erro("numero grande demais");
+                    }
+                }
+                constantes.add(valor);
+                emitirValor(CONSTANTE, constantes.size() - 1);
+            } else {
+                throw erro(c == 0 ? "expressao incompleta" : "numero ou variavel esperado");
+            }
+        }
+        
+        /**
+         * {nome} ou {nome:minimo-maximo}
+         */
+        void variavel() {
+            int inicio = posicao;
+            int fim = modelo.indexOf('}', inicio);
+            if (fim < 0) {
+                throw erro("'}' esperado");
+            }
+            String conteudo = modelo.substring(inicio + 1, fim).trim();
+            String nome = conteudo;
+            int minimo = SEM_FAIXA;
+            int maximo = SEM_FAIXA;
+            int doisPontos = conteudo.indexOf(':');
+            if (doisPontos >= 0) {
+                nome = conteudo.substring(0, doisPontos).trim();
+                String faixa = conteudo.substring(doisPontos + 1).trim();
+                int traco = faixa.indexOf('-', 1);
+                try {
+                    minimo = Integer.parseInt(faixa.substring(0, traco).trim());
+                    maximo = Integer.parseInt(faixa.substring(traco + 1).trim());
+                } catch (RuntimeException e) {
+                    throw erro("faixa invalida em {" + conteudo + "}, use {nome:minimo-maximo}");
+                }
+                if (minimo > maximo) {
+                    throw erro("faixa vazia em {" + conteudo + "}");
+                }
+            }
+            if (nome.isEmpty()) {
+                throw erro("variavel sem nome");
+            }
+            
+            int indice = nomes.indexOf(nome);
+            if (indice < 0) {
+                indice = nomes.size();
+                nomes.add(nome);
+                minimos.add(minimo);
+                maximos.add(maximo);
+            } else if (minimo != SEM_FAIXA) {
+                if (minimos.get(indice) != SEM_FAIXA && (minimos.get(indice) != minimo || maximos.get(indice) != maximo)) {
+                    throw erro("faixas diferentes para {" + nome + "}");
+                }
+                minimos.set(indice, minimo);
+                maximos.set(indice, maximo);
+            }
+            
+            literais.add(modelo.substring(fimLiteral, inicio));
+            ocorrencias.add(indice);
+            posicao = fim + 1;
+            fimLiteral = posicao;
+            emitirValor(VARIAVEL, indice);
+        }
+        
+        /**
+         * Proximo caractere significativo (sem consumir), ou 0 no fim
+         */
+        char proximo() {
+            pularEspacos();
+            return posicao < modelo.length() ? modelo.charAt(posicao) : 0;
+        }
+        
+        void pularEspacos() {
+            while (posicao < modelo.length() && Character.isWhitespace(modelo.charAt(posicao))) {
+                posicao++;
+            }
+        }
+        
+        void emitirValor(int operacao, int argumento) {
+            emitir(operacao, argumento);
+            profundidadeMaxima = Math.max(profundidadeMaxima, ++profundidade);
+        }
+        
+        void emitirOperacao(int operacao) {
+            emitir(operacao, 0);
+            profundidade--;
+        }
+        
+        void emitir(int operacao, int argumento) {
+            programa.add(operacao);
+            programa.add(argumento);
+        }
+        
+        IllegalArgumentException erro(String mensagem) {
+            return new IllegalArgumentException(mensagem + " (posicao " + (posicao + 1) + ")");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de baldes fixos, sem lock.
+ * 
+ * Cada balde e um LongAdder, entao varias threads registram ao mesmo tempo sem
+ * disputar a mesma linha de cache; registrar custa uma busca binaria nos limites
+ * e um incremento. A leitura (comando / exportacao) soma os adders e pode ver
+ * registros em andamento, o que basta para metricas.
+ */
+public final class Histograma {
+    
+    /**
+     * Limites de latencia em ns (1us a 10s)
+     */
+    public static final long[] LIMITES_LATENCIA_NS = {
+        1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L, 25_000_000L, 50_000_000L, 100_000_000L,
+        250_000_000L, 500_000_000L, 1_000_000_000L, 2_500_000_000L, 5_000_000_000L, 10_000_000_000L
+    };
+    
+    /**
+     * Limites de duracao de rodada em ns (1s a 10min)
+     */
+    public static final long[] LIMITES_RODADA_NS = {
+        1_000_000_000L, 2_000_000_000L, 5_000_000_000L, 10_000_000_000L, 15_000_000_000L,
+        30_000_000_000L, 60_000_000_000L, 120_000_000_000L, 300_000_000_000L, 600_000_000_000L
+    };
+    
+    /**
+     * Limites de contagem (ex: palpites por rodada)
+     */
+    public static final long[] LIMITES_CONTAGEM = {0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+    
+    private final long[] limites;
+    private final LongAdder[] baldes; // baldes[i] conta valores <= limites[i]; o ultimo e +Inf
+    private final LongAdder soma = new LongAdder();
+    
+    public Histograma(@Nonnull long[] limites) {
+        this.limites = limites.clone();
+        Arrays.sort(this.limites);
+        this.baldes = new LongAdder[this.limites.length + 1];
+        for (int i = 0; i < baldes.length; i++) {
+            baldes[i] = new LongAdder();
+        }
+    }
+    
+    public void registrar(long valor) {
+        int pos = Arrays.binarySearch(limites, valor);
+        baldes[pos >= 0 ? pos : -pos - 1].increment();
+        soma.add(valor);
+    }
+    
+    /**
+     * Contagem de cada balde (nao acumulada); o ultimo e o balde acima do maior limite
+     */
+    @Nonnull
+    public long[] getContagens() {
+        long[] contagens = new long[baldes.length];
+        for (int i = 0; i < baldes.length; i++) {
+            contagens[i] = baldes[i].sum();
+        }
+        return contagens;
+    }
+    
+    @Nonnull
+    public long[] getLimites() {
+        return limites.clone();
+    }
+    
+    public long getSoma() {
+        return soma.sum();
+    }
+    
+    public long getTotal() {
+        long total = 0;
+        for (LongAdder balde : baldes) {
+            total += balde.sum();
+        }
+        return total;
+    }
+    
+    /**
+     * Estimativa de percentil pelo limite superior do balde
+     * @param quantil Entre 0 e 1
+     * @return Limite do balde, Long.MAX_VALUE se cair acima do maior limite, ou -1 sem registros
+     */
+    public long percentil(double quantil) {
+        long[] contagens = getContagens();
+        long total = 0;
+        for (long contagem : contagens) {
+            total += contagem;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(quantil * total));
+        long acumulado = 0;
+        for (int i = 0; i < limites.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return limites[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+}
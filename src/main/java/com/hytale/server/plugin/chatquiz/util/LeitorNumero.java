@@ -0,0 +1,101 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Leitura de um numero inteiro direto da mensagem do chat, em uma passada e sem alocar.
+ * 
+ * Aceita espacos nas pontas, sinal e separadores de milhar em qualquer formato
+ * ("1.000", "1,000", "1 000", "1'000"), desde que os grupos tenham 3 digitos e
+ * usem o mesmo separador. Uma parte decimal so de zeros e ignorada ("42,0",
+ * "1.000,00"). Qualquer outra coisa (letras, "1,5", "1.00.0") nao e um numero.
+ */
+public final class LeitorNumero {
+    
+    /**
+     * Retorno para textos que nao sao um numero inteiro
+     */
+    public static final long INVALIDO = Long.MIN_VALUE;
+    
+    private static final int MAXIMO_DIGITOS = 18; // Cabe em um long sem verificar overflow
+    
+    private LeitorNumero() {}
+    
+    /**
+     * @return Valor do numero, ou INVALIDO
+     */
+    public static long ler(@Nonnull CharSequence texto) {
+        int inicio = 0;
+        int fim = texto.length();
+        while (inicio < fim && texto.charAt(inicio) <= ' ') {
+            inicio++;
+        }
+        while (fim > inicio && texto.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        if (inicio == fim) {
+            return INVALIDO;
+        }
+        
+        boolean negativo = false;
+        char c = texto.charAt(inicio);
+        if (c == '-' || c == '+' || c == '\u2212') {
+            negativo = c != '+';
+            inicio++;
+        }
+        
+        long valor = 0;
+        int digitos = 0;
+        char separador = 0;
+        for (int i = inicio; i < fim; i++) {
+            c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > MAXIMO_DIGITOS) {
+                    return INVALIDO;
+                }
+                valor = valor * 10 + (c - '0');
+                continue;
+            }
+            if (digitos == 0 || !isSeparador(c)) {
+                return INVALIDO;
+            }
+            
+            int grupo = digitosSeguidos(texto, i + 1, fim);
+            boolean milhar = grupo == 3 && (separador == 0 ? digitos <= 3 : c == separador);
+            if (milhar) {
+                separador = c;
+                continue;
+            }
+            // Separador decimal: so vale se o resto forem zeros (o resultado e sempre inteiro)
+            if ((c == '.' || c == ',') && c != separador && grupo > 0 && i + 1 + grupo == fim && isZeros(texto, i + 1, fim)) {
+                break;
+            }
+            return INVALIDO;
+        }
+        if (digitos == 0) {
+            return INVALIDO;
+        }
+        return negativo ? -valor : valor;
+    }
+    
+    private static boolean isSeparador(char c) {
+        return c == '.' || c == ',' || c == ' ' || c == '\'' || c == '\u00A0' || c == '\u202F';
+    }
+    
+    private static int digitosSeguidos(CharSequence texto, int inicio, int fim) {
+        int i = inicio;
+        while (i < fim && texto.charAt(i) >= '0' && texto.charAt(i) <= '9') {
+            i++;
+        }
+        return i - inicio;
+    }
+    
+    private static boolean isZeros(CharSequence texto, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            if (texto.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
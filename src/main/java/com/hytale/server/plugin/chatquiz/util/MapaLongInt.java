@@ -0,0 +1,86 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> int com enderecamento aberto (sondagem linear), sem boxing.
+ * Usado para indices grandes (ex: hash do conteudo -> posicao da pergunta),
+ * onde um HashMap<Long, Integer> custaria dezenas de bytes por entrada.
+ * 
+ * Nao e thread-safe para escrita; depois de montado pode ser lido por varias threads.
+ */
+public final class MapaLongInt {
+    
+    private static final int AUSENTE = -1;
+    
+    private long[] chaves;
+    private int[] valores; // AUSENTE marca posicao livre
+    private int tamanho;
+    private int mascara;
+    
+    public MapaLongInt(int capacidadeEsperada) {
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeEsperada * 2 - 1)) << 1;
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        Arrays.fill(valores, AUSENTE);
+        mascara = capacidade - 1;
+    }
+    
+    /**
+     * Associa o valor (nao negativo) a chave, substituindo o anterior
+     */
+    public void put(long chave, int valor) {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + valor);
+        }
+        if ((tamanho + 1) * 2 > chaves.length) {
+            crescer();
+        }
+        int pos = posicao(chave);
+        if (valores[pos] == AUSENTE) {
+            chaves[pos] = chave;
+            tamanho++;
+        }
+        valores[pos] = valor;
+    }
+    
+    /**
+     * @return Valor da chave, ou -1 se ausente
+     */
+    public int get(long chave) {
+        return valores[posicao(chave)];
+    }
+    
+    public int getTamanho() {
+        return tamanho;
+    }
+    
+    private int posicao(long chave) {
+        int pos = espalhar(chave) & mascara;
+        while (valores[pos] != AUSENTE && chaves[pos] != chave) {
+            pos = (pos + 1) & mascara;
+        }
+        return pos;
+    }
+    
+    private void crescer() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        chaves = new long[chavesAntigas.length * 2];
+        valores = new int[chavesAntigas.length * 2];
+        Arrays.fill(valores, AUSENTE);
+        mascara = chaves.length - 1;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (valoresAntigos[i] != AUSENTE) {
+                int pos = posicao(chavesAntigas[i]);
+                chaves[pos] = chavesAntigas[i];
+                valores[pos] = valoresAntigos[i];
+            }
+        }
+    }
+    
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
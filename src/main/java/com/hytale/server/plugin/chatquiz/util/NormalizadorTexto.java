@@ -0,0 +1,153 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Normalizador de texto para comparacao de respostas.
+ * Remove acentos, converte para minusculas e aplica trim.
+ * 
+ * Resultado identico a:
+ *   Normalizer.normalize(texto, NFD).replaceAll("\\p{InCombiningDiacriticalMarks}", "").toLowerCase().trim()
+ * 
+ * Porem em uma unica passada:
+ * - ASCII ja normalizado retorna a propria String (sem alocacao)
+ * - Latin-1 / Latin Extended-A usa uma tabela de caracteres pre-calculada
+ * - Somente textos com outros caracteres usam o Normalizer do Java
+ */
+public final class NormalizadorTexto {
+    
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("[\\p{InCombiningDiacriticalMarks}]");
+    
+    // Tabela cobre Basic Latin, Latin-1 Supplement e Latin Extended-A
+    private static final int LIMITE_TABELA = 0x180;
+    private static final char MARCA_INICIO = '\u0300';
+    private static final char MARCA_FIM = '\u036F';
+    
+    // Valor na tabela para caracteres que exigem o Normalizer (resultado com mais de um char)
+    private static final char SEM_MAPEAMENTO = '\uFFFF';
+    
+    private static final char[] TABELA = new char[LIMITE_TABELA];
+    
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+    
+    static {
+        // Calcula a tabela com o proprio pipeline do Normalizer, garantindo comportamento identico
+        for (int c = 0; c < LIMITE_TABELA; c++) {
+            String resultado = normalizarLento(String.valueOf((char) c), false);
+            TABELA[c] = resultado.length() == 1 ? resultado.charAt(0) : SEM_MAPEAMENTO;
+        }
+    }
+    
+    private NormalizadorTexto() {}
+    
+    /**
+     * Normaliza o texto (sem acentos, minusculo, com trim)
+     */
+    @Nonnull
+    public static String normalizar(@Nonnull String texto) {
+        int length = texto.length();
+        
+        // Caminho rapido: ASCII que ja esta normalizado
+        boolean jaNormalizado = length == 0 || (texto.charAt(0) > ' ' && texto.charAt(length - 1) > ' ');
+        for (int i = 0; i < length && jaNormalizado; i++) {
+            char c = texto.charAt(i);
+            jaNormalizado = c < 0x80 && TABELA[c] == c;
+        }
+        if (jaNormalizado) {
+            return texto;
+        }
+        
+        char[] buffer = BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+            BUFFER.set(buffer);
+        }
+        
+        int tamanho = 0;
+        for (int i = 0; i < length; i++) {
+            char c = texto.charAt(i);
+            if (isMarcaDiacritica(c)) {
+                continue;
+            }
+            char convertido = c < LIMITE_TABELA ? TABELA[c] : SEM_MAPEAMENTO;
+            if (convertido == SEM_MAPEAMENTO) {
+                return normalizarLento(texto, true);
+            }
+            buffer[tamanho++] = convertido;
+        }
+        
+        int inicio = 0;
+        while (inicio < tamanho && buffer[inicio] <= ' ') {
+            inicio++;
+        }
+        while (tamanho > inicio && buffer[tamanho - 1] <= ' ') {
+            tamanho--;
+        }
+        return new String(buffer, inicio, tamanho - inicio);
+    }
+    
+    /**
+     * Compara o texto com uma resposta ja normalizada, sem criar Strings intermediarias.
+     * Equivale a normalizar(texto).equals(normalizado).
+     */
+    public static boolean corresponde(@Nonnull String texto, @Nonnull String normalizado) {
+        int inicio = 0;
+        int fim = texto.length();
+        
+        // Ignora espacos e marcas nas pontas (trim aplicado apos remover acentos)
+        while (inicio < fim && isIgnoradoNasPontas(texto.charAt(inicio))) {
+            inicio++;
+        }
+        while (fim > inicio && isIgnoradoNasPontas(texto.charAt(fim - 1))) {
+            fim--;
+        }
+        
+        int j = 0;
+        for (int i = inicio; i < fim; i++) {
+            char c = texto.charAt(i);
+            if (isMarcaDiacritica(c)) {
+                continue;
+            }
+            char convertido = c < LIMITE_TABELA ? TABELA[c] : SEM_MAPEAMENTO;
+            if (convertido == SEM_MAPEAMENTO) {
+                return normalizar(texto).equals(normalizado);
+            }
+            if (j >= normalizado.length() || normalizado.charAt(j++) != convertido) {
+                return false;
+            }
+        }
+        return j == normalizado.length();
+    }
+    
+    /**
+     * Indica se o caractere e convertido pela tabela, sem precisar do Normalizer
+     */
+    public static boolean isSimples(char c) {
+        return (c < LIMITE_TABELA && TABELA[c] != SEM_MAPEAMENTO) || isMarcaDiacritica(c);
+    }
+    
+    /**
+     * Converte um caractere simples (ver isSimples) que nao seja marca diacritica
+     */
+    public static char converterCaractere(char c) {
+        return TABELA[c];
+    }
+    
+    public static boolean isMarcaDiacritica(char c) {
+        return c >= MARCA_INICIO && c <= MARCA_FIM;
+    }
+    
+    private static boolean isIgnoradoNasPontas(char c) {
+        return isMarcaDiacritica(c) || (c < LIMITE_TABELA && TABELA[c] <= ' ');
+    }
+    
+    @Nonnull
+    private static String normalizarLento(@Nonnull String texto, boolean trim) {
+        String normalizado = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        normalizado = MARCAS_DIACRITICAS.matcher(normalizado).replaceAll("");
+        normalizado = normalizado.toLowerCase();
+        return trim ? normalizado.trim() : normalizado;
+    }
+}
@@ -0,0 +1,98 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Observa um arquivo com WatchService e avisa quando ele muda.
+ * 
+ * Editores costumam gravar em varias etapas (truncar, escrever, renomear),
+ * entao os eventos sao agrupados: o aviso so dispara depois de um periodo
+ * sem novos eventos. Eventos de outros arquivos da pasta sao ignorados.
+ */
+public final class ObservadorArquivo implements AutoCloseable {
+    
+    private final Path arquivo;
+    private final long atrasoMs;
+    private final Runnable aoAlterar;
+    private final WatchService watchService;
+    private final Thread thread;
+    
+    private ObservadorArquivo(Path arquivo, long atrasoMs, Runnable aoAlterar) throws IOException {
+        this.arquivo = arquivo.getFileName();
+        this.atrasoMs = atrasoMs;
+        this.aoAlterar = aoAlterar;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        arquivo.toAbsolutePath().getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = Thread.ofVirtual().name("ChatQuiz-Observador").unstarted(this::observar);
+    }
+    
+    /**
+     * Comeca a observar o arquivo
+     * @param arquivo Arquivo observado (a pasta dele precisa existir)
+     * @param atrasoMs Tempo sem eventos antes de avisar
+     * @param aoAlterar Chamado na thread do observador
+     */
+    @Nonnull
+    public static ObservadorArquivo iniciar(@Nonnull Path arquivo, long atrasoMs, @Nonnull Runnable aoAlterar) throws IOException {
+        ObservadorArquivo observador = new ObservadorArquivo(arquivo, atrasoMs, aoAlterar);
+        observador.thread.start();
+        return observador;
+    }
+    
+    private void observar() {
+        try {
+            while (true) {
+                if (!consumir(watchService.take())) {
+                    continue;
+                }
+                // Agrupa a rajada de eventos ate a pasta ficar quieta
+                WatchKey proxima;
+                while ((proxima = watchService.poll(atrasoMs, TimeUnit.MILLISECONDS)) != null) {
+                    consumir(proxima);
+                }
+                try {
+                    aoAlterar.run();
+                } catch (RuntimeException e) {
+                    // Erro de quem recarrega nao pode derrubar o observador
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Observador fechado
+        }
+    }
+    
+    /**
+     * @return true se algum evento for do arquivo observado
+     */
+    private boolean consumir(WatchKey chave) {
+        boolean relevante = false;
+        for (WatchEvent<?> evento : chave.pollEvents()) {
+            if (evento.kind() == StandardWatchEventKinds.OVERFLOW || arquivo.equals(evento.context())) {
+                relevante = true;
+            }
+        }
+        chave.reset();
+        return relevante;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Ignorado no desligamento
+        }
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,217 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Roda de temporizadores (hashed timing wheel) para muitos prazos curtos e baratos.
+ * 
+ * Uma thread avanca a roda a cada tick; cada posicao guarda uma lista duplamente
+ * ligada dos temporizadores que vencem nela, e prazos alem de uma volta contam as
+ * voltas restantes. Agendar e cancelar sao O(1) e nao travam: o temporizador entra
+ * (ou sai) por uma fila sem lock e a propria thread da roda o liga (ou desliga) da
+ * posicao no tick seguinte.
+ * 
+ * A thread da roda nunca executa as tarefas: as vencidas sao entregues ao executor,
+ * entao uma tarefa lenta nao atrasa os outros prazos. Nenhuma tarefa vence antes do
+ * prazo; o atraso e de ate um tick, mais a espera na fila do executor.
+ */
+public final class RodaTemporizadores {
+    
+    private final long tickNanos;
+    private final int mascara;
+    private final Temporizador[] posicoes; // Cabeca da lista de cada posicao (so a thread da roda)
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Temporizador> novos = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Temporizador> cancelados = new ConcurrentLinkedQueue<>();
+    private final long inicioNanos;
+    private final Thread thread;
+    private volatile boolean ativa = true;
+    private long tick = 0; // So a thread da roda
+    
+    /**
+     * @param nomeThread Nome da thread da roda
+     * @param tick Resolucao da roda
+     * @param tamanho Posicoes por volta (potencia de 2); uma volta dura tick x tamanho
+     * @param executor Onde as tarefas vencidas rodam
+     */
+    public RodaTemporizadores(@Nonnull String nomeThread, long tick, @Nonnull TimeUnit unidade, int tamanho,
+                              @Nonnull Executor executor) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("tick deve ser maior que zero");
+        }
+        if (tamanho <= 0 || Integer.bitCount(tamanho) != 1) {
+            throw new IllegalArgumentException("tamanho deve ser potencia de 2: " + tamanho);
+        }
+        this.tickNanos = unidade.toNanos(tick);
+        this.mascara = tamanho - 1;
+        this.posicoes = new Temporizador[tamanho];
+        this.executor = executor;
+        this.inicioNanos = System.nanoTime();
+        this.thread = new Thread(this::girar, nomeThread);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+    
+    /**
+     * Agenda uma tarefa (O(1), sem lock)
+     * @throws RejectedExecutionException Se a roda estiver desligada
+     */
+    @Nonnull
+    public Temporizador agendar(long atraso, @Nonnull TimeUnit unidade, @Nonnull Runnable tarefa) {
+        if (!ativa) {
+            throw new RejectedExecutionException("Roda de temporizadores desligada");
+        }
+        Temporizador temporizador = new Temporizador(this, tarefa, System.nanoTime() + Math.max(0, unidade.toNanos(atraso)));
+        novos.add(temporizador);
+        return temporizador;
+    }
+    
+    /**
+     * Para a thread da roda; os temporizadores pendentes sao descartados
+     */
+    public void desligar() {
+        ativa = false;
+        LockSupport.unpark(thread);
+    }
+    
+    private void girar() {
+        while (ativa) {
+            long prazoTick = inicioNanos + tick * tickNanos;
+            long espera;
+            while ((espera = prazoTick - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, espera);
+                if (!ativa) {
+                    return;
+                }
+            }
+            removerCancelados();
+            distribuirNovos();
+            vencer(posicoes[(int) (tick & mascara)]);
+            tick++;
+        }
+    }
+    
+    private void removerCancelados() {
+        Temporizador temporizador;
+        while ((temporizador = cancelados.poll()) != null) {
+            if (temporizador.posicao >= 0) {
+                desligarDaPosicao(temporizador);
+            }
+        }
+    }
+    
+    private void distribuirNovos() {
+        Temporizador temporizador;
+        while ((temporizador = novos.poll()) != null) {
+            if (temporizador.estado != Temporizador.PENDENTE) {
+                continue;
+            }
+            // Tick em que o prazo ja passou (arredondado para cima); atrasados vencem neste tick
+            long alvo = Math.max(tick, Math.ceilDiv(temporizador.prazoNanos - inicioNanos, tickNanos));
+            temporizador.voltas = (alvo - tick) >> Integer.numberOfTrailingZeros(posicoes.length);
+            ligarNaPosicao(temporizador, (int) (alvo & mascara));
+        }
+    }
+    
+    private void vencer(Temporizador cabeca) {
+        Temporizador temporizador = cabeca;
+        while (temporizador != null) {
+            Temporizador proximo = temporizador.proximo;
+            if (temporizador.voltas <= 0) {
+                desligarDaPosicao(temporizador);
+                if (Temporizador.ESTADO.compareAndSet(temporizador, Temporizador.PENDENTE, Temporizador.VENCIDO)) {
+                    try {
+                        executor.execute(temporizador.tarefa);
+                    } catch (RejectedExecutionException e) {
+                        // Executor desligado
+                    }
+                }
+            } else {
+                temporizador.voltas--;
+            }
+            temporizador = proximo;
+        }
+    }
+    
+    private void ligarNaPosicao(Temporizador temporizador, int posicao) {
+        Temporizador cabeca = posicoes[posicao];
+        temporizador.posicao = posicao;
+        temporizador.proximo = cabeca;
+        if (cabeca != null) {
+            cabeca.anterior = temporizador;
+        }
+        posicoes[posicao] = temporizador;
+    }
+    
+    private void desligarDaPosicao(Temporizador temporizador) {
+        if (temporizador.anterior != null) {
+            temporizador.anterior.proximo = temporizador.proximo;
+        } else {
+            posicoes[temporizador.posicao] = temporizador.proximo;
+        }
+        if (temporizador.proximo != null) {
+            temporizador.proximo.anterior = temporizador.anterior;
+        }
+        temporizador.anterior = null;
+        temporizador.proximo = null;
+        temporizador.posicao = -1;
+    }
+    
+    /**
+     * Tarefa agendada na roda
+     */
+    public static final class Temporizador {
+        
+        static final int PENDENTE = 0;
+        static final int CANCELADO = 1;
+        static final int VENCIDO = 2;
+        static final AtomicIntegerFieldUpdater<Temporizador> ESTADO =
+            AtomicIntegerFieldUpdater.newUpdater(Temporizador.class, "estado");
+        
+        private final RodaTemporizadores roda;
+        private final Runnable tarefa;
+        private final long prazoNanos;
+        private volatile int estado = PENDENTE;
+        
+        // So a thread da roda
+        private long voltas;
+        private int posicao = -1;
+        private Temporizador anterior;
+        private Temporizador proximo;
+        
+        private Temporizador(RodaTemporizadores roda, Runnable tarefa, long prazoNanos) {
+            this.roda = roda;
+            this.tarefa = tarefa;
+            this.prazoNanos = prazoNanos;
+        }
+        
+        /**
+         * Cancela a tarefa (O(1), sem lock)
+         * @return false se ja tinha vencido ou sido cancelada
+         */
+        public boolean cancelar() {
+            if (!ESTADO.compareAndSet(this, PENDENTE, CANCELADO)) {
+                return false;
+            }
+            roda.cancelados.add(this);
+            return true;
+        }
+        
+        public boolean isPendente() {
+            return estado == PENDENTE;
+        }
+        
+        /**
+         * Prazo no relogio do System.nanoTime
+         */
+        public long getPrazoNanos() {
+            return prazoNanos;
+        }
+    }
+}
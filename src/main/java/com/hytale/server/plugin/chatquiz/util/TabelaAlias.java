@@ -0,0 +1,85 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.random.RandomGenerator;
+
+/**
+ * Sorteio ponderado em tempo constante (metodo alias de Vose).
+ * 
+ * A montagem e O(n); cada sorteio usa um indice e uma moeda, independente
+ * da quantidade de pesos. Pesos zero nunca sao sorteados.
+ */
+public final class TabelaAlias {
+    
+    private final float[] probabilidade;
+    private final int[] alias;
+    
+    /**
+     * @param pesos Pesos nao negativos (ao menos um maior que zero)
+     * @throws IllegalArgumentException Se nao houver peso positivo
+     */
+    public TabelaAlias(@Nonnull double[] pesos) {
+        int n = pesos.length;
+        double soma = 0;
+        for (double peso : pesos) {
+            soma += Math.max(0, peso);
+        }
+        if (n == 0 || !(soma > 0)) {
+            throw new IllegalArgumentException("Nenhum peso positivo");
+        }
+        
+        probabilidade = new float[n];
+        alias = new int[n];
+        
+        // Pesos escalados para media 1: abaixo de 1 vai para "pequenos", o resto para "grandes"
+        double[] escalados = new double[n];
+        int[] pequenos = new int[n];
+        int[] grandes = new int[n];
+        int totalPequenos = 0;
+        int totalGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalados[i] = Math.max(0, pesos[i]) * n / soma;
+            if (escalados[i] < 1.0) {
+                pequenos[totalPequenos++] = i;
+            } else {
+                grandes[totalGrandes++] = i;
+            }
+        }
+        
+        while (totalPequenos > 0 && totalGrandes > 0) {
+            int pequeno = pequenos[--totalPequenos];
+            int grande = grandes[--totalGrandes];
+            probabilidade[pequeno] = (float) escalados[pequeno];
+            alias[pequeno] = grande;
+            escalados[grande] = (escalados[grande] + escalados[pequeno]) - 1.0;
+            if (escalados[grande] < 1.0) {
+                pequenos[totalPequenos++] = grande;
+            } else {
+                grandes[totalGrandes++] = grande;
+            }
+        }
+        // Sobras (so por erro de arredondamento, todas com peso ~1) ficam com probabilidade 1
+        while (totalGrandes > 0) {
+            int i = grandes[--totalGrandes];
+            probabilidade[i] = 1.0f;
+            alias[i] = i;
+        }
+        while (totalPequenos > 0) {
+            int i = pequenos[--totalPequenos];
+            probabilidade[i] = 1.0f;
+            alias[i] = i;
+        }
+    }
+    
+    /**
+     * Sorteia um indice com probabilidade proporcional ao peso
+     */
+    public int sortear(@Nonnull RandomGenerator random) {
+        int coluna = random.nextInt(probabilidade.length);
+        return random.nextFloat() < probabilidade[coluna] ? coluna : alias[coluna];
+    }
+    
+    public int getTamanho() {
+        return probabilidade.length;
+    }
+}
@@ -0,0 +1,92 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Texto simples com placeholders {nome}, compilado uma vez.
+ * 
+ * O texto e quebrado em trechos literais e nomes de placeholder; renderizar e so
+ * concatenar, sem procurar cada placeholder de novo no texto. Placeholders sem
+ * valor ficam como estao (mesmo comportamento do String.replace).
+ */
+public final class TemplateTexto {
+    
+    private final String original;
+    private final String[] literais; // literais.length == chaves.length + 1
+    private final String[] chaves;   // Com as chaves, ex: "{player}"
+    private final int tamanhoLiterais;
+    
+    private TemplateTexto(String original, String[] literais, String[] chaves) {
+        this.original = original;
+        this.literais = literais;
+        this.chaves = chaves;
+        int tamanho = 0;
+        for (String literal : literais) {
+            tamanho += literal.length();
+        }
+        this.tamanhoLiterais = tamanho;
+    }
+    
+    @Nonnull
+    public static TemplateTexto compilar(@Nonnull String texto) {
+        List<String> literais = new ArrayList<>();
+        List<String> chaves = new ArrayList<>();
+        int inicioLiteral = 0;
+        int i = 0;
+        while (i < texto.length()) {
+            int fim = texto.charAt(i) == '{' ? fimPlaceholder(texto, i) : -1;
+            if (fim < 0) {
+                i++;
+                continue;
+            }
+            literais.add(texto.substring(inicioLiteral, i));
+            chaves.add(texto.substring(i, fim + 1));
+            i = fim + 1;
+            inicioLiteral = i;
+        }
+        literais.add(texto.substring(inicioLiteral));
+        return new TemplateTexto(texto, literais.toArray(new String[0]), chaves.toArray(new String[0]));
+    }
+    
+    /**
+     * @return Posicao do '}' que fecha o placeholder em inicio, ou -1 se nao for um placeholder
+     */
+    private static int fimPlaceholder(String texto, int inicio) {
+        for (int i = inicio + 1; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '}') {
+                return i > inicio + 1 ? i : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && c != '_') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * @param valores Valores por placeholder, com as chaves (ex: "{player}")
+     */
+    @Nonnull
+    public String render(@Nonnull Map<String, String> valores) {
+        if (chaves.length == 0) {
+            return original;
+        }
+        StringBuilder sb = new StringBuilder(tamanhoLiterais + chaves.length * 16);
+        for (int i = 0; i < chaves.length; i++) {
+            sb.append(literais[i]);
+            String valor = valores.get(chaves[i]);
+            sb.append(valor != null ? valor : chaves[i]);
+        }
+        sb.append(literais[chaves.length]);
+        return sb.toString();
+    }
+    
+    @Nonnull
+    public String getOriginal() {
+        return original;
+    }
+}
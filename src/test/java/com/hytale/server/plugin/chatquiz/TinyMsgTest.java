@@ -0,0 +1,90 @@
+package com.hytale.server.plugin.chatquiz;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O lexer de passada unica (segmentar) deve gerar exatamente os mesmos segmentos
+ * que a implementacao original com minecraftToTags + regex (segmentarLegado).
+ */
+class TinyMsgTest {
+    
+    // Pedacos que formam codigos e tags validos, quebrados, aninhados e desconhecidos quando concatenados
+    private static final String[] PEDACOS = {
+        "&", "a", "l", "r", "m", "&a", "&r", "&l", "&z", "&6", "&F",
+        "<", ">", "/", ":", "b", "red", "#ff0000", "#12", "color", "gradient", "red:blue",
+        "<b>", "</b>", "<color:", "<gradient:red:#00ff00>", "<link:http://x>", "<reset>",
+        "x", "y", " ", "link", "RED", "<GOLD>", "</", "_", "{player}", "ção"
+    };
+    
+    private static final String[] CASOS = {
+        "",
+        "texto simples",
+        "&aOla &lMundo!",
+        "<color:red>Texto</color>",
+        "<gradient:red:blue>Gradiente</gradient>",
+        "&6&lQUIZ &fParabens &a{player}&f!",
+        "<gold><b>QUIZ</b> <white>Parabens <color:#55ff55><u>{player}</u></color>!</white></gold>",
+        "<color:&a>codigo no argumento</color>",
+        "<link:https://exemplo.com>link</link>",
+        "a < b > c",
+        "<naoexiste>texto</naoexiste>",
+        "</b></b>texto",
+        "&r&r&z&",
+        "<b"
+    };
+    
+    @Test
+    void casosConhecidosIguaisAoLegado() {
+        for (String texto : CASOS) {
+            assertMesmosSegmentos(texto);
+        }
+    }
+    
+    @Test
+    void textoAleatorioIgualAoLegado() {
+        Random random = new Random(3);
+        for (int i = 0; i < 300_000; i++) {
+            StringBuilder texto = new StringBuilder();
+            int pedacos = random.nextInt(10);
+            for (int j = 0; j < pedacos; j++) {
+                texto.append(PEDACOS[random.nextInt(PEDACOS.length)]);
+            }
+            assertMesmosSegmentos(texto.toString());
+        }
+    }
+    
+    private static void assertMesmosSegmentos(String texto) {
+        List<TinyMsg.Segment> esperado = TinyMsg.segmentarLegado(texto);
+        List<TinyMsg.Segment> obtido = TinyMsg.segmentar(texto);
+        if (esperado == null || obtido == null) {
+            assertEquals(esperado, obtido, texto);
+            return;
+        }
+        assertEquals(esperado.size(), obtido.size(), texto);
+        for (int i = 0; i < esperado.size(); i++) {
+            assertEquals(esperado.get(i).content(), obtido.get(i).content(), texto);
+            assertTrue(mesmoEstilo(esperado.get(i).state(), obtido.get(i).state()), texto + " [segmento " + i + "]");
+        }
+    }
+    
+    /**
+     * Compara o estilo campo a campo (o record compara o array do gradiente por referencia)
+     */
+    private static boolean mesmoEstilo(TinyMsg.StyleState a, TinyMsg.StyleState b) {
+        return Objects.equals(a.color(), b.color())
+            && Arrays.equals(a.gradient(), b.gradient())
+            && a.bold() == b.bold()
+            && a.italic() == b.italic()
+            && a.underlined() == b.underlined()
+            && a.monospace() == b.monospace()
+            && Objects.equals(a.link(), b.link());
+    }
+}
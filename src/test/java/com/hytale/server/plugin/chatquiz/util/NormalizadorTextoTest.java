@@ -0,0 +1,135 @@
+package com.hytale.server.plugin.chatquiz.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * NormalizadorTexto deve dar exatamente o resultado do pipeline original
+ * (NFD + remocao das marcas + toLowerCase + trim), inclusive no corresponde().
+ */
+class NormalizadorTextoTest {
+    
+    private static final String[] CORPUS = {
+        "",
+        "brasilia",
+        "Brasília",
+        "SÃO PAULO",
+        "  Coração  ",
+        "ação",
+        "ÁGUA",
+        "pão de açúcar",
+        "ônibus",
+        "às vezes",
+        "João e Antônio",
+        "Amazônia",
+        "Paraná",
+        "Ceará",
+        "pêssego",
+        "avô e avó",
+        "lingüiça",
+        "É verdade",
+        "Maçã",
+        "\tGoiânia\n",
+        // Ja decomposto (letra + marca combinante)
+        "a\u0301gua",
+        "Sa\u0303o Paulo",
+        // Marcas e espacos nas pontas
+        "\u0301abc\u0301",
+        " \u0303 ",
+        "\u0300",
+        // Fora da tabela: caem no Normalizer
+        "\uFB01m",
+        "\u01C4",
+        "Stra\u00DFe",
+        "\u1EBF",
+        "café \u2615",
+        "\u00BD",
+        "\u0130stanbul"
+    };
+    
+    // Caracteres usados nas strings aleatorias: ASCII, acentos do portugues, marcas soltas e casos do Normalizer
+    private static final char[] ALFABETO = (
+        "abcdeAZ09 \t-." +
+        "áàâãéêíóôõúüç" +
+        "ÁÀÂÃÉÊÍÓÔÕÚÜÇ" +
+        "\u0301\u0303\u0327\u00DF\u0130\uFB01\u1EBF\u00BD"
+    ).toCharArray();
+    
+    @Test
+    void normalizarIgualAoPipelineOriginal() {
+        for (String texto : CORPUS) {
+            assertEquals(legado(texto), NormalizadorTexto.normalizar(texto), texto);
+        }
+    }
+    
+    @Test
+    void normalizarIgualAoPipelineOriginalEmTodaATabela() {
+        for (char c = 0; c < 0x400; c++) {
+            String texto = "x" + c + "y";
+            assertEquals(legado(texto), NormalizadorTexto.normalizar(texto), "U+" + Integer.toHexString(c));
+        }
+    }
+    
+    @Test
+    void normalizarIgualAoPipelineOriginalEmTextoAleatorio() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            String texto = aleatorio(random);
+            assertEquals(legado(texto), NormalizadorTexto.normalizar(texto), texto);
+        }
+    }
+    
+    @Test
+    void correspondeIgualANormalizarEComparar() {
+        for (String texto : CORPUS) {
+            String normalizado = legado(texto);
+            assertTrue(NormalizadorTexto.corresponde(texto, normalizado), texto);
+            assertFalse(NormalizadorTexto.corresponde(texto, normalizado + "x"), texto);
+            if (!normalizado.isEmpty()) {
+                assertFalse(NormalizadorTexto.corresponde(texto, normalizado.substring(1)), texto);
+            }
+        }
+        
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            String texto = aleatorio(random);
+            String resposta = legado(random.nextBoolean() ? texto : aleatorio(random));
+            assertEquals(legado(texto).equals(resposta), NormalizadorTexto.corresponde(texto, resposta), texto + " / " + resposta);
+        }
+    }
+    
+    @Test
+    void asciiJaNormalizadoRetornaAMesmaString() {
+        for (String texto : new String[] {"", "brasilia", "sao paulo", "42", "a-b.c"}) {
+            assertSame(texto, NormalizadorTexto.normalizar(texto));
+        }
+        for (String texto : new String[] {"Brasilia", " sao paulo", "42 ", "\tx"}) {
+            String normalizado = NormalizadorTexto.normalizar(texto);
+            assertNotSame(texto, normalizado);
+            assertEquals(legado(texto), normalizado);
+        }
+    }
+    
+    private static String aleatorio(SplittableRandom random) {
+        char[] texto = new char[random.nextInt(12)];
+        for (int i = 0; i < texto.length; i++) {
+            texto[i] = ALFABETO[random.nextInt(ALFABETO.length)];
+        }
+        return new String(texto);
+    }
+    
+    private static String legado(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD)
+            .replaceAll("\\p{InCombiningDiacriticalMarks}", "")
+            .toLowerCase()
+            .trim();
+    }
+}